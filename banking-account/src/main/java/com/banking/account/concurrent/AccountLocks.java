@@ -0,0 +1,128 @@
+package com.banking.account.concurrent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks guarding account state.
+ * Each account id hashes onto one of a fixed number of stripes, so operations on
+ * unrelated accounts proceed in parallel while operations on the same account are
+ * serialized. Multi-account operations acquire their stripes in ascending index
+ * order, which rules out lock-ordering deadlocks between concurrent transfers.
+ */
+public class AccountLocks {
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public AccountLocks(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int stripeIndex(String accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Whether some thread holds the account's stripe right now. Writers that update a
+     * balance without the lock check it so as not to build on changes a holder may still
+     * undo; the answer can be stale by the time it is used.
+     */
+    public boolean isLocked(String accountId) {
+        return stripes[stripeIndex(accountId)].isLocked();
+    }
+
+    /**
+     * Whether account state may also be written by threads that bypass these locks, such as
+     * credits to hot accounts. Implementations that give each account a single writer
+     * thread return {@code false}.
+     */
+    public boolean allowsUnlockedWriters() {
+        return true;
+    }
+
+    public <T> T withLock(String accountId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(accountId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T withLocks(String firstAccountId, String secondAccountId, Supplier<T> action) {
+        int first = stripeIndex(firstAccountId);
+        int second = stripeIndex(secondAccountId);
+        if (first == second) {
+            return withLock(firstAccountId, action);
+        }
+        ReentrantLock outer = stripes[Math.min(first, second)];
+        ReentrantLock inner = stripes[Math.max(first, second)];
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                return action.get();
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} holding the stripes of every given account, acquired once each
+     * in ascending index order.
+     */
+    public <T> T withAllLocks(Collection<String> accountIds, Supplier<T> action) {
+        int[] indexes = new int[accountIds.size()];
+        int count = 0;
+        for (String accountId : accountIds) {
+            indexes[count++] = stripeIndex(accountId);
+        }
+        Arrays.sort(indexes);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || indexes[distinct - 1] != indexes[i]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        int locked = 0;
+        try {
+            while (locked < distinct) {
+                stripes[indexes[locked]].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            while (locked > 0) {
+                stripes[indexes[--locked]].unlock();
+            }
+        }
+    }
+}
@@ -1,22 +1,64 @@
 package com.banking.account.domain;
 
+import com.banking.account.offheap.OffHeapAccountTable;
 import com.banking.core.domain.AccountType;
+import com.banking.core.domain.CurrencyRegistry;
+import com.banking.core.domain.MinorUnits;
 import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
 import com.banking.core.exception.InsufficientFundsException;
 import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.id.Ids;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Represents a bank account with balance and account details.
+ * The balance is held as minor units of the account currency in a {@code long};
+ * {@link Money} is only materialized at the edges. Balance and status are published
+ * through volatile fields so readers never block; mutations are expected to be
+ * serialized by the owning service via
+ * {@link com.banking.account.concurrent.AccountLocks}.
+ * <p>
+ * Every balance change is nevertheless a compare-and-set, and each balance or status change
+ * advances a version, so a caller may also update the balance optimistically without the
+ * lock: read a {@link BalanceSnapshot}, compute the new balance and apply it with
+ * {@link #compareAndSetBalance(BalanceSnapshot, long)}, retrying if the account moved.
+ * <p>
+ * An account made {@linkplain #makeHot() hot} splits its balance: credits land in striped
+ * {@link CreditCells} instead of contending on the balance, and debits are taken from the
+ * consolidated balance alone, folding the cells into it first when it falls short. A debit
+ * therefore never spends more than has been credited, and the reported balance is the
+ * consolidated balance plus the cells.
+ * <p>
+ * Accounts registered with a service are copies carrying their registry handle. A copy
+ * backed by an {@link OffHeapAccountTable} keeps only its identity on the heap; balance,
+ * status and journal sequence are read from and written to its slot.
  */
 public class Account {
     private final String accountId;
     private final String customerId;
     private final AccountType accountType;
-    private Money balance;
-    private boolean active;
+    private final int currencyCode;
+    private final int scale;
+    private static final VarHandle BALANCE;
+
+    static {
+        try {
+            BALANCE = MethodHandles.lookup().findVarHandle(Account.class, "balance", BalanceSnapshot.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile BalanceSnapshot balance;
+    private volatile boolean active;
+    private volatile CreditCells credits;
+    private volatile long journalSequence;
+    private final OffHeapAccountTable table;
+    private final int handle;
 
     public Account(String customerId, AccountType accountType, Money initialBalance) {
         if (customerId == null || customerId.trim().isEmpty()) {
@@ -29,19 +71,55 @@ public class Account {
             throw new IllegalArgumentException("Initial balance cannot be null");
         }
         
-        this.accountId = UUID.randomUUID().toString();
+        this.accountId = Ids.next();
         this.customerId = customerId;
         this.accountType = accountType;
-        this.balance = initialBalance;
+        this.currencyCode = initialBalance.getCurrencyCode();
+        this.scale = CurrencyRegistry.scaleOf(currencyCode);
+        this.balance = new BalanceSnapshot(MinorUnits.toMinorUnits(initialBalance.getAmount(), scale), 0L);
         this.active = true;
+        this.table = null;
+        this.handle = -1;
     }
 
     public Account(String accountId, String customerId, AccountType accountType, Money balance, boolean active) {
         this.accountId = accountId;
         this.customerId = customerId;
         this.accountType = accountType;
-        this.balance = balance;
+        this.currencyCode = balance.getCurrencyCode();
+        this.scale = CurrencyRegistry.scaleOf(currencyCode);
+        this.balance = new BalanceSnapshot(MinorUnits.toMinorUnits(balance.getAmount(), scale), 0L);
         this.active = active;
+        this.table = null;
+        this.handle = -1;
+    }
+
+    /**
+     * Copies {@code source} under the registry handle {@code handle}. With a {@code table},
+     * the copy keeps its balance, status and journal sequence in the table slot for that
+     * handle; otherwise it keeps them in its own fields. {@code source} is left untouched.
+     */
+    public Account(Account source, int handle, OffHeapAccountTable table) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source account cannot be null");
+        }
+        if (handle < 0) {
+            throw new IllegalArgumentException("Handle cannot be negative");
+        }
+        this.accountId = source.accountId;
+        this.customerId = source.customerId;
+        this.accountType = source.accountType;
+        this.currencyCode = source.currencyCode;
+        this.scale = source.scale;
+        this.table = table;
+        this.handle = handle;
+        if (table != null) {
+            table.initialize(handle, source.getBalanceMinorUnits(), source.isActive(), source.getJournalSequence());
+        } else {
+            this.balance = new BalanceSnapshot(source.getBalanceMinorUnits(), 0L);
+            this.active = source.isActive();
+            this.journalSequence = source.getJournalSequence();
+        }
     }
 
     public String getAccountId() {
@@ -57,11 +135,111 @@ public class Account {
     }
 
     public Money getBalance() {
+        return new Money(MinorUnits.toBigDecimal(getBalanceMinorUnits(), scale), currencyCode);
+    }
+
+    public long getBalanceMinorUnits() {
+        long consolidated = table != null ? table.getBalance(handle) : balance.getBalanceMinorUnits();
+        CreditCells cells = credits;
+        return cells != null ? consolidated + cells.sum() : consolidated;
+    }
+
+    /**
+     * Reads the balance with its version, without blocking. For a hot account this is the
+     * consolidated balance, without credits still in its cells.
+     */
+    public BalanceSnapshot readBalance() {
+        if (table != null) {
+            long version = table.getVersion(handle);
+            return new BalanceSnapshot(table.getBalance(handle), version);
+        }
         return balance;
     }
 
+    public long getVersion() {
+        return table != null ? table.getVersion(handle) : balance.getVersion();
+    }
+
+    /**
+     * Sets the balance to {@code updatedMinorUnits} if it has not changed since
+     * {@code expected} was read, advancing the version. Returns {@code false}, changing
+     * nothing, if another update got there first; the caller re-reads and retries. An
+     * account held in an {@link OffHeapAccountTable} compares the balance itself rather
+     * than the version. That is just as safe for updates computed from the balance alone,
+     * but a status change made in between goes unnoticed, so lock-free callers must not
+     * rely on it for off-heap accounts. The status is not checked here; callers validate it
+     * after reading the snapshot.
+     */
+    public boolean compareAndSetBalance(BalanceSnapshot expected, long updatedMinorUnits) {
+        if (expected == null) {
+            throw new IllegalArgumentException("Expected balance cannot be null");
+        }
+        if (updatedMinorUnits < 0) {
+            throw new IllegalArgumentException("Balance cannot be negative");
+        }
+        if (table != null) {
+            return table.compareAndSetBalance(handle, expected.getBalanceMinorUnits(), updatedMinorUnits);
+        }
+        return BALANCE.compareAndSet(this, expected,
+            new BalanceSnapshot(updatedMinorUnits, expected.getVersion() + 1));
+    }
+
+    public String getCurrency() {
+        return CurrencyRegistry.isoCodeOf(currencyCode);
+    }
+
+    public int getCurrencyCode() {
+        return currencyCode;
+    }
+
     public boolean isActive() {
-        return active;
+        return table != null ? table.isActive(handle) : active;
+    }
+
+    /**
+     * Dense handle of this account in its service's
+     * {@link com.banking.account.registry.AccountRegistry}, or -1 if it was never registered.
+     */
+    public int getHandle() {
+        return handle;
+    }
+
+    public boolean isHot() {
+        return credits != null;
+    }
+
+    /**
+     * Switches the account to split credits, collected in cells until they are folded into
+     * the balance. Meant for accounts taking many concurrent deposits; there is no way back.
+     */
+    public void makeHot() {
+        if (credits == null) {
+            credits = new CreditCells();
+        }
+    }
+
+    /**
+     * Moves the credits collected in a hot account's cells into its consolidated balance and
+     * returns the amount moved. While it runs, readers may briefly see a balance short by
+     * the amount in transit, never one that includes it twice.
+     *
+     * @throws ArithmeticException if the balance would overflow; the credits stay in the cells
+     */
+    public long foldCredits() {
+        CreditCells cells = credits;
+        if (cells == null) {
+            return 0L;
+        }
+        long moved = cells.drain();
+        if (moved > 0) {
+            try {
+                credit(moved);
+            } catch (ArithmeticException e) {
+                cells.add(moved);
+                throw e;
+            }
+        }
+        return moved;
     }
 
     public void deposit(Money amount) {
@@ -69,7 +247,7 @@ public class Account {
         if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        this.balance = this.balance.add(amount);
+        depositMinorUnits(toMinorUnits(amount));
     }
 
     public void withdraw(Money amount) {
@@ -77,28 +255,171 @@ public class Account {
         if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
-        if (this.balance.isLessThan(amount)) {
-            throw new InsufficientFundsException(
-                String.format("Insufficient funds. Balance: %s, Requested: %s", balance, amount)
-            );
+        withdrawMinorUnits(toMinorUnits(amount));
+    }
+
+    /**
+     * Withdraws {@code amount} unless the account is inactive or short of funds, reporting
+     * which with the returned status instead of an exception.
+     *
+     * @throws IllegalArgumentException if the amount is not positive or in another currency
+     */
+    public OperationStatus tryWithdraw(Money amount) {
+        if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        return tryWithdrawMinorUnits(toMinorUnits(amount));
+    }
+
+    public void depositMinorUnits(long amount) {
+        validateAccount();
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        CreditCells cells = credits;
+        if (cells != null) {
+            cells.add(amount);
+        } else {
+            credit(amount);
+        }
+    }
+
+    public void withdrawMinorUnits(long amount) {
+        validateAccount();
+        switch (tryWithdrawMinorUnits(amount)) {
+            case ACCOUNT_INACTIVE:
+                throw inactive();
+            case INSUFFICIENT_FUNDS:
+                throw new InsufficientFundsException(
+                    String.format("Insufficient funds. Balance: %s, Requested: %s",
+                        getBalance(), new Money(MinorUnits.toBigDecimal(amount, scale), currencyCode))
+                );
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Minor-unit form of {@link #tryWithdraw(Money)}.
+     */
+    public OperationStatus tryWithdrawMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        if (!isActive()) {
+            return OperationStatus.ACCOUNT_INACTIVE;
+        }
+        boolean debited = tryDebit(amount);
+        if (!debited && credits != null) {
+            foldCredits();
+            debited = tryDebit(amount);
+        }
+        return debited ? OperationStatus.APPLIED : OperationStatus.INSUFFICIENT_FUNDS;
+    }
+
+    /**
+     * Returns funds previously withdrawn by an operation that could not complete. Unlike a
+     * deposit it is accepted whatever the account's status, so a compensation never fails.
+     */
+    public void refundMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Refund amount must be positive");
+        }
+        credit(amount);
+    }
+
+    /**
+     * Converts an amount in this account's currency to minor units.
+     */
+    public long toMinorUnits(Money amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+        if (currencyCode != amount.getCurrencyCode()) {
+            throw new IllegalArgumentException("Cannot apply " + amount.getCurrency() + " to a " + getCurrency() + " account");
+        }
+        return MinorUnits.toMinorUnits(amount.getAmount(), scale);
+    }
+
+    /**
+     * Sequence number of the last journal record applied to this account, or zero.
+     */
+    public long getJournalSequence() {
+        return table != null ? table.getJournalSequence(handle) : journalSequence;
+    }
+
+    public void markJournaled(long sequence) {
+        if (table != null) {
+            table.setJournalSequence(handle, sequence);
+        } else {
+            this.journalSequence = sequence;
         }
-        this.balance = this.balance.subtract(amount);
     }
 
     public void deactivate() {
-        this.active = false;
+        setActive(false);
     }
 
     public void activate() {
-        this.active = true;
+        setActive(true);
+    }
+
+    private void setActive(boolean active) {
+        if (table != null) {
+            table.setActive(handle, active);
+            return;
+        }
+        this.active = active;
+        // Fails any optimistic update that read the balance under the previous status
+        while (true) {
+            BalanceSnapshot current = balance;
+            if (BALANCE.compareAndSet(this, current,
+                    new BalanceSnapshot(current.getBalanceMinorUnits(), current.getVersion() + 1))) {
+                return;
+            }
+        }
+    }
+
+    private void credit(long amount) {
+        if (table != null) {
+            table.credit(handle, amount);
+            return;
+        }
+        while (true) {
+            BalanceSnapshot current = balance;
+            long updated = Math.addExact(current.getBalanceMinorUnits(), amount);
+            if (BALANCE.compareAndSet(this, current, new BalanceSnapshot(updated, current.getVersion() + 1))) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryDebit(long amount) {
+        if (table != null) {
+            return table.tryDebit(handle, amount);
+        }
+        while (true) {
+            BalanceSnapshot current = balance;
+            if (current.getBalanceMinorUnits() < amount) {
+                return false;
+            }
+            if (BALANCE.compareAndSet(this, current,
+                    new BalanceSnapshot(current.getBalanceMinorUnits() - amount, current.getVersion() + 1))) {
+                return true;
+            }
+        }
     }
 
     private void validateAccount() {
-        if (!active) {
-            throw new InvalidAccountException("Account " + accountId + " is not active");
+        if (!isActive()) {
+            throw inactive();
         }
     }
 
+    private InvalidAccountException inactive() {
+        return new InvalidAccountException("Account " + accountId + " is not active");
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -115,7 +436,7 @@ public class Account {
     @Override
     public String toString() {
         return String.format("Account{id='%s', customerId='%s', type=%s, balance=%s, active=%s}",
-                accountId, customerId, accountType, balance, active);
+                accountId, customerId, accountType, getBalance(), isActive());
     }
 }
 
@@ -0,0 +1,31 @@
+package com.banking.account.domain;
+
+/**
+ * Immutable view of an account's balance in minor units together with the version it was
+ * read at. The version counts the balance and status changes the account has seen, so a
+ * snapshot taken before an update can be handed back to
+ * {@link Account#compareAndSetBalance(BalanceSnapshot, long)} to apply a change only if
+ * the account has not moved since.
+ */
+public final class BalanceSnapshot {
+    private final long balanceMinorUnits;
+    private final long version;
+
+    public BalanceSnapshot(long balanceMinorUnits, long version) {
+        this.balanceMinorUnits = balanceMinorUnits;
+        this.version = version;
+    }
+
+    public long getBalanceMinorUnits() {
+        return balanceMinorUnits;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceSnapshot{balance=" + balanceMinorUnits + ", version=" + version + "}";
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.account.domain;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped cells collecting credits to a hot account, in the manner of
+ * {@link java.util.concurrent.atomic.LongAdder}: each thread adds to the cell its id hashes
+ * to, so concurrent credits rarely touch the same cache line. Cells only ever grow until
+ * {@link #drain()} moves their contents out, so their sum is never negative. Like
+ * {@code LongAdder}, {@link #sum()} is exact when no credit or drain runs concurrently.
+ */
+public final class CreditCells {
+    // One cell per 64-byte cache line
+    private static final int STRIDE = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public CreditCells() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CreditCells(int cellCount) {
+        if (cellCount <= 0) {
+            throw new IllegalArgumentException("Cell count must be positive");
+        }
+        int size = Integer.highestOneBit(cellCount);
+        if (size < cellCount) {
+            size <<= 1;
+        }
+        this.cells = new AtomicLongArray(size * STRIDE);
+        this.mask = size - 1;
+    }
+
+    public int getCellCount() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds {@code amount} to the calling thread's cell.
+     *
+     * @throws ArithmeticException if the cell would overflow; the cell is left unchanged
+     */
+    public void add(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Credit must be positive");
+        }
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        addAt(((int) (h >>> 32) & mask) * STRIDE, amount);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * STRIDE);
+        }
+        return sum;
+    }
+
+    /**
+     * Empties every cell and returns the total taken out.
+     *
+     * @throws ArithmeticException if the total would overflow; everything taken out is put
+     *                             back first, so no credit is lost
+     */
+    public long drain() {
+        long drained = 0;
+        for (int i = 0; i <= mask; i++) {
+            long taken = cells.getAndSet(i * STRIDE, 0L);
+            try {
+                drained = Math.addExact(drained, taken);
+            } catch (ArithmeticException e) {
+                addAt(i * STRIDE, taken);
+                if (drained > 0) {
+                    addAt(0, drained);
+                }
+                throw e;
+            }
+        }
+        return drained;
+    }
+
+    private void addAt(int index, long amount) {
+        while (true) {
+            long current = cells.get(index);
+            if (cells.compareAndSet(index, current, Math.addExact(current, amount))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.banking.account.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-capacity table of account state held outside the Java heap.
+ * Each account owns one slot, addressed by its dense
+ * {@link com.banking.account.registry.AccountRegistry} handle. A slot is four 8-byte
+ * words: the balance in minor units, the sequence of the last journal record applied to
+ * the account, its status, and a version counting the changes to balance and status.
+ * Slots live in direct {@link ByteBuffer} segments allocated up front, so the table never
+ * grows, its size is known from its capacity alone, and the garbage collector never
+ * scans it.
+ * <p>
+ * Every word is read and written through a {@link VarHandle} with volatile semantics,
+ * and balance changes are compare-and-set loops, so a slot is safe to update from any
+ * thread; callers still serialize related updates with their own locks where several
+ * words or accounts have to change together.
+ */
+public class OffHeapAccountTable {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SLOT_BYTES = 32;
+    private static final int BALANCE = 0;
+    private static final int JOURNAL_SEQUENCE = 8;
+    private static final int STATUS = 16;
+    private static final int VERSION = 24;
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SLOTS - 1;
+    private static final long ACTIVE = 1;
+
+    private final ByteBuffer[] segments;
+    private final int capacity;
+
+    public OffHeapAccountTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        int segmentCount = (int) (((long) capacity + SEGMENT_SLOTS - 1) >>> SEGMENT_BITS);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int slots = Math.min(SEGMENT_SLOTS, capacity - (i << SEGMENT_BITS));
+            segments[i] = ByteBuffer.allocateDirect(slots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Number of bytes of native memory a table of {@code capacity} slots reserves.
+     */
+    public static long bytesFor(int capacity) {
+        return (long) capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Writes the initial state of the account with the given handle.
+     *
+     * @throws IllegalStateException if the handle is beyond the table's capacity
+     */
+    public void initialize(int handle, long balanceMinorUnits, boolean active, long journalSequence) {
+        if (handle >= capacity) {
+            throw new IllegalStateException("Account table is full (capacity " + capacity + ")");
+        }
+        ByteBuffer segment = segment(handle);
+        int offset = offset(handle);
+        LONGS.setVolatile(segment, offset + BALANCE, balanceMinorUnits);
+        LONGS.setVolatile(segment, offset + JOURNAL_SEQUENCE, journalSequence);
+        LONGS.setVolatile(segment, offset + STATUS, active ? ACTIVE : 0L);
+        LONGS.setVolatile(segment, offset + VERSION, 0L);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getFootprintBytes() {
+        return bytesFor(capacity);
+    }
+
+    public long getBalance(int handle) {
+        return (long) LONGS.getVolatile(segment(handle), offset(handle) + BALANCE);
+    }
+
+    /**
+     * Adds {@code amount} to the balance and returns the new balance.
+     *
+     * @throws ArithmeticException if the balance would overflow
+     */
+    public long credit(int handle, long amount) {
+        ByteBuffer segment = segment(handle);
+        int offset = offset(handle);
+        while (true) {
+            long current = (long) LONGS.getVolatile(segment, offset + BALANCE);
+            long updated = Math.addExact(current, amount);
+            if (LONGS.compareAndSet(segment, offset + BALANCE, current, updated)) {
+                LONGS.getAndAdd(segment, offset + VERSION, 1L);
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Subtracts {@code amount} from the balance unless that would take it below zero.
+     * Returns {@code true} if the balance was changed.
+     */
+    public boolean tryDebit(int handle, long amount) {
+        ByteBuffer segment = segment(handle);
+        int offset = offset(handle);
+        while (true) {
+            long current = (long) LONGS.getVolatile(segment, offset + BALANCE);
+            if (current < amount) {
+                return false;
+            }
+            if (LONGS.compareAndSet(segment, offset + BALANCE, current, current - amount)) {
+                LONGS.getAndAdd(segment, offset + VERSION, 1L);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the balance with {@code updated} if it still equals {@code expected}.
+     * Returns {@code true} if the balance was changed.
+     */
+    public boolean compareAndSetBalance(int handle, long expected, long updated) {
+        ByteBuffer segment = segment(handle);
+        int offset = offset(handle);
+        if (!LONGS.compareAndSet(segment, offset + BALANCE, expected, updated)) {
+            return false;
+        }
+        LONGS.getAndAdd(segment, offset + VERSION, 1L);
+        return true;
+    }
+
+    /**
+     * Number of balance and status changes made to the slot since it was initialized. It is
+     * advanced just after each change, so a reader may briefly see a change before its
+     * version.
+     */
+    public long getVersion(int handle) {
+        return (long) LONGS.getVolatile(segment(handle), offset(handle) + VERSION);
+    }
+
+    public long getJournalSequence(int handle) {
+        return (long) LONGS.getVolatile(segment(handle), offset(handle) + JOURNAL_SEQUENCE);
+    }
+
+    public void setJournalSequence(int handle, long sequence) {
+        LONGS.setVolatile(segment(handle), offset(handle) + JOURNAL_SEQUENCE, sequence);
+    }
+
+    public boolean isActive(int handle) {
+        return (long) LONGS.getVolatile(segment(handle), offset(handle) + STATUS) == ACTIVE;
+    }
+
+    public void setActive(int handle, boolean active) {
+        ByteBuffer segment = segment(handle);
+        int offset = offset(handle);
+        LONGS.setVolatile(segment, offset + STATUS, active ? ACTIVE : 0L);
+        LONGS.getAndAdd(segment, offset + VERSION, 1L);
+    }
+
+    private ByteBuffer segment(int handle) {
+        if (handle < 0 || handle >= capacity) {
+            throw new IndexOutOfBoundsException("No account slot " + handle);
+        }
+        return segments[handle >>> SEGMENT_BITS];
+    }
+
+    private static int offset(int handle) {
+        return (handle & SEGMENT_MASK) * SLOT_BYTES;
+    }
+}
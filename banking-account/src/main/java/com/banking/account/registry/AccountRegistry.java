@@ -0,0 +1,69 @@
+package com.banking.account.registry;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns external account ids as dense {@code int} handles, assigned from zero in
+ * registration order. An id is hashed once, where it enters the system; from there on
+ * services, indexes and stores address the account by its handle, so lookups are array
+ * indexing and records hold four bytes instead of a string. {@link #idOf} returns the
+ * canonical id instance, so every record of an account shares one string.
+ * <p>
+ * Registration is serialized; lookups never lock. A handle is published only once the
+ * reverse table holds its id.
+ */
+public class AccountRegistry {
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    private volatile String[] ids = new String[1024];
+    private volatile int size;
+
+    /**
+     * Returns the handle of {@code accountId}, assigning the next one if it is new.
+     */
+    public synchronized int register(String accountId) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID cannot be null");
+        }
+        Integer existing = handles.get(accountId);
+        if (existing != null) {
+            return existing;
+        }
+        int handle = size;
+        String[] current = ids;
+        if (handle == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+            ids = current;
+        }
+        current[handle] = accountId;
+        size = handle + 1;
+        handles.put(accountId, handle);
+        return handle;
+    }
+
+    /**
+     * Returns the handle of {@code accountId}, or {@link #UNKNOWN} if it was never registered.
+     */
+    public int handleOf(String accountId) {
+        if (accountId == null) {
+            return UNKNOWN;
+        }
+        Integer handle = handles.get(accountId);
+        return handle == null ? UNKNOWN : handle;
+    }
+
+    public String idOf(int handle) {
+        int n = size;
+        if (handle < 0 || handle >= n) {
+            throw new IndexOutOfBoundsException("Unknown account handle " + handle);
+        }
+        return ids[handle];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.account.service;
+
+import com.banking.account.domain.Account;
+
+/**
+ * Durable log of account lifecycle changes written by {@link AccountService}.
+ * Appends are made while holding the account's lock and return the sequence number
+ * of the record; the service waits for durability after releasing the lock.
+ */
+public interface AccountJournal {
+
+    long appendAccountOpened(Account account);
+
+    long appendAccountStatus(Account account);
+
+    void awaitDurable(long sequence);
+}
@@ -1,60 +1,289 @@
 package com.banking.account.service;
 
+import com.banking.account.concurrent.AccountLocks;
 import com.banking.account.domain.Account;
+import com.banking.account.offheap.OffHeapAccountTable;
+import com.banking.account.registry.AccountRegistry;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
 import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.LatencyMetrics;
+import com.banking.core.util.AppendOnlyLog;
+import com.banking.core.util.Cursors;
+import com.banking.core.util.Page;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Service for managing bank accounts.
+ * Every account is registered in an {@link AccountRegistry} and stored at its dense
+ * handle, so an id is hashed once and the account is then reached by array indexing;
+ * {@link #getAccount(int)} skips the hash altogether. Handles are assigned in opening
+ * order, which gives paged listings a stable order that new accounts only extend.
+ * Accounts are also indexed by customer, so customer lookups cost the same regardless
+ * of how many accounts exist in total.
+ * With an {@link AccountJournal}, account openings and status changes are journaled
+ * under the account's lock and acknowledged once durable. With an
+ * {@link OffHeapAccountTable}, every account the service registers is copied into the
+ * table, so balances and status live off the heap.
  */
 public class AccountService {
-    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private static final String ACCOUNT_CURSOR = "accounts";
+
+    private final AccountRegistry registry = new AccountRegistry();
+    private final AppendOnlyLog<Account> accountsByHandle = new AppendOnlyLog<>();
+    private final Map<String, Set<Account>> accountsByCustomer = new ConcurrentHashMap<>();
+    private final AccountLocks accountLocks;
+    private final AccountJournal journal;
+    private final OffHeapAccountTable table;
+    private final LatencyMetrics latencyMetrics = new LatencyMetrics();
+    private final LatencyHistogram openLatency = latencyMetrics.histogram("open");
+    private final LatencyHistogram lookupLatency = latencyMetrics.histogram("lookup");
+    private final LatencyHistogram pageLatency = latencyMetrics.histogram("page");
+
+    public AccountService() {
+        this(new AccountLocks());
+    }
+
+    public AccountService(AccountLocks accountLocks) {
+        this(accountLocks, null);
+    }
+
+    public AccountService(AccountLocks accountLocks, AccountJournal journal) {
+        this(accountLocks, journal, null);
+    }
+
+    public AccountService(AccountLocks accountLocks, AccountJournal journal, OffHeapAccountTable table) {
+        if (accountLocks == null) {
+            throw new IllegalArgumentException("AccountLocks cannot be null");
+        }
+        this.accountLocks = accountLocks;
+        this.journal = journal;
+        this.table = table;
+    }
+
+    public AccountLocks getAccountLocks() {
+        return accountLocks;
+    }
+
+    /**
+     * Latency of account openings, paged listings and lookups by id, which include the
+     * lookups every transaction starts with.
+     */
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    public AccountRegistry getAccountRegistry() {
+        return registry;
+    }
+
+    /**
+     * Table holding account state off the heap, or {@code null} if accounts keep it themselves.
+     */
+    public OffHeapAccountTable getAccountTable() {
+        return table;
+    }
 
     public Account createAccount(String customerId, AccountType accountType, Money initialBalance) {
-        Account account = new Account(customerId, accountType, initialBalance);
-        accounts.put(account.getAccountId(), account);
-        return account;
+        long start = System.nanoTime();
+        try {
+            return openAccount(customerId, accountType, initialBalance);
+        } finally {
+            openLatency.recordSince(start);
+        }
+    }
+
+    private Account openAccount(String customerId, AccountType accountType, Money initialBalance) {
+        Account opened = new Account(customerId, accountType, initialBalance);
+        Account[] account = new Account[1];
+        long sequence = accountLocks.withLock(opened.getAccountId(), () -> {
+            account[0] = index(opened);
+            return journal != null ? journaled(account[0], journal.appendAccountOpened(account[0])) : 0L;
+        });
+        acknowledge(sequence);
+        return account[0];
+    }
+
+    /**
+     * Registers a copy of an account recovered from a snapshot or journal, without
+     * journaling it.
+     */
+    public void restoreAccount(Account account) {
+        index(account);
+    }
+
+    public boolean hasAccount(String accountId) {
+        return registry.handleOf(accountId) != AccountRegistry.UNKNOWN;
+    }
+
+    /**
+     * Returns the handle of the account with the given id, or {@link AccountRegistry#UNKNOWN}.
+     */
+    public int handleOf(String accountId) {
+        return registry.handleOf(accountId);
     }
 
     public Account getAccount(String accountId) {
-        Account account = accounts.get(accountId);
-        if (account == null) {
-            throw new InvalidAccountException("Account not found: " + accountId);
+        return findAccount(accountId).orElseThrow(() -> new InvalidAccountException("Account not found: " + accountId));
+    }
+
+    /**
+     * Looks up an account, returning an empty result rather than throwing if there is none.
+     */
+    public Optional<Account> findAccount(String accountId) {
+        long start = System.nanoTime();
+        try {
+            return lookUpAccount(accountId);
+        } finally {
+            lookupLatency.recordSince(start);
         }
-        return account;
+    }
+
+    private Optional<Account> lookUpAccount(String accountId) {
+        int handle = registry.handleOf(accountId);
+        if (handle == AccountRegistry.UNKNOWN || handle >= accountsByHandle.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(accountsByHandle.get(handle));
+    }
+
+    public Account getAccount(int handle) {
+        if (handle < 0 || handle >= accountsByHandle.size()) {
+            throw new InvalidAccountException("Account not found for handle " + handle);
+        }
+        return accountsByHandle.get(handle);
     }
 
     public List<Account> getAccountsByCustomer(String customerId) {
-        List<Account> customerAccounts = new ArrayList<>();
-        for (Account account : accounts.values()) {
-            if (account.getCustomerId().equals(customerId)) {
-                customerAccounts.add(account);
-            }
+        Set<Account> customerAccounts = accountsByCustomer.get(customerId);
+        if (customerAccounts == null) {
+            return new ArrayList<>();
         }
-        return customerAccounts;
+        return new ArrayList<>(customerAccounts);
     }
 
     public List<Account> getAllAccounts() {
-        return new ArrayList<>(accounts.values());
+        return accountsByHandle.oldestFirst(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} accounts in opening order, starting after the page the
+     * cursor was issued for, or from the first account if {@code cursor} is {@code null}.
+     */
+    public Page<Account> getAccounts(String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            return readAccountPage(cursor, limit);
+        } finally {
+            pageLatency.recordSince(start);
+        }
+    }
+
+    private Page<Account> readAccountPage(String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        long from = cursor == null ? 0 : Cursors.decode(ACCOUNT_CURSOR, cursor);
+        int start = (int) Math.min(from, Integer.MAX_VALUE);
+        List<Account> items = accountsByHandle.oldestFirst(start, limit);
+        long next = start + items.size();
+        return new Page<>(items, next < accountsByHandle.size() ? Cursors.encode(ACCOUNT_CURSOR, next) : null);
+    }
+
+    /**
+     * Visits every account without copying; accounts opened concurrently may or may not be seen.
+     */
+    public void forEachAccount(Consumer<Account> action) {
+        accountsByHandle.forEach(action);
     }
 
     public void deactivateAccount(String accountId) {
         Account account = getAccount(accountId);
-        account.deactivate();
+        long sequence = accountLocks.withLock(accountId, () -> {
+            account.deactivate();
+            return journal != null ? journaled(account, journal.appendAccountStatus(account)) : 0L;
+        });
+        acknowledge(sequence);
     }
 
     public void activateAccount(String accountId) {
         Account account = getAccount(accountId);
-        account.activate();
+        long sequence = accountLocks.withLock(accountId, () -> {
+            account.activate();
+            return journal != null ? journaled(account, journal.appendAccountStatus(account)) : 0L;
+        });
+        acknowledge(sequence);
     }
 
+    /**
+     * Makes the account hot: deposits to it are collected in striped cells without
+     * contending on its balance, and folded into the balance when a withdrawal needs them.
+     * Deposits to hot accounts skip the account lock, so they cannot be journaled, and
+     * cannot run on locks that give each account a single writer.
+     *
+     * @throws IllegalStateException if the service journals its accounts or its locks do not
+     *                               {@linkplain AccountLocks#allowsUnlockedWriters() allow
+     *                               unlocked writers}
+     */
+    public Account makeHot(String accountId) {
+        if (journal != null) {
+            throw new IllegalStateException("Hot accounts cannot be journaled");
+        }
+        if (!accountLocks.allowsUnlockedWriters()) {
+            throw new IllegalStateException("Hot accounts need striped account locks");
+        }
+        Account account = getAccount(accountId);
+        accountLocks.withLock(accountId, () -> {
+            account.makeHot();
+            return null;
+        });
+        return account;
+    }
+
+    /**
+     * Reads the published balance without taking the account lock, so it never blocks.
+     */
     public Money getBalance(String accountId) {
         Account account = getAccount(accountId);
         return account.getBalance();
     }
-}
 
+    /**
+     * Assigns the account the next handle and stores the copy that carries it, backed by
+     * the off-heap table if there is one. The registry and the handle-ordered log are
+     * updated together, so a handle is always the account's position in the log; until
+     * the append, lookups of the new handle report the account as not found. The copy is
+     * made first, so a full table refuses the account before its id is registered.
+     */
+    private Account index(Account account) {
+        Account registered;
+        synchronized (accountsByHandle) {
+            if (hasAccount(account.getAccountId())) {
+                throw new IllegalArgumentException("Account already exists: " + account.getAccountId());
+            }
+            registered = new Account(account, accountsByHandle.size(), table);
+            int handle = registry.register(account.getAccountId());
+            if (handle != registered.getHandle()) {
+                throw new IllegalStateException("Account registry is out of step with the account service");
+            }
+            accountsByHandle.append(registered);
+        }
+        accountsByCustomer.computeIfAbsent(registered.getCustomerId(), id -> ConcurrentHashMap.newKeySet()).add(registered);
+        return registered;
+    }
+
+    private static long journaled(Account account, long sequence) {
+        account.markJournaled(sequence);
+        return sequence;
+    }
+
+    private void acknowledge(long sequence) {
+        if (journal != null) {
+            journal.awaitDurable(sequence);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking.account.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLocksTest {
+
+    @Test
+    void testStripeCountRoundedToPowerOfTwo() {
+        assertEquals(8, new AccountLocks(5).getStripeCount());
+        assertEquals(16, new AccountLocks(16).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new AccountLocks(0));
+    }
+
+    @Test
+    void testSameStripeTwoAccountLockIsReentrant() {
+        AccountLocks locks = new AccountLocks(1);
+        String result = locks.withLocks("ACC1", "ACC2", () -> "done");
+        assertEquals("done", result);
+    }
+
+    @Test
+    void testOpposingTransfersDoNotDeadlock() throws InterruptedException {
+        AccountLocks locks = new AccountLocks(64);
+        int threads = 8;
+        int iterations = 20_000;
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            boolean forward = t % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < iterations; i++) {
+                    String from = forward ? "ACC-A" : "ACC-B";
+                    String to = forward ? "ACC-B" : "ACC-A";
+                    locks.withLocks(from, to, completed::incrementAndGet);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "lock acquisition deadlocked");
+        assertEquals(threads * iterations, completed.get());
+    }
+
+    @Test
+    void testAllLocksHeldOnceEachAndReleased() {
+        AccountLocks locks = new AccountLocks(4);
+        int held = locks.withAllLocks(Arrays.asList("ACC1", "ACC2", "ACC1", "ACC3", "ACC4", "ACC5"),
+            () -> locks.withLock("ACC1", () -> 1));
+        assertEquals(1, held);
+        // Every stripe must be free again for another thread
+        Thread other = new Thread(() -> locks.withAllLocks(Arrays.asList("ACC1", "ACC2", "ACC3", "ACC4", "ACC5"), () -> 0));
+        other.start();
+        assertDoesNotThrow(() -> other.join(5_000));
+        assertFalse(other.isAlive(), "stripes were not released");
+    }
+}
@@ -2,6 +2,7 @@ package com.banking.account.domain;
 
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
 import com.banking.core.exception.InsufficientFundsException;
 import com.banking.core.exception.InvalidAccountException;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,19 @@ class AccountTest {
         assertThrows(InsufficientFundsException.class, () -> account.withdraw(new Money(150.0, "USD")));
     }
 
+    @Test
+    void testTryWithdrawReportsDeclines() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        assertEquals(OperationStatus.INSUFFICIENT_FUNDS, account.tryWithdraw(new Money(150.0, "USD")));
+        assertEquals(OperationStatus.APPLIED, account.tryWithdraw(new Money(30.0, "USD")));
+        assertEquals(70.0, account.getBalance().getAmount().doubleValue());
+        assertThrows(IllegalArgumentException.class, () -> account.tryWithdraw(new Money(0.0, "USD")));
+
+        account.deactivate();
+        assertEquals(OperationStatus.ACCOUNT_INACTIVE, account.tryWithdraw(new Money(10.0, "USD")));
+        assertEquals(70.0, account.getBalance().getAmount().doubleValue());
+    }
+
     @Test
     void testDeactivatedAccount() {
         Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
@@ -45,5 +59,96 @@ class AccountTest {
         assertFalse(account.isActive());
         assertThrows(InvalidAccountException.class, () -> account.deposit(new Money(50.0, "USD")));
     }
-}
 
+    @Test
+    void testBalanceHeldInMinorUnits() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        account.deposit(new Money(0.25, "USD"));
+        account.withdrawMinorUnits(50);
+        assertEquals(9975L, account.getBalanceMinorUnits());
+        assertEquals(new Money(99.75, "USD"), account.getBalance());
+    }
+
+    @Test
+    void testDepositInDifferentCurrencyRejected() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        assertThrows(IllegalArgumentException.class, () -> account.deposit(new Money(50.0, "EUR")));
+    }
+
+    @Test
+    void testCompareAndSetBalanceFailsOnceTheAccountMoved() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        BalanceSnapshot before = account.readBalance();
+        assertEquals(10_000, before.getBalanceMinorUnits());
+        assertTrue(account.compareAndSetBalance(before, 9_000));
+        assertEquals(before.getVersion() + 1, account.getVersion());
+        assertFalse(account.compareAndSetBalance(before, 8_000));
+        assertEquals(9_000, account.getBalanceMinorUnits());
+
+        BalanceSnapshot current = account.readBalance();
+        account.deposit(new Money(1.0, "USD"));
+        account.withdraw(new Money(1.0, "USD"));
+        assertFalse(account.compareAndSetBalance(current, 8_000), "same balance, newer version");
+        current = account.readBalance();
+        account.deactivate();
+        assertFalse(account.compareAndSetBalance(current, 8_000));
+        BalanceSnapshot latest = account.readBalance();
+        assertThrows(IllegalArgumentException.class, () -> account.compareAndSetBalance(latest, -1));
+        assertEquals(9_000, account.getBalanceMinorUnits());
+    }
+
+    @Test
+    void testHotAccountFoldsCreditsBeforeRefusingDebits() {
+        Account account = new Account("CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        account.makeHot();
+        assertTrue(account.isHot());
+        account.depositMinorUnits(500);
+        account.deposit(new Money(2.0, "USD"));
+        assertEquals(1_700, account.getBalanceMinorUnits());
+        assertEquals(1_000, account.readBalance().getBalanceMinorUnits());
+
+        account.withdrawMinorUnits(1_200);
+        assertEquals(500, account.getBalanceMinorUnits());
+        assertEquals(500, account.readBalance().getBalanceMinorUnits());
+        assertThrows(InsufficientFundsException.class, () -> account.withdrawMinorUnits(501));
+        assertEquals(500, account.getBalanceMinorUnits());
+        assertEquals(0, account.foldCredits());
+    }
+
+    @Test
+    void testCreditCellsDrainWhatWasAdded() {
+        CreditCells cells = new CreditCells(3);
+        assertEquals(4, cells.getCellCount());
+        cells.add(5);
+        cells.add(7);
+        assertEquals(12, cells.sum());
+        assertEquals(12, cells.drain());
+        assertEquals(0, cells.sum());
+        assertThrows(IllegalArgumentException.class, () -> cells.add(0));
+
+        CreditCells single = new CreditCells(1);
+        single.add(Long.MAX_VALUE - 1);
+        assertThrows(ArithmeticException.class, () -> single.add(2));
+        assertEquals(Long.MAX_VALUE - 1, single.sum());
+    }
+
+    @Test
+    void testCreditsThatWouldOverflowTheBalanceStayInTheCells() {
+        Account account = new Account("CUST001", AccountType.CHECKING, Money.ofMinorUnits(Long.MAX_VALUE - 1, "USD"));
+        account.makeHot();
+        account.depositMinorUnits(2);
+        assertThrows(ArithmeticException.class, account::foldCredits);
+        assertEquals(Long.MAX_VALUE - 1, account.readBalance().getBalanceMinorUnits());
+
+        account.withdrawMinorUnits(10);
+        assertEquals(2, account.foldCredits());
+        assertEquals(Long.MAX_VALUE - 9, account.readBalance().getBalanceMinorUnits());
+    }
+
+    @Test
+    void testDepositOverflowRejected() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, Money.ofMinorUnits(Long.MAX_VALUE - 1, "USD"));
+        assertThrows(ArithmeticException.class, () -> account.depositMinorUnits(2));
+        assertEquals(Long.MAX_VALUE - 1, account.getBalanceMinorUnits());
+    }
+}
@@ -0,0 +1,112 @@
+package com.banking.account.offheap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapAccountTableTest {
+
+    @Test
+    void testSlotsHoldTheirOwnState() {
+        OffHeapAccountTable table = new OffHeapAccountTable(4);
+        int first = 0;
+        int second = 3;
+        table.initialize(first, 1_000, true, 7);
+        table.initialize(second, 0, false, 0);
+
+        assertEquals(1_000, table.getBalance(first));
+        assertEquals(7, table.getJournalSequence(first));
+        assertTrue(table.isActive(first));
+        assertFalse(table.isActive(second));
+
+        assertEquals(1_250, table.credit(first, 250));
+        table.setActive(second, true);
+        table.setJournalSequence(second, 9);
+        assertEquals(1_250, table.getBalance(first));
+        assertEquals(0, table.getBalance(second));
+        assertTrue(table.isActive(second));
+        assertEquals(9, table.getJournalSequence(second));
+    }
+
+    @Test
+    void testDebitNeverOverdraws() {
+        OffHeapAccountTable table = new OffHeapAccountTable(1);
+        int handle = 0;
+        table.initialize(handle, 100, true, 0);
+        assertTrue(table.tryDebit(handle, 100));
+        assertFalse(table.tryDebit(handle, 1));
+        assertEquals(0, table.getBalance(handle));
+        assertThrows(ArithmeticException.class, () -> {
+            table.credit(handle, Long.MAX_VALUE);
+            table.credit(handle, 1);
+        });
+    }
+
+    @Test
+    void testCompareAndSetBalanceAdvancesVersion() {
+        OffHeapAccountTable table = new OffHeapAccountTable(1);
+        table.initialize(0, 100, true, 0);
+        assertTrue(table.compareAndSetBalance(0, 100, 60));
+        assertFalse(table.compareAndSetBalance(0, 100, 50));
+        assertEquals(60, table.getBalance(0));
+        table.credit(0, 5);
+        assertTrue(table.tryDebit(0, 1));
+        assertFalse(table.tryDebit(0, 100));
+        table.setActive(0, false);
+        assertEquals(4, table.getVersion(0));
+        table.initialize(0, 0, true, 0);
+        assertEquals(0, table.getVersion(0));
+    }
+
+    @Test
+    void testCapacityIsFixed() {
+        OffHeapAccountTable table = new OffHeapAccountTable(2);
+        table.initialize(1, 0, true, 0);
+        assertThrows(IllegalStateException.class, () -> table.initialize(2, 0, true, 0));
+        assertEquals(2, table.getCapacity());
+        assertEquals(64, table.getFootprintBytes());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getBalance(2));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapAccountTable(0));
+    }
+
+    @Test
+    void testConcurrentCreditsAndDebitsAreAtomic() throws InterruptedException {
+        OffHeapAccountTable table = new OffHeapAccountTable(2);
+        int handle = 1;
+        table.initialize(handle, 0, true, 0);
+        int threads = 8;
+        int iterations = 50_000;
+        AtomicInteger debits = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            boolean crediting = t % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < iterations; i++) {
+                    if (crediting) {
+                        table.credit(handle, 3);
+                    } else if (table.tryDebit(handle, 2)) {
+                        debits.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        long credited = 3L * iterations * (threads / 2);
+        assertEquals(credited - 2L * debits.get(), table.getBalance(handle));
+    }
+}
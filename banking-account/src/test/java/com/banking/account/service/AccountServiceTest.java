@@ -1,11 +1,19 @@
 package com.banking.account.service;
 
+import com.banking.account.concurrent.AccountLocks;
 import com.banking.account.domain.Account;
+import com.banking.account.offheap.OffHeapAccountTable;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
+import com.banking.core.exception.InsufficientFundsException;
 import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.util.Page;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountServiceTest {
@@ -35,6 +43,15 @@ class AccountServiceTest {
     @Test
     void testGetNonExistentAccount() {
         assertThrows(InvalidAccountException.class, () -> accountService.getAccount("NON_EXISTENT"));
+        assertTrue(accountService.findAccount("NON_EXISTENT").isEmpty());
+        assertTrue(accountService.findAccount(null).isEmpty());
+    }
+
+    @Test
+    void testFindAccount() {
+        Account created = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        assertEquals(created.getAccountId(),
+            accountService.findAccount(created.getAccountId()).orElseThrow().getAccountId());
     }
 
     @Test
@@ -46,5 +63,113 @@ class AccountServiceTest {
         var customerAccounts = accountService.getAccountsByCustomer("CUST001");
         assertEquals(2, customerAccounts.size());
     }
-}
 
+    @Test
+    void testGetAccountsByUnknownCustomer() {
+        accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        assertTrue(accountService.getAccountsByCustomer("CUST999").isEmpty());
+    }
+
+    @Test
+    void testPagedAccountsInOpeningOrder() {
+        List<String> opened = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            opened.add(accountService.createAccount("CUST" + i, AccountType.SAVINGS, new Money(1.0, "USD")).getAccountId());
+        }
+
+        Page<Account> first = accountService.getAccounts(null, 2);
+        Page<Account> second = accountService.getAccounts(first.getNextCursor(), 2);
+        // Accounts opened between pages extend the listing without shifting it
+        opened.add(accountService.createAccount("CUST5", AccountType.SAVINGS, new Money(1.0, "USD")).getAccountId());
+        Page<Account> third = accountService.getAccounts(second.getNextCursor(), 2);
+
+        List<String> listed = new ArrayList<>();
+        for (Page<Account> page : List.of(first, second, third)) {
+            page.getItems().forEach(account -> listed.add(account.getAccountId()));
+        }
+        assertEquals(opened, listed);
+        assertFalse(third.hasNext());
+    }
+
+    @Test
+    void testPagedAccountsRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccounts(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccounts("bogus", 10));
+    }
+
+    @Test
+    void testAccountsKeepStateInOffHeapTable() {
+        OffHeapAccountTable table = new OffHeapAccountTable(16);
+        AccountService service = new AccountService(new AccountLocks(), null, table);
+        Account account = service.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account restored = new Account("RESTORED", "CUST002", AccountType.SAVINGS, new Money(5.0, "EUR"), false);
+        service.restoreAccount(restored);
+
+        assertEquals(0, account.getHandle());
+        assertEquals(10_000, table.getBalance(account.getHandle()));
+        account.withdrawMinorUnits(2_500);
+        assertEquals(7_500, service.getAccount(account.getAccountId()).getBalanceMinorUnits());
+        assertThrows(InsufficientFundsException.class, () -> account.withdrawMinorUnits(7_501));
+        service.deactivateAccount(account.getAccountId());
+        assertFalse(table.isActive(account.getHandle()));
+
+        Account stored = service.getAccount("RESTORED");
+        assertEquals(1, stored.getHandle());
+        assertEquals(500, stored.getBalanceMinorUnits());
+        assertFalse(stored.isActive());
+        assertSame(stored, service.getAccount(1));
+    }
+
+    @Test
+    void testFullOffHeapTableLeavesServiceUsable() {
+        OffHeapAccountTable table = new OffHeapAccountTable(1);
+        AccountService service = new AccountService(new AccountLocks(), null, table);
+        service.createAccount("CUST001", AccountType.CHECKING, new Money(1.0, "USD"));
+        Account overflow = new Account("OVERFLOW", "CUST002", AccountType.SAVINGS, new Money(5.0, "USD"), true);
+        assertThrows(IllegalStateException.class, () -> service.restoreAccount(overflow));
+        assertThrows(IllegalStateException.class, () -> service.restoreAccount(overflow));
+        assertFalse(service.findAccount("OVERFLOW").isPresent());
+        assertEquals(1, service.getAllAccounts().size());
+    }
+
+    @Test
+    void testHotAccountsAreNotJournaled() {
+        Account account = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(1.0, "USD"));
+        assertSame(account, accountService.makeHot(account.getAccountId()));
+        assertTrue(account.isHot());
+
+        AccountService journaled = new AccountService(new AccountLocks(), new AccountJournal() {
+            @Override
+            public long appendAccountOpened(Account opened) {
+                return 1L;
+            }
+
+            @Override
+            public long appendAccountStatus(Account changed) {
+                return 1L;
+            }
+
+            @Override
+            public void awaitDurable(long sequence) {
+            }
+        });
+        Account other = journaled.createAccount("CUST002", AccountType.CHECKING, new Money(1.0, "USD"));
+        assertThrows(IllegalStateException.class, () -> journaled.makeHot(other.getAccountId()));
+        assertFalse(other.isHot());
+    }
+
+    @Test
+    void testAccountsRegisteredUnderDenseHandles() {
+        Account first = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(1.0, "USD"));
+        Account second = accountService.createAccount("CUST002", AccountType.SAVINGS, new Money(2.0, "USD"));
+
+        assertEquals(0, first.getHandle());
+        assertEquals(1, second.getHandle());
+        assertEquals(1, accountService.handleOf(second.getAccountId()));
+        assertEquals(-1, accountService.handleOf("NON_EXISTENT"));
+        assertSame(second, accountService.getAccount(1));
+        assertSame(second.getAccountId(), accountService.getAccountRegistry().idOf(1));
+        assertThrows(InvalidAccountException.class, () -> accountService.getAccount(2));
+        assertThrows(IllegalArgumentException.class, () -> accountService.restoreAccount(first));
+    }
+}
@@ -0,0 +1,117 @@
+package com.banking.api.config;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.offheap.OffHeapAccountTable;
+import com.banking.account.service.AccountService;
+import com.banking.core.id.IdGenerator;
+import com.banking.core.id.Ids;
+import com.banking.core.id.SnowflakeIdGenerator;
+import com.banking.core.id.UuidIdGenerator;
+import com.banking.transaction.engine.ShardedAccountLocks;
+import com.banking.transaction.engine.ShardedLedgerEngine;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.persistence.LedgerPersistence;
+import com.banking.transaction.persistence.SnapshotStore;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.store.ColumnarTransactionStore;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import com.banking.transaction.store.MappedTransactionStore;
+import com.banking.transaction.store.TransactionStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Configuration
+public class ServiceConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${banking.id.generator}") String type,
+                                   @Value("${banking.id.node-id}") int nodeId) {
+        IdGenerator generator = "uuid".equalsIgnoreCase(type) ? new UuidIdGenerator() : new SnowflakeIdGenerator(nodeId);
+        Ids.setGenerator(generator);
+        return generator;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+    public TransactionJournal transactionJournal(
+            @Value("${banking.journal.directory}") String directory,
+            @Value("${banking.journal.batch-size}") int batchSize,
+            @Value("${banking.journal.flush-interval-micros}") long flushIntervalMicros) throws IOException {
+        return new TransactionJournal(Paths.get(directory), batchSize, Duration.ofNanos(flushIntervalMicros * 1_000));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${banking.engine.shards} > 0")
+    public ShardedLedgerEngine ledgerEngine(@Value("${banking.engine.shards}") int shards,
+                                            @Value("${banking.engine.ring-size}") int ringSize) {
+        return new ShardedLedgerEngine(shards, ringSize);
+    }
+
+    @Bean
+    @DependsOn("idGenerator")
+    public AccountService accountService(ObjectProvider<TransactionJournal> transactionJournal,
+                                         ObjectProvider<ShardedLedgerEngine> ledgerEngine,
+                                         @Value("${banking.account.table.capacity}") int tableCapacity) {
+        OffHeapAccountTable table = tableCapacity > 0 ? new OffHeapAccountTable(tableCapacity) : null;
+        ShardedLedgerEngine engine = ledgerEngine.getIfAvailable();
+        AccountLocks locks = engine != null ? new ShardedAccountLocks(engine) : new AccountLocks();
+        return new AccountService(locks, transactionJournal.getIfAvailable(), table);
+    }
+
+    @Bean
+    public TransactionStore transactionStore(@Value("${banking.transaction.store}") String type,
+                                             IdGenerator idGenerator,
+                                             AccountService accountService,
+                                             @Value("${banking.transaction.store.directory}") String directory,
+                                             @Value("${banking.transaction.store.segment-mb}") int segmentMb,
+                                             @Value("${banking.transaction.store.window}") int window) throws IOException {
+        boolean primitiveIds = "mapped".equalsIgnoreCase(type) || "columnar".equalsIgnoreCase(type);
+        if (primitiveIds && !(idGenerator instanceof SnowflakeIdGenerator)) {
+            // These stores keep ids as decoded longs; a uuid would fail inside record(),
+            // after the balance has already moved.
+            throw new IllegalStateException(
+                "banking.transaction.store=" + type + " requires banking.id.generator=snowflake");
+        }
+        if ("mapped".equalsIgnoreCase(type)) {
+            // Reopens the log in place; ledgerPersistence's recovery reindexes the records the
+            // journal confirms, and the first add past them truncates the rest.
+            return new MappedTransactionStore(Paths.get(directory), segmentMb << 20, window);
+        }
+        return "columnar".equalsIgnoreCase(type)
+            ? new ColumnarTransactionStore(accountService.getAccountRegistry())
+            : new InMemoryTransactionStore();
+    }
+
+    @Bean
+    public TransactionService transactionService(AccountService accountService,
+                                                 ObjectProvider<TransactionJournal> transactionJournal,
+                                                 TransactionStore transactionStore,
+                                                 @Value("${banking.transaction.optimistic-attempts}") int optimisticAttempts) {
+        return new TransactionService(accountService, transactionJournal.getIfAvailable(), transactionStore,
+            optimisticAttempts);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+    public LedgerPersistence ledgerPersistence(
+            TransactionJournal transactionJournal,
+            AccountService accountService,
+            TransactionService transactionService,
+            @Value("${banking.snapshot.directory}") String directory,
+            @Value("${banking.snapshot.interval-seconds}") long intervalSeconds) throws IOException {
+        LedgerPersistence persistence = new LedgerPersistence(new SnapshotStore(Paths.get(directory)),
+            transactionJournal, accountService, transactionService);
+        persistence.recover();
+        persistence.startSnapshots(Duration.ofSeconds(intervalSeconds));
+        return persistence;
+    }
+}
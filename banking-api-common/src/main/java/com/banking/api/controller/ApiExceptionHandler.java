@@ -0,0 +1,24 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps the services' {@link IllegalArgumentException}s, thrown for input they cannot act
+ * on such as an unknown currency, an amount finer than the currency's minor unit, a
+ * malformed cursor or an unknown batch mode, to a 400 naming the problem. Shared by the
+ * servlet and reactive APIs.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> badRequest(IllegalArgumentException e) {
+        ErrorResponse response = new ErrorResponse();
+        response.setError(e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+}
@@ -0,0 +1,25 @@
+package com.banking.api.controller;
+
+/**
+ * Page size bounds shared by the paged listing endpoints.
+ */
+public final class PageLimits {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private PageLimits() {
+    }
+
+    /**
+     * Returns the requested page size, the default if none was given, capped at the maximum.
+     */
+    public static int resolve(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -7,6 +7,7 @@ public class AccountResponse {
     private double balance;
     private String currency;
     private boolean active;
+    private boolean hot;
 
     public String getAccountId() {
         return accountId;
@@ -55,5 +56,13 @@ public class AccountResponse {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
 }
 
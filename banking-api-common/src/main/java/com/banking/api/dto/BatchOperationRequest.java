@@ -0,0 +1,17 @@
+package com.banking.api.dto;
+
+/**
+ * One operation of a batch: a {@link TransactionRequest} plus its type,
+ * {@code DEPOSIT}, {@code WITHDRAW} or {@code TRANSFER}.
+ */
+public class BatchOperationRequest extends TransactionRequest {
+    private String type;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+}
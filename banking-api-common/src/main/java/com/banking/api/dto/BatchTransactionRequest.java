@@ -0,0 +1,24 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class BatchTransactionRequest {
+    private String mode;
+    private List<BatchOperationRequest> operations;
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public List<BatchOperationRequest> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperationRequest> operations) {
+        this.operations = operations;
+    }
+}
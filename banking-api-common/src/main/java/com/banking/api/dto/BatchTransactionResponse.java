@@ -0,0 +1,42 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class BatchTransactionResponse {
+    private String mode;
+    private int applied;
+    private int failed;
+    private List<BatchItemResponse> results;
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchItemResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResponse> results) {
+        this.results = results;
+    }
+}
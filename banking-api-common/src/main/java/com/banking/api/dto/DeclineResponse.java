@@ -0,0 +1,22 @@
+package com.banking.api.dto;
+
+public class DeclineResponse {
+    private String status;
+    private String accountId;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.api.dto;
+
+public class ErrorResponse {
+    private String error;
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,49 @@
+package com.banking.api.dto;
+
+public class RuntimeResponse {
+    private boolean virtualThreads;
+    private int platformThreads;
+    private long heapUsedBytes;
+    private long heapCommittedBytes;
+    private long nonHeapUsedBytes;
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getPlatformThreads() {
+        return platformThreads;
+    }
+
+    public void setPlatformThreads(int platformThreads) {
+        this.platformThreads = platformThreads;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public void setHeapUsedBytes(long heapUsedBytes) {
+        this.heapUsedBytes = heapUsedBytes;
+    }
+
+    public long getHeapCommittedBytes() {
+        return heapCommittedBytes;
+    }
+
+    public void setHeapCommittedBytes(long heapCommittedBytes) {
+        this.heapCommittedBytes = heapCommittedBytes;
+    }
+
+    public long getNonHeapUsedBytes() {
+        return nonHeapUsedBytes;
+    }
+
+    public void setNonHeapUsedBytes(long nonHeapUsedBytes) {
+        this.nonHeapUsedBytes = nonHeapUsedBytes;
+    }
+}
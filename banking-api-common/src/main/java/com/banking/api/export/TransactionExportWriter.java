@@ -0,0 +1,149 @@
+package com.banking.api.export;
+
+import com.banking.transaction.domain.Transaction;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes transactions one line at a time to an output stream, so an export of any size
+ * only ever holds one buffer in memory. Writes block while the client is not reading,
+ * which holds back iteration instead of queueing rows. Output is flushed every
+ * {@link #FLUSH_EVERY} rows so the client sees progress on long exports.
+ * Amounts are written as exact decimals. Closing flushes but leaves the stream open.
+ */
+public abstract class TransactionExportWriter implements Closeable {
+    static final int FLUSH_EVERY = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private int pending;
+
+    public static TransactionExportWriter create(ExportFormat format, OutputStream out, JsonFactory jsonFactory)
+            throws IOException {
+        switch (format) {
+            case CSV:
+                return new Csv(out);
+            default:
+                return new Ndjson(out, jsonFactory);
+        }
+    }
+
+    /**
+     * Writes one transaction; I/O failures, such as the client disconnecting, are rethrown unchecked
+     * so the writer can be used directly as a callback.
+     */
+    public void write(Transaction transaction) {
+        try {
+            writeRow(transaction);
+            if (++pending == FLUSH_EVERY) {
+                pending = 0;
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void writeRow(Transaction transaction) throws IOException;
+
+    protected abstract void flush() throws IOException;
+
+    private static final class Ndjson extends TransactionExportWriter {
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, JsonFactory jsonFactory) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void writeRow(Transaction transaction) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("transactionId", transaction.getTransactionId());
+            generator.writeStringField("accountId", transaction.getAccountId());
+            generator.writeStringField("type", transaction.getType().name());
+            generator.writeFieldName("amount");
+            generator.writeNumber(transaction.getAmount().getAmount());
+            generator.writeStringField("currency", transaction.getAmount().getCurrency());
+            generator.writeStringField("timestamp", transaction.getTimestamp().toString());
+            generator.writeStringField("description", transaction.getDescription());
+            generator.writeStringField("relatedAccountId", transaction.getRelatedAccountId());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class Csv extends TransactionExportWriter {
+        private static final String HEADER =
+            "transactionId,accountId,type,amount,currency,timestamp,description,relatedAccountId\n";
+
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.writer.write(HEADER);
+        }
+
+        @Override
+        protected void writeRow(Transaction transaction) throws IOException {
+            writer.write(transaction.getTransactionId());
+            writer.write(',');
+            writer.write(transaction.getAccountId());
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writer.write(transaction.getAmount().getAmount().toPlainString());
+            writer.write(',');
+            writer.write(transaction.getAmount().getCurrency());
+            writer.write(',');
+            writer.write(transaction.getTimestamp().toString());
+            writer.write(',');
+            writeQuoted(transaction.getDescription());
+            writer.write(',');
+            if (transaction.getRelatedAccountId() != null) {
+                writer.write(transaction.getRelatedAccountId());
+            }
+            writer.write('\n');
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Leave the response stream to the container
+            writer.flush();
+        }
+    }
+}
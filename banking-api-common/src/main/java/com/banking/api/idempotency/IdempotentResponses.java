@@ -0,0 +1,76 @@
+package com.banking.api.idempotency;
+
+import com.banking.api.dto.TransactionRequest;
+import com.banking.core.util.ExpiringCache;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses to requests sent with an {@code Idempotency-Key} header, so a
+ * client retrying a request it never saw answered gets the original response back instead
+ * of running the operation again. A key is remembered together with a fingerprint of its
+ * request; reusing it for a different request is refused with 422. Requests without a key
+ * run as usual and cost nothing here. Failed requests are not remembered, so their retries
+ * run again.
+ */
+public class IdempotentResponses {
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ExpiringCache<String, Remembered> responses;
+
+    public IdempotentResponses(int capacity, Duration retention) {
+        this.responses = new ExpiringCache<>(capacity, retention);
+    }
+
+    /**
+     * Runs {@code request} unless a response is remembered for {@code key}, in which case
+     * that response is returned, marked as replayed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Supplier<ResponseEntity<T>> request) {
+        if (key == null) {
+            return request.get();
+        }
+        Remembered[] executed = new Remembered[1];
+        Remembered remembered = responses.getOrCompute(key, () -> {
+            executed[0] = new Remembered(fingerprint, request.get());
+            return executed[0];
+        });
+        if (remembered == executed[0]) {
+            return (ResponseEntity<T>) remembered.response;
+        }
+        if (!remembered.fingerprint.equals(fingerprint)) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        return ResponseEntity.status(remembered.response.getStatusCode())
+            .header(REPLAYED_HEADER, "true")
+            .body((T) remembered.response.getBody());
+    }
+
+    /**
+     * Identifies {@code operation} on {@code request}, so a key reused for anything else
+     * is told apart from a retry.
+     */
+    public static String fingerprint(String operation, TransactionRequest request) {
+        return operation + '|' + request.getAccountId() + '|' + request.getFromAccountId() + '|'
+            + request.getToAccountId() + '|' + request.getAmount() + '|' + request.getCurrency() + '|'
+            + request.getDescription();
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    private static final class Remembered {
+        private final String fingerprint;
+        private final ResponseEntity<?> response;
+
+        private Remembered(String fingerprint, ResponseEntity<?> response) {
+            this.fingerprint = fingerprint;
+            this.response = response;
+        }
+    }
+}
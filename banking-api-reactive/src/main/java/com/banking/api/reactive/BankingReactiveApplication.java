@@ -0,0 +1,11 @@
+package com.banking.api.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class BankingReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(BankingReactiveApplication.class, args);
+    }
+}
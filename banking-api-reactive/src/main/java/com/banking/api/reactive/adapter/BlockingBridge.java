@@ -0,0 +1,167 @@
+package com.banking.api.reactive.adapter;
+
+import com.banking.core.util.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Runs the blocking account and transaction services off the event loop. Every call is
+ * subscribed on a scheduler meant for blocking work, so a request waiting for an account
+ * lock or a journal flush holds one of its threads while Netty's event loops keep serving
+ * other connections.
+ * <p>
+ * Listings are read a page at a time as the subscriber asks for more, and iterations that
+ * push results, such as exports, block their thread whenever the subscriber has nothing
+ * outstanding. Neither ever holds more than a page or a chunk of a slow client's results.
+ */
+public class BlockingBridge {
+    private static final ThreadLocal<BlockingBridge> CURRENT = new ThreadLocal<>();
+
+    private final Scheduler scheduler;
+
+    public BlockingBridge(Scheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Calls {@code call} on the blocking scheduler once subscribed; a {@code null} result
+     * completes empty. A call subscribed to from inside another call runs in place, so a
+     * call may block on another without waiting for a second thread.
+     */
+    public <T> Mono<T> call(Callable<T> call) {
+        return Mono.defer(() -> CURRENT.get() == this
+            ? Mono.fromCallable(call)
+            : Mono.fromCallable(() -> callInside(call)).subscribeOn(scheduler));
+    }
+
+    /**
+     * Reads pages of {@code limit} items with {@code read}, starting with a {@code null}
+     * cursor and following each page's next cursor, fetching the next page only once the
+     * subscriber has taken the previous one.
+     */
+    public <T> Flux<T> pages(int limit, BiFunction<String, Integer, Page<T>> read) {
+        return call(() -> read.apply(null, limit))
+            .expand(page -> page.getNextCursor() == null
+                ? Mono.empty()
+                : call(() -> read.apply(page.getNextCursor(), limit)))
+            .flatMapIterable(Page::getItems, 1);
+    }
+
+    /**
+     * Runs {@code iteration} on the blocking scheduler, emitting what it hands to its
+     * callback. The callback blocks until the subscriber has requested the item, and
+     * throws {@link CancellationException} to end the iteration once it has cancelled.
+     */
+    public <T> Flux<T> iterate(Consumer<Consumer<T>> iteration) {
+        return Flux.create(sink -> {
+            Demand demand = new Demand();
+            sink.onRequest(demand::add);
+            sink.onDispose(demand::cancel);
+            scheduler.schedule(() -> {
+                try {
+                    iteration.accept(item -> {
+                        demand.take();
+                        sink.next(item);
+                    });
+                    sink.complete();
+                } catch (CancellationException e) {
+                    // The subscriber went away; nothing is left to tell
+                } catch (RuntimeException e) {
+                    sink.error(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs {@code writing} like {@link #iterate}, emitting each chunk it writes to the
+     * stream; a writer that buffers decides the chunk size.
+     */
+    public Flux<byte[]> write(Consumer<OutputStream> writing) {
+        return iterate(emit -> writing.accept(new OutputStream() {
+            @Override
+            public void write(int b) {
+                emit.accept(new byte[]{(byte) b});
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                if (length > 0) {
+                    emit.accept(Arrays.copyOfRange(bytes, offset, offset + length));
+                }
+            }
+        }));
+    }
+
+    private <T> T callInside(Callable<T> call) throws Exception {
+        CURRENT.set(this);
+        try {
+            return call.call();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Items the subscriber has requested and not yet received.
+     */
+    private static final class Demand {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        private long requested;
+        private boolean cancelled;
+
+        void add(long count) {
+            lock.lock();
+            try {
+                requested = requested + count < 0 ? Long.MAX_VALUE : requested + count;
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void take() {
+            lock.lock();
+            try {
+                while (requested == 0 && !cancelled) {
+                    available.await();
+                }
+                if (cancelled) {
+                    throw new CancellationException("Subscriber cancelled");
+                }
+                if (requested != Long.MAX_VALUE) {
+                    requested--;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for demand");
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
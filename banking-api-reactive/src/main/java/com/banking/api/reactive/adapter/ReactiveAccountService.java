@@ -0,0 +1,57 @@
+package com.banking.api.reactive.adapter;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.util.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking view of an {@link AccountService}: the same operations, run through a
+ * {@link BlockingBridge}. Lookups of accounts that do not exist complete empty.
+ */
+public class ReactiveAccountService {
+    private final AccountService accountService;
+    private final BlockingBridge bridge;
+
+    public ReactiveAccountService(AccountService accountService, BlockingBridge bridge) {
+        if (accountService == null) {
+            throw new IllegalArgumentException("AccountService cannot be null");
+        }
+        if (bridge == null) {
+            throw new IllegalArgumentException("BlockingBridge cannot be null");
+        }
+        this.accountService = accountService;
+        this.bridge = bridge;
+    }
+
+    public Mono<Account> createAccount(String customerId, AccountType accountType, Money initialBalance) {
+        return bridge.call(() -> accountService.createAccount(customerId, accountType, initialBalance));
+    }
+
+    public Mono<Account> findAccount(String accountId) {
+        return bridge.call(() -> accountService.findAccount(accountId).orElse(null));
+    }
+
+    public Flux<Account> getAccountsByCustomer(String customerId) {
+        return bridge.call(() -> accountService.getAccountsByCustomer(customerId)).flatMapIterable(accounts -> accounts);
+    }
+
+    /**
+     * Every account in opening order, read {@code pageSize} at a time as the subscriber
+     * asks for them.
+     */
+    public Flux<Account> getAllAccounts(int pageSize) {
+        return bridge.pages(pageSize, accountService::getAccounts);
+    }
+
+    public Mono<Page<Account>> getAccounts(String cursor, int limit) {
+        return bridge.call(() -> accountService.getAccounts(cursor, limit));
+    }
+
+    public Mono<Account> makeHot(String accountId) {
+        return bridge.call(() -> accountService.makeHot(accountId));
+    }
+}
@@ -0,0 +1,38 @@
+package com.banking.api.reactive.adapter;
+
+import com.banking.api.idempotency.IdempotentResponses;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking view of {@link IdempotentResponses}, with the servlet API's contract. A
+ * request with a key runs on a {@link BlockingBridge} thread, which also waits there for a
+ * first attempt still running under the same key. Requests without a key pass through.
+ */
+public class ReactiveIdempotentResponses {
+    private final IdempotentResponses responses;
+    private final BlockingBridge bridge;
+
+    public ReactiveIdempotentResponses(IdempotentResponses responses, BlockingBridge bridge) {
+        if (responses == null) {
+            throw new IllegalArgumentException("IdempotentResponses cannot be null");
+        }
+        if (bridge == null) {
+            throw new IllegalArgumentException("BlockingBridge cannot be null");
+        }
+        this.responses = responses;
+        this.bridge = bridge;
+    }
+
+    /**
+     * Subscribes to {@code request} unless a response is remembered for {@code key}, in
+     * which case that response is emitted, marked as replayed. {@code request} should run
+     * through the same bridge, so it runs in place rather than on a second thread.
+     */
+    public <T> Mono<ResponseEntity<T>> execute(String key, String fingerprint, Mono<ResponseEntity<T>> request) {
+        if (key == null) {
+            return request;
+        }
+        return bridge.call(() -> responses.execute(key, fingerprint, request::block));
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.api.reactive.adapter;
+
+import com.banking.api.export.ExportFormat;
+import com.banking.api.export.TransactionExportWriter;
+import com.banking.core.domain.Money;
+import com.banking.core.util.Page;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.core.JsonFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking view of a {@link TransactionService}: the same operations, run through a
+ * {@link BlockingBridge}. Withdrawals and transfers use the result variants, so declines
+ * arrive as values rather than errors.
+ */
+public class ReactiveTransactionService {
+    private final TransactionService transactionService;
+    private final BlockingBridge bridge;
+
+    public ReactiveTransactionService(TransactionService transactionService, BlockingBridge bridge) {
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        if (bridge == null) {
+            throw new IllegalArgumentException("BlockingBridge cannot be null");
+        }
+        this.transactionService = transactionService;
+        this.bridge = bridge;
+    }
+
+    public Mono<Transaction> deposit(String accountId, Money amount, String description) {
+        return bridge.call(() -> transactionService.deposit(accountId, amount, description));
+    }
+
+    public Mono<TransactionResult> tryWithdraw(String accountId, Money amount, String description) {
+        return bridge.call(() -> transactionService.tryWithdraw(accountId, amount, description));
+    }
+
+    public Mono<TransactionResult> tryTransfer(String fromAccountId, String toAccountId, Money amount,
+                                               String description) {
+        return bridge.call(() -> transactionService.tryTransfer(fromAccountId, toAccountId, amount, description));
+    }
+
+    public Mono<List<BatchItemResult>> executeBatch(List<BatchOperation> operations, BatchMode mode) {
+        return bridge.call(() -> transactionService.executeBatch(operations, mode));
+    }
+
+    public Mono<Transaction> getTransaction(String transactionId) {
+        return bridge.call(() -> transactionService.getTransaction(transactionId));
+    }
+
+    /**
+     * The account's whole history, newest first, read {@code pageSize} at a time as the
+     * subscriber asks for it.
+     */
+    public Flux<Transaction> getTransactionsByAccount(String accountId, int pageSize) {
+        return bridge.pages(pageSize, (cursor, limit) -> transactionService.getTransactions(accountId, cursor, limit));
+    }
+
+    public Mono<Page<Transaction>> getTransactions(String accountId, String cursor, int limit) {
+        return bridge.call(() -> transactionService.getTransactions(accountId, cursor, limit));
+    }
+
+    /**
+     * Writes every matching transaction, in recording order, in {@code format} on a
+     * blocking thread and emits the output chunk by chunk, holding the iteration back while
+     * the subscriber is not reading.
+     */
+    public Flux<byte[]> export(String accountId, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                               JsonFactory jsonFactory) {
+        return bridge.write(out -> {
+            try (TransactionExportWriter writer = TransactionExportWriter.create(format, out, jsonFactory)) {
+                transactionService.forEachTransaction(accountId, from, to, writer::write);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.api.reactive.config;
+
+import com.banking.account.service.AccountService;
+import com.banking.api.config.ServiceConfig;
+import com.banking.api.controller.ApiExceptionHandler;
+import com.banking.api.idempotency.IdempotentResponses;
+import com.banking.api.reactive.adapter.BlockingBridge;
+import com.banking.api.reactive.adapter.ReactiveAccountService;
+import com.banking.api.reactive.adapter.ReactiveIdempotentResponses;
+import com.banking.api.reactive.adapter.ReactiveTransactionService;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+@Configuration
+@Import({ServiceConfig.class, ApiExceptionHandler.class})
+public class ReactiveConfig {
+
+    /**
+     * Threads the blocking services run on, bounded like a servlet container's pool, with
+     * calls beyond them queued rather than holding event loops.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${banking.reactive.blocking-threads}") int threads) {
+        return Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "banking-blocking");
+    }
+
+    @Bean
+    public BlockingBridge blockingBridge(Scheduler blockingScheduler) {
+        return new BlockingBridge(blockingScheduler);
+    }
+
+    @Bean
+    public ReactiveAccountService reactiveAccountService(AccountService accountService, BlockingBridge blockingBridge) {
+        return new ReactiveAccountService(accountService, blockingBridge);
+    }
+
+    @Bean
+    public ReactiveTransactionService reactiveTransactionService(TransactionService transactionService,
+                                                                 BlockingBridge blockingBridge) {
+        return new ReactiveTransactionService(transactionService, blockingBridge);
+    }
+
+    @Bean
+    public ReactiveIdempotentResponses reactiveIdempotentResponses(
+            @Value("${banking.idempotency.capacity}") int capacity,
+            @Value("${banking.idempotency.retention-seconds}") long retentionSeconds,
+            BlockingBridge blockingBridge) {
+        return new ReactiveIdempotentResponses(new IdempotentResponses(capacity, Duration.ofSeconds(retentionSeconds)),
+            blockingBridge);
+    }
+}
@@ -0,0 +1,117 @@
+package com.banking.api.reactive.controller;
+
+import com.banking.account.domain.Account;
+import com.banking.api.controller.PageLimits;
+import com.banking.api.dto.AccountCreateRequest;
+import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.PageResponse;
+import com.banking.api.reactive.adapter.ReactiveAccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.util.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/accounts")
+@CrossOrigin(origins = "*")
+public class AccountController {
+
+    private final ReactiveAccountService accountService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AccountController(ReactiveAccountService accountService, ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<AccountResponse>> createAccount(@RequestBody AccountCreateRequest request) {
+        return accountService.createAccount(
+                request.getCustomerId(),
+                AccountType.valueOf(request.getAccountType()),
+                new Money(request.getInitialBalance(), request.getCurrency())
+            )
+            .map(account -> ResponseEntity.status(HttpStatus.CREATED).body(toResponse(account)));
+    }
+
+    @GetMapping("/{accountId}")
+    public Mono<ResponseEntity<AccountResponse>> getAccount(@PathVariable String accountId) {
+        return accountService.findAccount(accountId)
+            .map(account -> ResponseEntity.ok(toResponse(account)))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public Flux<AccountResponse> getAccountsByCustomer(@PathVariable String customerId) {
+        return accountService.getAccountsByCustomer(customerId).map(this::toResponse);
+    }
+
+    /**
+     * Lists every account in opening order as a JSON array written while accounts are read
+     * a page at a time, so the listing is never held in memory.
+     */
+    @GetMapping(params = {"!limit", "!cursor"})
+    public ResponseEntity<Flux<byte[]>> getAllAccounts() {
+        Flux<AccountResponse> accounts = accountService.getAllAccounts(PageLimits.MAX_LIMIT).map(this::toResponse);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(JsonArrays.encode(accounts, objectMapper));
+    }
+
+    /**
+     * Returns one page of accounts in opening order plus the cursor for the next.
+     */
+    @GetMapping
+    public Mono<PageResponse<AccountResponse>> getAccounts(@RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String cursor) {
+        return accountService.getAccounts(cursor, PageLimits.resolve(limit)).map(this::toPageResponse);
+    }
+
+    @GetMapping("/{accountId}/balance")
+    public Mono<ResponseEntity<Money>> getBalance(@PathVariable String accountId) {
+        return accountService.findAccount(accountId)
+            .map(account -> ResponseEntity.ok(account.getBalance()))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Switches the account to split credits for high deposit rates. Not available with the
+     * journal enabled.
+     */
+    @PutMapping("/{accountId}/hot")
+    public Mono<ResponseEntity<AccountResponse>> makeHot(@PathVariable String accountId) {
+        return accountService.makeHot(accountId).map(account -> ResponseEntity.ok(toResponse(account)));
+    }
+
+    private PageResponse<AccountResponse> toPageResponse(Page<Account> page) {
+        PageResponse<AccountResponse> response = new PageResponse<>();
+        response.setItems(page.getItems().stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList()));
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
+
+    private AccountResponse toResponse(Account account) {
+        AccountResponse response = new AccountResponse();
+        response.setAccountId(account.getAccountId());
+        response.setCustomerId(account.getCustomerId());
+        response.setAccountType(account.getAccountType().name());
+        response.setBalance(account.getBalance().getAmount().doubleValue());
+        response.setCurrency(account.getBalance().getCurrency());
+        response.setActive(account.isActive());
+        response.setHot(account.isHot());
+        return response;
+    }
+}
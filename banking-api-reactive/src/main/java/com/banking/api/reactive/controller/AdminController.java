@@ -0,0 +1,29 @@
+package com.banking.api.reactive.controller;
+
+import com.banking.api.dto.RuntimeResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    /**
+     * Memory in use and the number of live threads, sampled by the HTTP load driver to
+     * compare this server with the servlet one.
+     */
+    @GetMapping("/runtime")
+    public ResponseEntity<RuntimeResponse> getRuntime() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        RuntimeResponse response = new RuntimeResponse();
+        response.setPlatformThreads(ManagementFactory.getThreadMXBean().getThreadCount());
+        response.setHeapUsedBytes(memory.getHeapMemoryUsage().getUsed());
+        response.setHeapCommittedBytes(memory.getHeapMemoryUsage().getCommitted());
+        response.setNonHeapUsedBytes(memory.getNonHeapMemoryUsage().getUsed());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.api.reactive.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes a stream of items as one JSON array, a chunk of items at a time. The JSON
+ * encoder of this Spring version collects a {@code Flux} into a list before writing an
+ * array, which would hold a whole listing in memory.
+ */
+final class JsonArrays {
+    static final int CHUNK_SIZE = 64;
+
+    private JsonArrays() {
+    }
+
+    static Flux<byte[]> encode(Flux<?> items, ObjectMapper objectMapper) {
+        return Flux.defer(() -> {
+            boolean[] empty = {true};
+            return items.buffer(CHUNK_SIZE)
+                .map(chunk -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    for (Object item : chunk) {
+                        out.write(empty[0] ? '[' : ',');
+                        empty[0] = false;
+                        byte[] json = toJson(item, objectMapper);
+                        out.write(json, 0, json.length);
+                    }
+                    return out.toByteArray();
+                })
+                .concatWith(Mono.fromSupplier(() -> (empty[0] ? "[]" : "]").getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    private static byte[] toJson(Object item, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.banking.api.reactive.controller;
+
+import com.banking.api.controller.PageLimits;
+import com.banking.api.dto.BatchItemResponse;
+import com.banking.api.dto.BatchOperationRequest;
+import com.banking.api.dto.BatchTransactionRequest;
+import com.banking.api.dto.BatchTransactionResponse;
+import com.banking.api.dto.DeclineResponse;
+import com.banking.api.dto.PageResponse;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.api.export.ExportFormat;
+import com.banking.api.idempotency.IdempotentResponses;
+import com.banking.api.reactive.adapter.ReactiveIdempotentResponses;
+import com.banking.api.reactive.adapter.ReactiveTransactionService;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
+import com.banking.core.util.Page;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/transactions")
+@CrossOrigin(origins = "*")
+public class TransactionController {
+
+    private final ReactiveTransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final ReactiveIdempotentResponses idempotentResponses;
+
+    @Autowired
+    public TransactionController(ReactiveTransactionService transactionService, ObjectMapper objectMapper,
+                                 ReactiveIdempotentResponses idempotentResponses) {
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.idempotentResponses = idempotentResponses;
+    }
+
+    /**
+     * Deposits, withdrawals and transfers accept an {@code Idempotency-Key} header: a retry
+     * with the same key and request gets the first response back, marked with
+     * {@code Idempotent-Replayed: true}, without running again.
+     */
+    @PostMapping("/deposit")
+    public Mono<ResponseEntity<TransactionResponse>> deposit(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("deposit", request),
+            transactionService.deposit(
+                    request.getAccountId(),
+                    new Money(request.getAmount(), request.getCurrency()),
+                    request.getDescription()
+                )
+                .map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction))));
+    }
+
+    /**
+     * Withdrawals and transfers that are declined respond 404 when an account does not
+     * exist and 422 when one is inactive or short of funds, naming the status and account.
+     */
+    @PostMapping("/withdraw")
+    public Mono<ResponseEntity<Object>> withdraw(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("withdraw", request),
+            transactionService.tryWithdraw(
+                    request.getAccountId(),
+                    new Money(request.getAmount(), request.getCurrency()),
+                    request.getDescription()
+                )
+                .map(this::toResponseEntity));
+    }
+
+    @PostMapping("/transfer")
+    public Mono<ResponseEntity<Object>> transfer(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("transfer", request),
+            transactionService.tryTransfer(
+                    request.getFromAccountId(),
+                    request.getToAccountId(),
+                    new Money(request.getAmount(), request.getCurrency()),
+                    request.getDescription()
+                )
+                .map(this::toResponseEntity));
+    }
+
+    /**
+     * Applies many operations in one request. Mode defaults to {@code BEST_EFFORT}.
+     * Responds 201 when every operation applied, 422 when none did and 200 otherwise,
+     * always with a result per operation in submission order.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchTransactionResponse>> batch(@RequestBody BatchTransactionRequest request) {
+        if (request.getOperations() == null || request.getOperations().isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one operation");
+        }
+        BatchMode mode = request.getMode() == null ? BatchMode.BEST_EFFORT : BatchMode.fromName(request.getMode());
+        List<BatchOperation> operations = new ArrayList<>(request.getOperations().size());
+        for (BatchOperationRequest operation : request.getOperations()) {
+            operations.add(toOperation(operation));
+        }
+        return transactionService.executeBatch(operations, mode).map(results -> toBatchResponse(mode, results));
+    }
+
+    /**
+     * Lists an account's whole history newest first as a JSON array written while it is
+     * read a page at a time, so the history is never held in memory.
+     */
+    @GetMapping(value = "/account/{accountId}", params = {"!limit", "!cursor"})
+    public ResponseEntity<Flux<byte[]>> getTransactionsByAccount(@PathVariable String accountId) {
+        Flux<TransactionResponse> transactions = transactionService
+            .getTransactionsByAccount(accountId, PageLimits.MAX_LIMIT)
+            .map(this::toResponse);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(JsonArrays.encode(transactions, objectMapper));
+    }
+
+    /**
+     * Returns one page of an account's transactions, newest first, plus the cursor for the next.
+     */
+    @GetMapping("/account/{accountId}")
+    public Mono<PageResponse<TransactionResponse>> getTransactions(@PathVariable String accountId,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String cursor) {
+        return transactionService.getTransactions(accountId, cursor, PageLimits.resolve(limit))
+            .map(this::toPageResponse);
+    }
+
+    /**
+     * Streams transactions in recording order as NDJSON or CSV, optionally for one account
+     * and a {@code [from, to)} timestamp range. Rows are written while the store is iterated,
+     * and iteration waits whenever the client stops reading.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<byte[]>> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+            .body(transactionService.export(accountId, from, to, exportFormat, objectMapper.getFactory()));
+    }
+
+    @GetMapping("/{transactionId}")
+    public Mono<ResponseEntity<TransactionResponse>> getTransaction(@PathVariable String transactionId) {
+        return transactionService.getTransaction(transactionId)
+            .map(transaction -> ResponseEntity.ok(toResponse(transaction)));
+    }
+
+    private ResponseEntity<Object> toResponseEntity(TransactionResult result) {
+        if (result.isApplied()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(result.getTransaction()));
+        }
+        DeclineResponse response = new DeclineResponse();
+        response.setStatus(result.getStatus().name());
+        response.setAccountId(result.getDeclinedAccountId());
+        HttpStatus status = result.getStatus() == OperationStatus.ACCOUNT_NOT_FOUND
+            ? HttpStatus.NOT_FOUND : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private ResponseEntity<BatchTransactionResponse> toBatchResponse(BatchMode mode, List<BatchItemResult> results) {
+        BatchTransactionResponse response = new BatchTransactionResponse();
+        response.setMode(mode.name());
+        List<BatchItemResponse> items = new ArrayList<>(results.size());
+        int applied = 0;
+        for (BatchItemResult result : results) {
+            BatchItemResponse item = new BatchItemResponse();
+            item.setIndex(result.getIndex());
+            if (result.isApplied()) {
+                applied++;
+                item.setStatus("APPLIED");
+                item.setTransaction(toResponse(result.getTransaction()));
+            } else {
+                item.setStatus("FAILED");
+                item.setError(result.getError());
+            }
+            items.add(item);
+        }
+        response.setApplied(applied);
+        response.setFailed(results.size() - applied);
+        response.setResults(items);
+
+        HttpStatus status = applied == results.size() ? HttpStatus.CREATED
+            : applied == 0 ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private BatchOperation toOperation(BatchOperationRequest request) {
+        Money amount = new Money(request.getAmount(), request.getCurrency());
+        String type = request.getType() == null ? "" : request.getType();
+        switch (type) {
+            case "DEPOSIT":
+                return BatchOperation.deposit(request.getAccountId(), amount, request.getDescription());
+            case "WITHDRAW":
+            case "WITHDRAWAL":
+                return BatchOperation.withdraw(request.getAccountId(), amount, request.getDescription());
+            case "TRANSFER":
+                return BatchOperation.transfer(request.getFromAccountId(), request.getToAccountId(), amount,
+                    request.getDescription());
+            default:
+                throw new IllegalArgumentException("Unknown operation type: " + request.getType());
+        }
+    }
+
+    private PageResponse<TransactionResponse> toPageResponse(Page<Transaction> page) {
+        PageResponse<TransactionResponse> response = new PageResponse<>();
+        response.setItems(page.getItems().stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList()));
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
+
+    private TransactionResponse toResponse(Transaction transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setTransactionId(transaction.getTransactionId());
+        response.setAccountId(transaction.getAccountId());
+        response.setType(transaction.getType().name());
+        response.setAmount(transaction.getAmount().getAmount().doubleValue());
+        response.setCurrency(transaction.getAmount().getCurrency());
+        response.setTimestamp(transaction.getTimestamp().toString());
+        response.setDescription(transaction.getDescription());
+        response.setRelatedAccountId(transaction.getRelatedAccountId());
+        return response;
+    }
+}
@@ -0,0 +1,198 @@
+package com.banking.api.reactive.controller;
+
+import com.banking.api.dto.AccountCreateRequest;
+import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.DeclineResponse;
+import com.banking.api.dto.PageResponse;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.api.idempotency.IdempotentResponses;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class TransactionControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void testDepositAndWithdrawMoveTheBalance() {
+        String accountId = createAccount(100.0);
+
+        TransactionResponse deposit = post("/api/transactions/deposit", null, deposit(accountId, 50.0))
+            .expectStatus().isCreated()
+            .expectBody(TransactionResponse.class).returnResult().getResponseBody();
+        assertEquals("DEPOSIT", deposit.getType());
+        assertEquals(accountId, deposit.getAccountId());
+
+        post("/api/transactions/withdraw", null, deposit(accountId, 30.0))
+            .expectStatus().isCreated()
+            .expectBody().jsonPath("$.type").isEqualTo("WITHDRAWAL");
+
+        client.get().uri("/api/accounts/{id}", accountId).exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.balance").isEqualTo(120.0);
+    }
+
+    @Test
+    void testDeclinedWithdrawalsAndTransfersNameTheStatusAndAccount() {
+        String accountId = createAccount(10.0);
+
+        DeclineResponse shortOfFunds = post("/api/transactions/withdraw", null, deposit(accountId, 20.0))
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+            .expectBody(DeclineResponse.class).returnResult().getResponseBody();
+        assertEquals("INSUFFICIENT_FUNDS", shortOfFunds.getStatus());
+        assertEquals(accountId, shortOfFunds.getAccountId());
+
+        TransactionRequest transfer = deposit(accountId, 1.0);
+        transfer.setAccountId(null);
+        transfer.setFromAccountId(accountId);
+        transfer.setToAccountId("missing");
+        post("/api/transactions/transfer", null, transfer)
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("ACCOUNT_NOT_FOUND")
+            .jsonPath("$.accountId").isEqualTo("missing");
+    }
+
+    @Test
+    void testInputTheServicesRejectIsABadRequest() {
+        String accountId = createAccount(0.0);
+        TransactionRequest request = deposit(accountId, 5.0);
+        request.setCurrency("XYZ");
+        post("/api/transactions/deposit", null, request)
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.error").isEqualTo("Unknown currency: XYZ");
+
+        client.get().uri("/api/transactions/account/{id}?cursor=bogus", accountId).exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testRetriesWithAnIdempotencyKeyReplayTheFirstResponse() {
+        String accountId = createAccount(0.0);
+        TransactionRequest request = deposit(accountId, 25.0);
+
+        TransactionResponse first = post("/api/transactions/deposit", "deposit-1", request)
+            .expectStatus().isCreated()
+            .expectHeader().doesNotExist(IdempotentResponses.REPLAYED_HEADER)
+            .expectBody(TransactionResponse.class).returnResult().getResponseBody();
+        TransactionResponse retry = post("/api/transactions/deposit", "deposit-1", request)
+            .expectStatus().isCreated()
+            .expectHeader().valueEquals(IdempotentResponses.REPLAYED_HEADER, "true")
+            .expectBody(TransactionResponse.class).returnResult().getResponseBody();
+        assertEquals(first.getTransactionId(), retry.getTransactionId());
+
+        post("/api/transactions/withdraw", "deposit-1", deposit(accountId, 25.0))
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+            .expectBody().isEmpty();
+
+        client.get().uri("/api/accounts/{id}", accountId).exchange()
+            .expectBody().jsonPath("$.balance").isEqualTo(25.0);
+    }
+
+    @Test
+    void testDeclinesAreReplayedLikeAnyOtherResponse() {
+        String accountId = createAccount(0.0);
+        TransactionRequest request = deposit(accountId, 5.0);
+
+        post("/api/transactions/withdraw", "withdraw-1", request)
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+            .expectHeader().doesNotExist(IdempotentResponses.REPLAYED_HEADER);
+        post("/api/transactions/deposit", null, deposit(accountId, 5.0)).expectStatus().isCreated();
+        post("/api/transactions/withdraw", "withdraw-1", request)
+            .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+            .expectHeader().valueEquals(IdempotentResponses.REPLAYED_HEADER, "true")
+            .expectBody().jsonPath("$.status").isEqualTo("INSUFFICIENT_FUNDS");
+    }
+
+    @Test
+    void testHistoryIsListedWholeAndByPage() {
+        String accountId = createAccount(0.0);
+        for (int i = 1; i <= 3; i++) {
+            post("/api/transactions/deposit", null, deposit(accountId, i)).expectStatus().isCreated();
+        }
+
+        List<TransactionResponse> history = client.get().uri("/api/transactions/account/{id}", accountId).exchange()
+            .expectStatus().isOk()
+            .expectBodyList(TransactionResponse.class).returnResult().getResponseBody();
+        assertEquals(3, history.size());
+        assertEquals(3.0, history.get(0).getAmount());
+
+        PageResponse<TransactionResponse> first = page(accountId, null);
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+        PageResponse<TransactionResponse> second = page(accountId, first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertEquals(1.0, second.getItems().get(0).getAmount());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testExportStreamsOneLinePerTransaction() {
+        String accountId = createAccount(0.0);
+        post("/api/transactions/deposit", null, deposit(accountId, 1.0)).expectStatus().isCreated();
+        post("/api/transactions/deposit", null, deposit(accountId, 2.0)).expectStatus().isCreated();
+
+        String body = client.get().uri("/api/transactions/export?accountId={id}", accountId).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"transactions.ndjson\"")
+            .expectBody(String.class).returnResult().getResponseBody();
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains(accountId));
+    }
+
+    private String createAccount(double initialBalance) {
+        AccountCreateRequest request = new AccountCreateRequest();
+        request.setCustomerId("CUST001");
+        request.setAccountType("CHECKING");
+        request.setInitialBalance(initialBalance);
+        request.setCurrency("USD");
+        return client.post().uri("/api/accounts").bodyValue(request).exchange()
+            .expectStatus().isCreated()
+            .expectBody(AccountResponse.class).returnResult().getResponseBody()
+            .getAccountId();
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, String idempotencyKey, TransactionRequest request) {
+        WebTestClient.RequestBodySpec spec = client.post().uri(uri);
+        if (idempotencyKey != null) {
+            spec.header(IdempotentResponses.KEY_HEADER, idempotencyKey);
+        }
+        return spec.bodyValue(request).exchange();
+    }
+
+    private PageResponse<TransactionResponse> page(String accountId, String cursor) {
+        return client.get()
+            .uri(builder -> builder.path("/api/transactions/account/{id}")
+                .queryParam("limit", 2)
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .build(accountId))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(new ParameterizedTypeReference<PageResponse<TransactionResponse>>() { })
+            .returnResult().getResponseBody();
+    }
+
+    private static TransactionRequest deposit(String accountId, double amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountId(accountId);
+        request.setAmount(amount);
+        request.setCurrency("USD");
+        request.setDescription("test");
+        return request;
+    }
+}
@@ -1,21 +0,0 @@
-package com.banking.api.config;
-
-import com.banking.account.service.AccountService;
-import com.banking.transaction.service.TransactionService;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class ServiceConfig {
-
-    @Bean
-    public AccountService accountService() {
-        return new AccountService();
-    }
-
-    @Bean
-    public TransactionService transactionService(AccountService accountService) {
-        return new TransactionService(accountService);
-    }
-}
-
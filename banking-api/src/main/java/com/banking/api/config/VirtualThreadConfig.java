@@ -0,0 +1,41 @@
+package com.banking.api.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * With {@code banking.threads.virtual=true}, Tomcat runs every request on a new virtual
+ * thread instead of its platform-thread pool, and asynchronous responses such as
+ * streamed exports are written on virtual threads too. Service calls run on the request's
+ * thread, so a request blocked on a journal flush or an account lock parks its virtual
+ * thread and frees the carrier for other requests. Requires a Java 21 runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final ExecutorService executor = VirtualThreads.newExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.api.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reaches Java 21's virtual threads by reflection, so the module still compiles for
+ * Java 11 and only a virtual-thread deployment needs a Java 21 runtime.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Executor starting a new virtual thread for every task.
+     *
+     * @throws IllegalStateException if the runtime predates Java 21
+     */
+    static ExecutorService newExecutor() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version());
+        }
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create a virtual-thread executor", e);
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.banking.api.config;
 
+import com.banking.api.idempotency.IdempotentResponses;
+import com.banking.api.metrics.EndpointLatencyFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Bean
+    public IdempotentResponses idempotentResponses(@Value("${banking.idempotency.capacity}") int capacity,
+                                                   @Value("${banking.idempotency.retention-seconds}") long retentionSeconds) {
+        return new IdempotentResponses(capacity, Duration.ofSeconds(retentionSeconds));
+    }
+
+    @Bean
+    public EndpointLatencyFilter endpointLatencyFilter() {
+        return new EndpointLatencyFilter();
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/**")
@@ -4,8 +4,10 @@ import com.banking.account.domain.Account;
 import com.banking.account.service.AccountService;
 import com.banking.api.dto.AccountCreateRequest;
 import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.PageResponse;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
+import com.banking.core.util.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,8 +40,9 @@ public class AccountController {
 
     @GetMapping("/{accountId}")
     public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountId) {
-        Account account = accountService.getAccount(accountId);
-        return ResponseEntity.ok(toResponse(account));
+        return accountService.findAccount(accountId)
+            .map(account -> ResponseEntity.ok(toResponse(account)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/{customerId}")
@@ -51,8 +54,17 @@ public class AccountController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Lists accounts in opening order. With {@code limit} or {@code cursor} the response is
+     * one page plus the cursor for the next; without either it is the full list.
+     */
     @GetMapping
-    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
+    public ResponseEntity<?> getAllAccounts(@RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor) {
+        if (limit != null || cursor != null) {
+            Page<Account> page = accountService.getAccounts(cursor, PageLimits.resolve(limit));
+            return ResponseEntity.ok(toPageResponse(page));
+        }
         List<Account> accounts = accountService.getAllAccounts();
         List<AccountResponse> responses = accounts.stream()
             .map(this::toResponse)
@@ -62,8 +74,27 @@ public class AccountController {
 
     @GetMapping("/{accountId}/balance")
     public ResponseEntity<Money> getBalance(@PathVariable String accountId) {
-        Money balance = accountService.getBalance(accountId);
-        return ResponseEntity.ok(balance);
+        return accountService.findAccount(accountId)
+            .map(account -> ResponseEntity.ok(account.getBalance()))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Switches the account to split credits for high deposit rates. Not available with the
+     * journal enabled.
+     */
+    @PutMapping("/{accountId}/hot")
+    public ResponseEntity<AccountResponse> makeHot(@PathVariable String accountId) {
+        return ResponseEntity.ok(toResponse(accountService.makeHot(accountId)));
+    }
+
+    private PageResponse<AccountResponse> toPageResponse(Page<Account> page) {
+        PageResponse<AccountResponse> response = new PageResponse<>();
+        response.setItems(page.getItems().stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList()));
+        response.setNextCursor(page.getNextCursor());
+        return response;
     }
 
     private AccountResponse toResponse(Account account) {
@@ -74,6 +105,7 @@ public class AccountController {
         response.setBalance(account.getBalance().getAmount().doubleValue());
         response.setCurrency(account.getBalance().getCurrency());
         response.setActive(account.isActive());
+        response.setHot(account.isHot());
         return response;
     }
 }
@@ -0,0 +1,118 @@
+package com.banking.api.controller;
+
+import com.banking.account.service.AccountService;
+import com.banking.api.dto.LatencyResponse;
+import com.banking.api.dto.RuntimeResponse;
+import com.banking.api.dto.TransferMetricsResponse;
+import com.banking.api.metrics.EndpointLatencyFilter;
+import com.banking.api.metrics.PrometheusFormat;
+import com.banking.core.metrics.LatencySnapshot;
+import com.banking.transaction.engine.TransferMetrics;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final EndpointLatencyFilter endpointLatencyFilter;
+    private final boolean virtualThreads;
+
+    @Autowired
+    public AdminController(TransactionService transactionService, AccountService accountService,
+                           EndpointLatencyFilter endpointLatencyFilter,
+                           @Value("${banking.threads.virtual}") boolean virtualThreads) {
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.endpointLatencyFilter = endpointLatencyFilter;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Transfer counts by path: single-step against cross-shard, and how many cross-shard
+     * transfers were refunded.
+     */
+    @GetMapping("/transfers")
+    public ResponseEntity<TransferMetricsResponse> getTransferMetrics() {
+        TransferMetrics metrics = transactionService.getTransferMetrics();
+        TransferMetricsResponse response = new TransferMetricsResponse();
+        response.setSingleStepTransfers(metrics.getSingleStepTransfers());
+        response.setCrossShardTransfers(metrics.getCrossShardTransfers());
+        response.setRefundedTransfers(metrics.getRefundedTransfers());
+        response.setMeanCrossShardMicros(TimeUnit.NANOSECONDS.toMicros(metrics.getMeanCrossShardNanos()));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Latency count, mean, percentiles and maximum of every transaction and account
+     * operation and every endpoint, by component and operation.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Map<String, LatencyResponse>>> getLatencyMetrics() {
+        Map<String, Map<String, LatencyResponse>> response = new LinkedHashMap<>();
+        snapshotLatencies().forEach((component, operations) -> {
+            Map<String, LatencyResponse> responses = new LinkedHashMap<>();
+            operations.forEach((operation, snapshot) -> responses.put(operation, toResponse(snapshot)));
+            response.put(component, responses);
+        });
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The same latencies in the Prometheus text format, for scraping.
+     */
+    @GetMapping("/metrics/prometheus")
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, PrometheusFormat.CONTENT_TYPE)
+            .body(PrometheusFormat.write(snapshotLatencies()));
+    }
+
+    /**
+     * Memory in use and the number of live platform threads, which virtual threads do
+     * not add to; sampled by the HTTP load driver to compare the two request modes.
+     */
+    @GetMapping("/runtime")
+    public ResponseEntity<RuntimeResponse> getRuntime() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        RuntimeResponse response = new RuntimeResponse();
+        response.setVirtualThreads(virtualThreads);
+        response.setPlatformThreads(ManagementFactory.getThreadMXBean().getThreadCount());
+        response.setHeapUsedBytes(memory.getHeapMemoryUsage().getUsed());
+        response.setHeapCommittedBytes(memory.getHeapMemoryUsage().getCommitted());
+        response.setNonHeapUsedBytes(memory.getNonHeapMemoryUsage().getUsed());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Map<String, LatencySnapshot>> snapshotLatencies() {
+        Map<String, Map<String, LatencySnapshot>> snapshots = new LinkedHashMap<>();
+        snapshots.put("transaction", transactionService.getLatencyMetrics().snapshot());
+        snapshots.put("account", accountService.getLatencyMetrics().snapshot());
+        snapshots.put("http", endpointLatencyFilter.getLatencyMetrics().snapshot());
+        return snapshots;
+    }
+
+    private LatencyResponse toResponse(LatencySnapshot snapshot) {
+        LatencyResponse response = new LatencyResponse();
+        response.setCount(snapshot.getCount());
+        response.setMeanNanos(snapshot.getMeanNanos());
+        response.setP50Nanos(snapshot.getValueAtPercentile(50.0));
+        response.setP99Nanos(snapshot.getValueAtPercentile(99.0));
+        response.setP999Nanos(snapshot.getValueAtPercentile(99.9));
+        response.setMaxNanos(snapshot.getMaxNanos());
+        return response;
+    }
+}
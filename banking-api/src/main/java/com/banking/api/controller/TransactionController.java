@@ -1,15 +1,36 @@
 package com.banking.api.controller;
 
+import com.banking.api.dto.BatchItemResponse;
+import com.banking.api.dto.BatchOperationRequest;
+import com.banking.api.dto.BatchTransactionRequest;
+import com.banking.api.dto.BatchTransactionResponse;
+import com.banking.api.dto.DeclineResponse;
+import com.banking.api.dto.PageResponse;
 import com.banking.api.dto.TransactionRequest;
 import com.banking.api.dto.TransactionResponse;
+import com.banking.api.export.ExportFormat;
+import com.banking.api.export.TransactionExportWriter;
+import com.banking.api.idempotency.IdempotentResponses;
 import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
+import com.banking.core.util.Page;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
 import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,45 +40,121 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final IdempotentResponses idempotentResponses;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ObjectMapper objectMapper,
+                                 IdempotentResponses idempotentResponses) {
         this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.idempotentResponses = idempotentResponses;
     }
 
+    /**
+     * Deposits, withdrawals and transfers accept an {@code Idempotency-Key} header: a retry
+     * with the same key and request gets the first response back, marked with
+     * {@code Idempotent-Replayed: true}, without running again.
+     */
     @PostMapping("/deposit")
-    public ResponseEntity<TransactionResponse> deposit(@RequestBody TransactionRequest request) {
-        Transaction transaction = transactionService.deposit(
-            request.getAccountId(),
-            new Money(request.getAmount(), request.getCurrency()),
-            request.getDescription()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+    public ResponseEntity<TransactionResponse> deposit(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("deposit", request), () -> {
+            Transaction transaction = transactionService.deposit(
+                request.getAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+        });
     }
 
+    /**
+     * Withdrawals and transfers that are declined respond 404 when an account does not
+     * exist and 422 when one is inactive or short of funds, naming the status and account.
+     */
     @PostMapping("/withdraw")
-    public ResponseEntity<TransactionResponse> withdraw(@RequestBody TransactionRequest request) {
-        Transaction transaction = transactionService.withdraw(
-            request.getAccountId(),
-            new Money(request.getAmount(), request.getCurrency()),
-            request.getDescription()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+    public ResponseEntity<?> withdraw(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("withdraw", request), () ->
+            toResponseEntity(transactionService.tryWithdraw(
+                request.getAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            )));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionResponse> transfer(@RequestBody TransactionRequest request) {
-        Transaction transaction = transactionService.transfer(
-            request.getFromAccountId(),
-            request.getToAccountId(),
-            new Money(request.getAmount(), request.getCurrency()),
-            request.getDescription()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+    public ResponseEntity<?> transfer(
+            @RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        return idempotentResponses.execute(idempotencyKey, IdempotentResponses.fingerprint("transfer", request), () ->
+            toResponseEntity(transactionService.tryTransfer(
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            )));
     }
 
+    /**
+     * Applies many operations in one request. Mode defaults to {@code BEST_EFFORT}.
+     * Responds 201 when every operation applied, 422 when none did and 200 otherwise,
+     * always with a result per operation in submission order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> batch(@RequestBody BatchTransactionRequest request) {
+        if (request.getOperations() == null || request.getOperations().isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one operation");
+        }
+        BatchMode mode = request.getMode() == null ? BatchMode.BEST_EFFORT : BatchMode.fromName(request.getMode());
+        List<BatchOperation> operations = new ArrayList<>(request.getOperations().size());
+        for (BatchOperationRequest operation : request.getOperations()) {
+            operations.add(toOperation(operation));
+        }
+        List<BatchItemResult> results = transactionService.executeBatch(operations, mode);
+
+        BatchTransactionResponse response = new BatchTransactionResponse();
+        response.setMode(mode.name());
+        List<BatchItemResponse> items = new ArrayList<>(results.size());
+        int applied = 0;
+        for (BatchItemResult result : results) {
+            BatchItemResponse item = new BatchItemResponse();
+            item.setIndex(result.getIndex());
+            if (result.isApplied()) {
+                applied++;
+                item.setStatus("APPLIED");
+                item.setTransaction(toResponse(result.getTransaction()));
+            } else {
+                item.setStatus("FAILED");
+                item.setError(result.getError());
+            }
+            items.add(item);
+        }
+        response.setApplied(applied);
+        response.setFailed(results.size() - applied);
+        response.setResults(items);
+
+        HttpStatus status = applied == results.size() ? HttpStatus.CREATED
+            : applied == 0 ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Lists an account's transactions newest first. With {@code limit} or {@code cursor}
+     * the response is one page plus the cursor for the next; without either it is the
+     * full history.
+     */
     @GetMapping("/account/{accountId}")
-    public ResponseEntity<List<TransactionResponse>> getTransactionsByAccount(@PathVariable String accountId) {
+    public ResponseEntity<?> getTransactionsByAccount(@PathVariable String accountId,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String cursor) {
+        if (limit != null || cursor != null) {
+            Page<Transaction> page = transactionService.getTransactions(accountId, cursor, PageLimits.resolve(limit));
+            return ResponseEntity.ok(toPageResponse(page));
+        }
         List<Transaction> transactions = transactionService.getTransactionsByAccount(accountId);
         List<TransactionResponse> responses = transactions.stream()
             .map(this::toResponse)
@@ -65,12 +162,81 @@ public class TransactionController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Streams transactions in recording order as NDJSON or CSV, optionally for one account
+     * and a {@code [from, to)} timestamp range. Rows are written while the store is iterated,
+     * so nothing is collected in memory first.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+        StreamingResponseBody body = out -> {
+            try (TransactionExportWriter writer = TransactionExportWriter.create(exportFormat, out, objectMapper.getFactory())) {
+                transactionService.forEachTransaction(accountId, from, to, writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+
     @GetMapping("/{transactionId}")
     public ResponseEntity<TransactionResponse> getTransaction(@PathVariable String transactionId) {
         Transaction transaction = transactionService.getTransaction(transactionId);
         return ResponseEntity.ok(toResponse(transaction));
     }
 
+    /**
+     * Answers an applied operation with 201 and a declined one with 404 when an account
+     * does not exist, 422 otherwise.
+     */
+    private ResponseEntity<?> toResponseEntity(TransactionResult result) {
+        if (result.isApplied()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(result.getTransaction()));
+        }
+        DeclineResponse response = new DeclineResponse();
+        response.setStatus(result.getStatus().name());
+        response.setAccountId(result.getDeclinedAccountId());
+        HttpStatus status = result.getStatus() == OperationStatus.ACCOUNT_NOT_FOUND
+            ? HttpStatus.NOT_FOUND : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private BatchOperation toOperation(BatchOperationRequest request) {
+        Money amount = new Money(request.getAmount(), request.getCurrency());
+        String type = request.getType() == null ? "" : request.getType();
+        switch (type) {
+            case "DEPOSIT":
+                return BatchOperation.deposit(request.getAccountId(), amount, request.getDescription());
+            case "WITHDRAW":
+            case "WITHDRAWAL":
+                return BatchOperation.withdraw(request.getAccountId(), amount, request.getDescription());
+            case "TRANSFER":
+                return BatchOperation.transfer(request.getFromAccountId(), request.getToAccountId(), amount,
+                    request.getDescription());
+            default:
+                throw new IllegalArgumentException("Unknown operation type: " + request.getType());
+        }
+    }
+
+    private PageResponse<TransactionResponse> toPageResponse(Page<Transaction> page) {
+        PageResponse<TransactionResponse> response = new PageResponse<>();
+        response.setItems(page.getItems().stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList()));
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
+
     private TransactionResponse toResponse(Transaction transaction) {
         TransactionResponse response = new TransactionResponse();
         response.setTransactionId(transaction.getTransactionId());
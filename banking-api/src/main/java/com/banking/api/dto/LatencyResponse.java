@@ -0,0 +1,58 @@
+package com.banking.api.dto;
+
+public class LatencyResponse {
+    private long count;
+    private long meanNanos;
+    private long p50Nanos;
+    private long p99Nanos;
+    private long p999Nanos;
+    private long maxNanos;
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public void setMeanNanos(long meanNanos) {
+        this.meanNanos = meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public void setP50Nanos(long p50Nanos) {
+        this.p50Nanos = p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public void setP99Nanos(long p99Nanos) {
+        this.p99Nanos = p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public void setP999Nanos(long p999Nanos) {
+        this.p999Nanos = p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public void setMaxNanos(long maxNanos) {
+        this.maxNanos = maxNanos;
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking.api.dto;
+
+public class TransferMetricsResponse {
+    private long singleStepTransfers;
+    private long crossShardTransfers;
+    private long refundedTransfers;
+    private long meanCrossShardMicros;
+
+    public long getSingleStepTransfers() {
+        return singleStepTransfers;
+    }
+
+    public void setSingleStepTransfers(long singleStepTransfers) {
+        this.singleStepTransfers = singleStepTransfers;
+    }
+
+    public long getCrossShardTransfers() {
+        return crossShardTransfers;
+    }
+
+    public void setCrossShardTransfers(long crossShardTransfers) {
+        this.crossShardTransfers = crossShardTransfers;
+    }
+
+    public long getRefundedTransfers() {
+        return refundedTransfers;
+    }
+
+    public void setRefundedTransfers(long refundedTransfers) {
+        this.refundedTransfers = refundedTransfers;
+    }
+
+    public long getMeanCrossShardMicros() {
+        return meanCrossShardMicros;
+    }
+
+    public void setMeanCrossShardMicros(long meanCrossShardMicros) {
+        this.meanCrossShardMicros = meanCrossShardMicros;
+    }
+}
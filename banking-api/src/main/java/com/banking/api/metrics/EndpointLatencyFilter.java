@@ -0,0 +1,56 @@
+package com.banking.api.metrics;
+
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.LatencyMetrics;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every request handled by a controller method, from the filter chain to the
+ * handler's return, into a histogram named after the method's mapping, such as
+ * {@code POST /api/transactions/deposit}. Histograms are found by the handler's
+ * {@link Method}, so after an endpoint's first request timing it costs one map lookup.
+ * Streamed responses are timed until the handler returns, not until the last byte.
+ */
+public class EndpointLatencyFilter extends OncePerRequestFilter {
+    private final LatencyMetrics latencyMetrics = new LatencyMetrics();
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod) {
+                histogramFor((HandlerMethod) handler, request).recordSince(start);
+            }
+        }
+    }
+
+    private LatencyHistogram histogramFor(HandlerMethod handler, HttpServletRequest request) {
+        LatencyHistogram histogram = histograms.get(handler.getMethod());
+        if (histogram == null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            histogram = histograms.computeIfAbsent(handler.getMethod(), method -> latencyMetrics.histogram(endpoint));
+        }
+        return histogram;
+    }
+}
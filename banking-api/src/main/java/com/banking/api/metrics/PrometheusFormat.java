@@ -0,0 +1,63 @@
+package com.banking.api.metrics;
+
+import com.banking.core.metrics.LatencySnapshot;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes latency snapshots in the Prometheus text exposition format: a
+ * {@code banking_latency_seconds} summary with the 0.5, 0.99 and 0.999 quantiles, sum
+ * and count per component and operation, and a {@code banking_latency_max_seconds}
+ * gauge. Throughput is left to Prometheus, as the rate of the count.
+ */
+public final class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private PrometheusFormat() {
+    }
+
+    /**
+     * Formats snapshots keyed by component, then by operation.
+     */
+    public static String write(Map<String, Map<String, LatencySnapshot>> components) {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP banking_latency_seconds Latency of banking operations and endpoints.\n");
+        out.append("# TYPE banking_latency_seconds summary\n");
+        components.forEach((component, operations) -> operations.forEach((operation, snapshot) -> {
+            String labels = "component=\"" + escape(component) + "\",operation=\"" + escape(operation) + "\"";
+            for (double quantile : QUANTILES) {
+                sample(out, "banking_latency_seconds", labels + ",quantile=\"" + quantile + "\"",
+                    seconds(snapshot.getValueAtPercentile(quantile * 100.0)));
+            }
+            sample(out, "banking_latency_seconds_sum", labels, seconds(snapshot.getTotalNanos()));
+            sample(out, "banking_latency_seconds_count", labels, snapshot.getCount());
+        }));
+        out.append("# HELP banking_latency_max_seconds Highest latency recorded.\n");
+        out.append("# TYPE banking_latency_max_seconds gauge\n");
+        components.forEach((component, operations) -> operations.forEach((operation, snapshot) ->
+            sample(out, "banking_latency_max_seconds",
+                "component=\"" + escape(component) + "\",operation=\"" + escape(operation) + "\"",
+                seconds(snapshot.getMaxNanos()))));
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -127,7 +127,7 @@ async function apiCall(endpoint, method = 'GET', body = null) {
             let errorMessage = `HTTP error! status: ${response.status}`;
             try {
                 const errorJson = JSON.parse(errorText);
-                errorMessage = errorJson.message || errorText;
+                errorMessage = errorJson.error || errorJson.message || errorText;
             } catch {
                 errorMessage = errorText || errorMessage;
             }
@@ -148,9 +148,10 @@ function formatCurrency(amount, currency = 'USD') {
     }).format(amount);
 }
 
-// Format account ID (short version)
+// Format account ID: 13-character snowflakes by default, or UUIDs that already carry
+// their dashes, so ids are shown as they are
 function formatAccountId(accountId) {
-    return accountId ? `${accountId.substring(0, 4)}-${accountId.substring(4, 8)}-${accountId.substring(8, 12)}-${accountId.substring(12, 16)}` : '';
+    return accountId || '';
 }
 
 // Populate account dropdowns
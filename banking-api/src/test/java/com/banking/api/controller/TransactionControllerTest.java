@@ -0,0 +1,146 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.AccountCreateRequest;
+import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.BatchOperationRequest;
+import com.banking.api.dto.BatchTransactionRequest;
+import com.banking.api.dto.BatchTransactionResponse;
+import com.banking.api.dto.ErrorResponse;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TransactionControllerTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void testLowerCaseCurrencyIsAccepted() {
+        String accountId = createAccount(0.0);
+        TransactionRequest request = deposit(accountId, 5.0);
+        request.setCurrency("usd");
+
+        ResponseEntity<TransactionResponse> response =
+            rest.postForEntity("/api/transactions/deposit", request, TransactionResponse.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("USD", response.getBody().getCurrency());
+    }
+
+    @Test
+    void testInputTheServicesRejectIsABadRequest() {
+        String accountId = createAccount(0.0);
+
+        TransactionRequest unknownCurrency = deposit(accountId, 5.0);
+        unknownCurrency.setCurrency("XYZ");
+        assertBadRequest(rest.postForEntity("/api/transactions/deposit", unknownCurrency, ErrorResponse.class),
+            "Unknown currency: XYZ");
+
+        assertBadRequest(rest.postForEntity("/api/transactions/deposit", deposit(accountId, 0.001), ErrorResponse.class),
+            "cannot be represented");
+
+        assertBadRequest(rest.getForEntity("/api/transactions/account/{id}?cursor=bogus", ErrorResponse.class, accountId),
+            "Invalid cursor");
+
+        BatchTransactionRequest batch = new BatchTransactionRequest();
+        batch.setMode("Unknown batch mode: SOMETIMES");
+        batch.setOperations(List.of(operation("DEPOSIT", accountId, 5.0)));
+        assertBadRequest(rest.postForEntity("/api/transactions/batch", batch, ErrorResponse.class), "Unknown batch mode: SOMETIMES");
+
+        assertEquals(0.0, rest.getForObject("/api/accounts/{id}", AccountResponse.class, accountId).getBalance());
+    }
+
+    @Test
+    void testBatchStatusSaysHowManyOperationsApplied() {
+        String accountId = createAccount(10.0);
+
+        ResponseEntity<BatchTransactionResponse> all = batch(null,
+            operation("DEPOSIT", accountId, 5.0), operation("WITHDRAW", accountId, 3.0));
+        assertEquals(HttpStatus.CREATED, all.getStatusCode());
+        assertEquals("BEST_EFFORT", all.getBody().getMode());
+        assertEquals(2, all.getBody().getApplied());
+
+        ResponseEntity<BatchTransactionResponse> some = batch("best_effort",
+            operation("DEPOSIT", accountId, 1.0), operation("WITHDRAW", accountId, 100.0));
+        assertEquals(HttpStatus.OK, some.getStatusCode());
+        assertEquals(1, some.getBody().getApplied());
+        assertEquals("APPLIED", some.getBody().getResults().get(0).getStatus());
+        assertEquals("FAILED", some.getBody().getResults().get(1).getStatus());
+
+        ResponseEntity<BatchTransactionResponse> none = batch(null, operation("WITHDRAW", accountId, 100.0));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, none.getStatusCode());
+        assertEquals(0, none.getBody().getApplied());
+
+        assertEquals(13.0, rest.getForObject("/api/accounts/{id}", AccountResponse.class, accountId).getBalance());
+    }
+
+    @Test
+    void testAllOrNothingBatchRollsBackEveryOperation() {
+        String from = createAccount(10.0);
+        String to = createAccount(0.0);
+        BatchOperationRequest transfer = operation("TRANSFER", null, 4.0);
+        transfer.setFromAccountId(from);
+        transfer.setToAccountId(to);
+
+        ResponseEntity<BatchTransactionResponse> response = batch("ALL_OR_NOTHING",
+            transfer, operation("DEPOSIT", to, 1.0), operation("WITHDRAW", from, 50.0));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(0, response.getBody().getApplied());
+        assertEquals(3, response.getBody().getFailed());
+
+        assertEquals(10.0, rest.getForObject("/api/accounts/{id}", AccountResponse.class, from).getBalance());
+        assertEquals(0.0, rest.getForObject("/api/accounts/{id}", AccountResponse.class, to).getBalance());
+        assertEquals(0, rest.getForObject("/api/transactions/account/{id}", List.class, to).size());
+    }
+
+    private static void assertBadRequest(ResponseEntity<ErrorResponse> response, String message) {
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().getError().contains(message), response.getBody().getError());
+    }
+
+    private String createAccount(double initialBalance) {
+        AccountCreateRequest request = new AccountCreateRequest();
+        request.setCustomerId("CUST001");
+        request.setAccountType("CHECKING");
+        request.setInitialBalance(initialBalance);
+        request.setCurrency("USD");
+        ResponseEntity<AccountResponse> response = rest.postForEntity("/api/accounts", request, AccountResponse.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return response.getBody().getAccountId();
+    }
+
+    private ResponseEntity<BatchTransactionResponse> batch(String mode, BatchOperationRequest... operations) {
+        BatchTransactionRequest request = new BatchTransactionRequest();
+        request.setMode(mode);
+        request.setOperations(List.of(operations));
+        return rest.postForEntity("/api/transactions/batch", request, BatchTransactionResponse.class);
+    }
+
+    private static BatchOperationRequest operation(String type, String accountId, double amount) {
+        BatchOperationRequest request = new BatchOperationRequest();
+        request.setType(type);
+        request.setAccountId(accountId);
+        request.setAmount(amount);
+        request.setCurrency("USD");
+        return request;
+    }
+
+    private static TransactionRequest deposit(String accountId, double amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountId(accountId);
+        request.setAmount(amount);
+        request.setCurrency("USD");
+        request.setDescription("test");
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.offheap.OffHeapAccountTable;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single balance change on {@link Account}, through the {@link Money} API and
+ * directly in minor units. Each thread works on its own account, as the account locks
+ * guarantee in the services, so this measures the domain object alone. {@code offheap}
+ * runs the same operations on an account whose state lives in an {@link OffHeapAccountTable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+
+    @Param({"heap", "offheap"})
+    private String storage;
+
+    private Account account;
+    private Money amount;
+    private long amountMinorUnits;
+
+    @Setup
+    public void setUp() {
+        account = new Account("CUST1", AccountType.CHECKING, new Money(1_000_000.00, "USD"));
+        if ("offheap".equals(storage)) {
+            account = new Account(account, 0, new OffHeapAccountTable(1));
+        }
+        amount = new Money(12.34, "USD");
+        amountMinorUnits = amount.toMinorUnits();
+    }
+
+    /**
+     * A deposit followed by a withdrawal of the same amount, so the balance stays level.
+     */
+    @Benchmark
+    public long depositWithdraw() {
+        account.deposit(amount);
+        account.withdraw(amount);
+        return account.getBalanceMinorUnits();
+    }
+
+    @Benchmark
+    public long depositWithdrawMinorUnits() {
+        account.depositMinorUnits(amountMinorUnits);
+        account.withdrawMinorUnits(amountMinorUnits);
+        return account.getBalanceMinorUnits();
+    }
+
+    @Benchmark
+    public Money getBalance() {
+        return account.getBalance();
+    }
+}
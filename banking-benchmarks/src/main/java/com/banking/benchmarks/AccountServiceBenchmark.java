@@ -0,0 +1,105 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency in {@link AccountService}: by account id, and by customer with the
+ * customer index against a full scan over every account as the service did before the
+ * index existed. Id lookups also run on eight threads to show reads never contend, and
+ * against lookups by registry handle, which index an array without hashing the id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AccountServiceBenchmark {
+
+    private static final int ACCOUNTS_PER_CUSTOMER = 4;
+
+    @Param({"10000", "1000000"})
+    private int accounts;
+
+    private AccountService accountService;
+    private List<Account> allAccounts;
+    private int customers;
+
+    @Setup
+    public void setUp() {
+        accountService = new AccountService();
+        customers = accounts / ACCOUNTS_PER_CUSTOMER;
+        Money openingBalance = new Money(100.0, "USD");
+        for (int i = 0; i < accounts; i++) {
+            accountService.createAccount(customerId(i % customers), AccountType.CHECKING, openingBalance);
+        }
+        allAccounts = accountService.getAllAccounts();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account getAccount() {
+        return accountService.getAccount(randomAccountId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Account getAccountConcurrent() {
+        return accountService.getAccount(randomAccountId());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account getAccountByHandle() {
+        return accountService.getAccount(ThreadLocalRandom.current().nextInt(accounts));
+    }
+
+    @Benchmark
+    public List<Account> getAccountsByCustomerIndexed() {
+        return accountService.getAccountsByCustomer(randomCustomer());
+    }
+
+    @Benchmark
+    public List<Account> getAccountsByCustomerFullScan() {
+        String customerId = randomCustomer();
+        List<Account> result = new ArrayList<>();
+        for (Account account : allAccounts) {
+            if (account.getCustomerId().equals(customerId)) {
+                result.add(account);
+            }
+        }
+        return result;
+    }
+
+    private String randomAccountId() {
+        return allAccounts.get(ThreadLocalRandom.current().nextInt(allAccounts.size())).getAccountId();
+    }
+
+    private String randomCustomer() {
+        return customerId(ThreadLocalRandom.current().nextInt(customers));
+    }
+
+    private static String customerId(int index) {
+        return "CUST" + index;
+    }
+}
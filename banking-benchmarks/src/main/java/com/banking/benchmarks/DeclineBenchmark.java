@@ -0,0 +1,76 @@
+package com.banking.benchmarks;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.transaction.domain.TransactionResult;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a declined withdrawal: {@link TransactionService#withdraw} throwing
+ * {@link InsufficientFundsException} with its stack trace and formatted message, against
+ * {@link TransactionService#tryWithdraw} returning a declined result, and a missing
+ * account through both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeclineBenchmark {
+
+    private TransactionService transactionService;
+    private String accountId;
+    private final Money amount = new Money(100.00, "USD");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        accountId = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(1.00, "USD"))
+            .getAccountId();
+    }
+
+    @Benchmark
+    public Object shortfallThrown() {
+        try {
+            return transactionService.withdraw(accountId, amount, "benchmark");
+        } catch (InsufficientFundsException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TransactionResult shortfallResult() {
+        return transactionService.tryWithdraw(accountId, amount, "benchmark");
+    }
+
+    @Benchmark
+    public Object missingThrown() {
+        try {
+            return transactionService.withdraw("NON_EXISTENT", amount, "benchmark");
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TransactionResult missingResult() {
+        return transactionService.tryWithdraw("NON_EXISTENT", amount, "benchmark");
+    }
+}
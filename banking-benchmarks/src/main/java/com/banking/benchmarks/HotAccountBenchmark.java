@@ -0,0 +1,91 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits from 1, 8 and 64 threads into one account, plain ({@code hot=false}) against
+ * split into credit cells ({@code hot=true}). The {@code account} methods credit the
+ * {@link Account} directly, isolating the balance; the {@code service} methods go through
+ * {@link TransactionService}, which also records every deposit in the account's history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class HotAccountBenchmark {
+
+    @Param({"false", "true"})
+    private boolean hot;
+
+    private TransactionService transactionService;
+    private Account account;
+    private final Money amount = new Money(1.00, "USD");
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        account = accountService.createAccount("MERCHANT", AccountType.CHECKING, new Money(0.00, "USD"));
+        if (hot) {
+            accountService.makeHot(account.getAccountId());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void account1() {
+        account.depositMinorUnits(100);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void account8() {
+        account.depositMinorUnits(100);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void account64() {
+        account.depositMinorUnits(100);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction service1() {
+        return transactionService.deposit(account.getAccountId(), amount, "sale");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction service8() {
+        return transactionService.deposit(account.getAccountId(), amount, "sale");
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Transaction service64() {
+        return transactionService.deposit(account.getAccountId(), amount, "sale");
+    }
+}
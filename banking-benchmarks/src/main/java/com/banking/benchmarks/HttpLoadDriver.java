@@ -0,0 +1,167 @@
+package com.banking.benchmarks;
+
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.LatencySnapshot;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running banking-api or banking-api-reactive: keeps
+ * {@code connections} requests in flight for the run, each connection sending its next
+ * request as soon as the previous one completes, and samples the server's
+ * {@code /api/admin/runtime} for peak heap and platform threads. The requests are
+ * deposits, or balance reads with the {@code balance} operation. Used to compare Tomcat's
+ * platform-thread pool with {@code banking.threads.virtual=true} and with the WebFlux
+ * server; not a JMH benchmark, since the work is in another process.
+ * <pre>
+ * java -cp target/benchmarks.jar com.banking.benchmarks.HttpLoadDriver http://localhost:8080 10000 30 deposit
+ * </pre>
+ * The client needs a file descriptor per connection; raise {@code ulimit -n} on both
+ * sides, and Tomcat's {@code server.tomcat.max-connections} above the connection count.
+ */
+public final class HttpLoadDriver {
+    private static final int ACCOUNTS = 100;
+    private static final Pattern ACCOUNT_ID = Pattern.compile("\"accountId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern HEAP_USED = Pattern.compile("\"heapUsedBytes\"\\s*:\\s*(\\d+)");
+    private static final Pattern PLATFORM_THREADS = Pattern.compile("\"platformThreads\"\\s*:\\s*(\\d+)");
+
+    private final URI baseUri;
+    private final int connections;
+    private final boolean reads;
+    private final HttpClient client;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicLong peakPlatformThreads = new AtomicLong();
+
+    private HttpLoadDriver(URI baseUri, int connections, boolean reads) {
+        this.baseUri = baseUri;
+        this.connections = connections;
+        this.reads = reads;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String operation = args.length > 3 ? args[3] : "deposit";
+        if (!"deposit".equals(operation) && !"balance".equals(operation)) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        new HttpLoadDriver(baseUri, connections, "balance".equals(operation)).run(Duration.ofSeconds(seconds));
+    }
+
+    private void run(Duration duration) throws Exception {
+        List<String> accountIds = openAccounts();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sampleRuntime, 0, 500, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            send(accountIds, deadline, finished);
+        }
+        finished.await(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+        sampleRuntime();
+
+        LatencySnapshot snapshot = latencies.snapshot();
+        System.out.printf("operation=%s connections=%d requests=%d errors=%d requests/s=%.0f%n",
+            reads ? "balance" : "deposit", connections,
+            snapshot.getCount(), errors.get(), snapshot.getCount() * 1e9 / elapsed);
+        System.out.printf("latency ms: p50=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+            snapshot.getValueAtPercentile(50.0) / 1e6, snapshot.getValueAtPercentile(99.0) / 1e6,
+            snapshot.getValueAtPercentile(99.9) / 1e6, snapshot.getMaxNanos() / 1e6);
+        System.out.printf("server: peak heap used=%d MB peak platform threads=%d%n",
+            peakHeapBytes.get() >> 20, peakPlatformThreads.get());
+    }
+
+    private List<String> openAccounts() throws Exception {
+        List<String> accountIds = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            HttpResponse<String> response = client.send(post("/api/accounts",
+                "{\"customerId\":\"LOAD" + i + "\",\"accountType\":\"CHECKING\",\"initialBalance\":0,\"currency\":\"USD\"}"),
+                HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ACCOUNT_ID.matcher(response.body());
+            if (response.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Cannot open account: " + response.statusCode() + " " + response.body());
+            }
+            accountIds.add(matcher.group(1));
+        }
+        return accountIds;
+    }
+
+    /**
+     * Sends one request and, once it completes, the next, until the deadline passes.
+     */
+    private void send(List<String> accountIds, long deadline, CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        String accountId = accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size()));
+        HttpRequest request = reads
+            ? HttpRequest.newBuilder(baseUri.resolve("/api/accounts/" + accountId + "/balance"))
+                .timeout(Duration.ofSeconds(60)).GET().build()
+            : post("/api/transactions/deposit",
+                "{\"accountId\":\"" + accountId + "\",\"amount\":1.00,\"currency\":\"USD\",\"description\":\"load\"}");
+        int expected = reads ? 200 : 201;
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, failure) -> {
+                latencies.recordSince(start);
+                if (failure != null || response.statusCode() != expected) {
+                    errors.incrementAndGet();
+                }
+                send(accountIds, deadline, finished);
+            });
+    }
+
+    private void sampleRuntime() {
+        try {
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(baseUri.resolve("/api/admin/runtime")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            peakHeapBytes.accumulateAndGet(extract(HEAP_USED, response.body()), Math::max);
+            peakPlatformThreads.accumulateAndGet(extract(PLATFORM_THREADS, response.body()), Math::max);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Sampling is best effort; a saturated server may not answer in time
+        }
+    }
+
+    private static long extract(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+}
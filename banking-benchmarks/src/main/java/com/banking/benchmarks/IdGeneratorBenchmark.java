@@ -0,0 +1,54 @@
+package com.banking.benchmarks;
+
+import com.banking.core.id.IdGenerator;
+import com.banking.core.id.SnowflakeIdGenerator;
+import com.banking.core.id.UuidIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id minting throughput of random UUIDs against time-ordered snowflake ids, on one
+ * thread and on eight threads sharing a generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Param({"uuid", "snowflake"})
+    private String generatorType;
+
+    private IdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = "uuid".equals(generatorType) ? new UuidIdGenerator() : new SnowflakeIdGenerator(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextIdConcurrent() {
+        return generator.nextId();
+    }
+}
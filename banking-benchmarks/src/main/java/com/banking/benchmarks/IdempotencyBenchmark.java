@@ -0,0 +1,84 @@
+package com.banking.benchmarks;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.util.ExpiringCache;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost the idempotency cache adds to a deposit: a plain deposit, a deposit under a key
+ * seen for the first time (the cache is kept full, so each one also evicts), and a
+ * retry of a key already answered, which returns the remembered transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(4)
+public class IdempotencyBenchmark {
+    private static final int CAPACITY = 100_000;
+
+    private TransactionService transactionService;
+    private ExpiringCache<String, Transaction> cache;
+    private String[] accountIds;
+    private final AtomicLong keys = new AtomicLong();
+    private final Money amount = new Money(1.00, "USD");
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        accountIds = new String[1_000];
+        for (int i = 0; i < accountIds.length; i++) {
+            accountIds[i] = accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(0.00, "USD"))
+                .getAccountId();
+        }
+        cache = new ExpiringCache<>(CAPACITY, Duration.ofHours(24));
+        for (int i = 0; i < CAPACITY; i++) {
+            cache.getOrCompute("key-" + keys.incrementAndGet(), () -> null);
+        }
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return transactionService.deposit(randomAccount(), amount, "benchmark");
+    }
+
+    @Benchmark
+    public Transaction depositWithNewKey() {
+        String accountId = randomAccount();
+        return cache.getOrCompute("key-" + keys.incrementAndGet(),
+            () -> transactionService.deposit(accountId, amount, "benchmark"));
+    }
+
+    @Benchmark
+    public Transaction retry() {
+        return cache.getOrCompute("key-" + (keys.get() - ThreadLocalRandom.current().nextInt(CAPACITY / 2)),
+            () -> transactionService.deposit(randomAccount(), amount, "benchmark"));
+    }
+
+    private String randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+    }
+}
@@ -0,0 +1,110 @@
+package com.banking.benchmarks;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Journaled deposit throughput against the group-commit batch size. Each benchmark
+ * thread deposits into its own account, so throughput is bounded by how many records
+ * share one fsync rather than by account locking. {@code journaledBatchDeposit} submits
+ * the same deposits through {@link TransactionService#executeBatch}, which takes the
+ * lock and waits for the journal once per batch; its score is per deposit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class JournalBenchmark {
+
+    @Param({"1", "8", "64", "256"})
+    private int batchSize;
+
+    @Param({"0", "200"})
+    private long flushIntervalMicros;
+
+    private static final int BATCH_OPERATIONS = 100;
+
+    private Path directory;
+    private TransactionJournal journal;
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private final AtomicInteger nextAccount = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new TransactionJournal(directory, batchSize,
+            Duration.ofNanos(flushIntervalMicros * 1_000));
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService, journal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Benchmarks.deleteRecursively(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        String accountId;
+        final Money amount = new Money(1.0, "USD");
+        List<BatchOperation> batch;
+
+        @Setup(Level.Trial)
+        public void setUp(JournalBenchmark benchmark) {
+            accountId = benchmark.accountService.createAccount(
+                "CUST" + benchmark.nextAccount.incrementAndGet(), AccountType.CHECKING, new Money(0.0, "USD"))
+                .getAccountId();
+            batch = new ArrayList<>(BATCH_OPERATIONS);
+            for (int i = 0; i < BATCH_OPERATIONS; i++) {
+                batch.add(BatchOperation.deposit(accountId, amount, "benchmark"));
+            }
+        }
+    }
+
+    @Benchmark
+    public Transaction journaledDeposit(ThreadAccount account) {
+        return transactionService.deposit(account.accountId, account.amount, "benchmark");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_OPERATIONS)
+    public List<BatchItemResult> journaledBatchDeposit(ThreadAccount account) {
+        return transactionService.executeBatch(account.batch, BatchMode.BEST_EFFORT);
+    }
+}
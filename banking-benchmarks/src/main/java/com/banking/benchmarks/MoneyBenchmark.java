@@ -0,0 +1,100 @@
+package com.banking.benchmarks;
+
+import com.banking.core.domain.MinorUnits;
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Money} arithmetic against the scaled-long representation used by
+ * {@code Account} for chains of add/subtract/compare, as done on the deposit and
+ * withdraw paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"16"})
+    private int chainLength;
+
+    private Money balance;
+    private Money[] amounts;
+    private long balanceMinorUnits;
+    private long[] amountsMinorUnits;
+
+    @Setup
+    public void setUp() {
+        balance = new Money(1_000_000.00, "USD");
+        balanceMinorUnits = balance.toMinorUnits();
+        amounts = new Money[chainLength];
+        amountsMinorUnits = new long[chainLength];
+        for (int i = 0; i < chainLength; i++) {
+            amounts[i] = new Money(10.25 + i, "USD");
+            amountsMinorUnits[i] = amounts[i].toMinorUnits();
+        }
+    }
+
+    @Benchmark
+    public Money moneyAddChain() {
+        Money result = balance;
+        for (Money amount : amounts) {
+            result = result.add(amount);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long minorUnitsAddChain() {
+        long result = balanceMinorUnits;
+        for (long amount : amountsMinorUnits) {
+            result = Math.addExact(result, amount);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Money moneyCheckedWithdrawChain() {
+        Money result = balance;
+        for (Money amount : amounts) {
+            if (!result.isLessThan(amount)) {
+                result = result.subtract(amount);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long minorUnitsCheckedWithdrawChain() {
+        long result = balanceMinorUnits;
+        for (long amount : amountsMinorUnits) {
+            if (result >= amount) {
+                result -= amount;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Money minorUnitsChainWithEdgeConversion() {
+        long result = balance.toMinorUnits();
+        for (long amount : amountsMinorUnits) {
+            result = Math.addExact(result, amount);
+        }
+        return new Money(MinorUnits.toBigDecimal(result, 2), "USD");
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.benchmarks;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on a single account: {@link TransactionService} deposits and withdrawals
+ * under the account lock ({@code updates=locks}) against compare-and-set updates with
+ * bounded retry ({@code updates=optimistic}), at 1, 8 and 64 threads all hitting the
+ * same account. The {@code readMostly} group pairs one writer with seven threads reading
+ * the balance, which never takes the lock in either mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class OptimisticUpdateBenchmark {
+
+    @Param({"locks", "optimistic"})
+    private String updates;
+
+    @Param({"8"})
+    private int attempts;
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private String accountId;
+    private final Money amount = new Money(1.00, "USD");
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        accountService = new AccountService(new AccountLocks());
+        transactionService = new TransactionService(accountService, null, new InMemoryTransactionStore(),
+            "optimistic".equals(updates) ? attempts : 0);
+        accountId = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(1_000_000_000.00, "USD"))
+            .getAccountId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction update1(Turn turn) {
+        return update(turn);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction update8(Turn turn) {
+        return update(turn);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Transaction update64(Turn turn) {
+        return update(turn);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public Money read() {
+        return accountService.getBalance(accountId);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Transaction write(Turn turn) {
+        return update(turn);
+    }
+
+    /**
+     * Alternates deposits and withdrawals per thread, so the balance stays level.
+     */
+    private Transaction update(Turn turn) {
+        turn.deposit = !turn.deposit;
+        return turn.deposit
+            ? transactionService.deposit(accountId, amount, "benchmark")
+            : transactionService.withdraw(accountId, amount, "benchmark");
+    }
+
+    @State(Scope.Thread)
+    public static class Turn {
+        private boolean deposit;
+    }
+}
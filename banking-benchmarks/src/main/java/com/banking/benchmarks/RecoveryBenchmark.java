@@ -0,0 +1,105 @@
+package com.banking.benchmarks;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.persistence.LedgerPersistence;
+import com.banking.transaction.persistence.SnapshotStore;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart time: recovering the ledger from journal replay alone, against loading a
+ * snapshot and replaying only the tail written after it. The defaults keep a run short;
+ * the production-sized case is {@code -p accounts=10000000 -p transactions=100000000}
+ * with a correspondingly larger heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RecoveryBenchmark {
+
+    @Param({"100000"})
+    private int accounts;
+
+    @Param({"1000000"})
+    private int transactions;
+
+    /** Percentage of transactions written after the snapshot; 100 means no snapshot. */
+    @Param({"100", "1"})
+    private int tailPercent;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        Money opening = new Money(1_000.0, "USD");
+        Money amount = new Money(1.0, "USD");
+        int snapshotAt = (int) ((long) transactions * (100 - tailPercent) / 100);
+
+        // Populate in memory and append straight to the journal, waiting for durability once
+        AccountService accountService = new AccountService();
+        String[] ids = new String[accounts];
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"))) {
+            for (int i = 0; i < accounts; i++) {
+                Account account = accountService.createAccount("CUST" + i, AccountType.CHECKING, opening);
+                ids[i] = account.getAccountId();
+                if (snapshotAt == 0) {
+                    journal.appendAccountOpened(account);
+                }
+            }
+            long sequence = 0;
+            for (int i = 0; i < transactions; i++) {
+                if (i == snapshotAt && snapshotAt > 0) {
+                    new SnapshotStore(directory.resolve("snapshots")).write(journal.roll(), accountService);
+                }
+                Transaction transaction = new Transaction(ids[i % accounts], TransactionType.DEPOSIT, amount, "load");
+                accountService.getAccount(transaction.getAccountId()).deposit(amount);
+                sequence = journal.append(transaction);
+            }
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public AccountService recover() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"))) {
+            AccountService accountService = new AccountService(new AccountLocks(), journal);
+            TransactionService transactionService = new TransactionService(accountService, journal);
+            new LedgerPersistence(new SnapshotStore(directory.resolve("snapshots")), journal,
+                accountService, transactionService).recover();
+            return accountService;
+        }
+    }
+}
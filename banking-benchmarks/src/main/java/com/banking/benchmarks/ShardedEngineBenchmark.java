@@ -0,0 +1,132 @@
+package com.banking.benchmarks;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.engine.ShardedAccountLocks;
+import com.banking.transaction.engine.ShardedLedgerEngine;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit and transfer throughput of {@link TransactionService} on striped locks
+ * ({@code engine=locks}) against the same service on a {@link ShardedLedgerEngine}
+ * ({@code engine=sharded}), from 1 to 32 request threads. {@code shards} is the number
+ * of shard threads in sharded mode. Transfers pick random account pairs, so with more
+ * shards a growing share of them spans two shards. Other thread counts can be measured
+ * with the launcher's {@code -t} option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ShardedEngineBenchmark {
+
+    @Param({"locks", "sharded"})
+    private String engine;
+
+    @Param({"4", "16"})
+    private int shards;
+
+    @Param({"100000"})
+    private int accounts;
+
+    private ShardedLedgerEngine ledgerEngine;
+    private TransactionService transactionService;
+    private String[] accountIds;
+    private final Money amount = new Money(1.00, "USD");
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountLocks locks = new AccountLocks();
+        if ("sharded".equals(engine)) {
+            ledgerEngine = new ShardedLedgerEngine(shards);
+            locks = new ShardedAccountLocks(ledgerEngine);
+        }
+        AccountService accountService = new AccountService(locks);
+        transactionService = new TransactionService(accountService);
+        accountIds = new String[accounts];
+        Money opening = new Money(1_000_000_000.00, "USD");
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = accountService.createAccount("CUST" + i, AccountType.CHECKING, opening).getAccountId();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (ledgerEngine != null) {
+            ledgerEngine.close();
+            ledgerEngine = null;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction deposit1() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction deposit8() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Transaction deposit32() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction transfer1() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction transfer8() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Transaction transfer32() {
+        return transfer();
+    }
+
+    private Transaction deposit() {
+        return transactionService.deposit(accountIds[ThreadLocalRandom.current().nextInt(accounts)], amount, "benchmark");
+    }
+
+    private Transaction transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = random.nextInt(accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+        return transactionService.transfer(accountIds[from], accountIds[to], amount, "benchmark");
+    }
+}
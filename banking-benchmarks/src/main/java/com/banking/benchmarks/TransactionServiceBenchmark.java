@@ -0,0 +1,132 @@
+package com.banking.benchmarks;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory {@link TransactionService} throughput for deposits, transfers and history
+ * reads, single-threaded and with eight threads, across account counts and history
+ * lengths. Transfers pick random account pairs, so contention falls as the number of
+ * accounts grows. The service keeps every transaction, so state is rebuilt before each
+ * iteration to bound heap growth; {@code historyLength} is the history length each
+ * iteration starts from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TransactionServiceBenchmark {
+
+    private static final int THREADS = 8;
+
+    @Param({"1000", "100000"})
+    private int accounts;
+
+    @Param({"10", "1000"})
+    private int historyLength;
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private String[] accountIds;
+    private final Money amount = new Money(1.00, "USD");
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        accountIds = new String[accounts];
+        Money opening = new Money(1_000_000_000.00, "USD");
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = accountService.createAccount("CUST" + i, AccountType.CHECKING, opening).getAccountId();
+        }
+        // Seed history on a bounded number of accounts so large datasets stay within heap
+        int seeded = Math.min(accounts, 1000);
+        for (int i = 0; i < seeded; i++) {
+            for (int j = 0; j < historyLength; j++) {
+                transactionService.deposit(accountIds[i], amount, "seed");
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction deposit() {
+        return transactionService.deposit(randomAccount(), amount, "benchmark");
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Transaction depositConcurrent() {
+        return transactionService.deposit(randomAccount(), amount, "benchmark");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction transfer() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Transaction transferConcurrent() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> getTransactionsByAccount() {
+        return transactionService.getTransactionsByAccount(randomSeededAccount());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public List<Transaction> getTransactionsByAccountConcurrent() {
+        return transactionService.getTransactionsByAccount(randomSeededAccount());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> getRecentTransactions() {
+        return transactionService.getRecentTransactions(randomSeededAccount(), 20);
+    }
+
+    private Transaction randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = random.nextInt(accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+        return transactionService.transfer(accountIds[from], accountIds[to], amount, "benchmark");
+    }
+
+    private String randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(accounts)];
+    }
+
+    private String randomSeededAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(Math.min(accounts, 1000))];
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.benchmarks;
+
+import com.banking.account.registry.AccountRegistry;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.store.ColumnarTransactionStore;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import com.banking.transaction.store.TransactionStore;
+
+import java.util.function.Function;
+
+/**
+ * Measures retained heap per transaction for each {@link TransactionStore} by filling a
+ * store and comparing used heap after full collections. Not a JMH benchmark; run with
+ * {@code java -cp benchmarks.jar com.banking.benchmarks.TransactionStoreFootprint [transactions] [accounts]}
+ * and a heap large enough for the object store.
+ */
+public final class TransactionStoreFootprint {
+
+    private TransactionStoreFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int transactions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        report("objects", transactions, accounts, registry -> new InMemoryTransactionStore());
+        report("columnar", transactions, accounts, ColumnarTransactionStore::new);
+    }
+
+    private static void report(String name, int transactions, int accounts,
+                               Function<AccountRegistry, TransactionStore> factory) {
+        AccountRegistry registry = new AccountRegistry();
+        for (int i = 0; i < accounts; i++) {
+            registry.register("ACC-" + i);
+        }
+        long before = usedHeap();
+        TransactionStore store = factory.apply(registry);
+        for (int i = 0; i < transactions; i++) {
+            int account = i % accounts;
+            int related = (i + 1) % accounts;
+            Money amount = Money.ofMinorUnits(100 + i % 10_000, "USD");
+            if (i % 4 == 0) {
+                store.add(new Transaction(registry.idOf(account), TransactionType.TRANSFER, amount,
+                    "transfer " + i % 100, registry.idOf(related)), account, related);
+            } else {
+                store.add(new Transaction(registry.idOf(account), TransactionType.DEPOSIT, amount,
+                    "deposit " + i % 100), account, TransactionStore.NO_ACCOUNT);
+            }
+        }
+        long after = usedHeap();
+        System.out.printf("%-9s transactions=%d heap bytes/transaction=%.1f%s%n", name, store.size(),
+            (after - before) / (double) transactions,
+            store instanceof ColumnarTransactionStore
+                ? String.format(" (estimated %.1f)", ((ColumnarTransactionStore) store).getFootprintBytes() / (double) transactions)
+                : "");
+        if (store.size() != transactions) {
+            throw new IllegalStateException("store lost transactions");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.core.domain;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide table of currencies, each with its ISO code, its minor-unit scale and a
+ * small int code assigned from zero on first use. {@link Money} and its consumers hold
+ * the int code, so currency checks are int comparisons and the scale is an array read.
+ * Only ISO 4217 codes the JDK knows are registered, so client input cannot fill the
+ * table; the scale is the currency's number of fraction digits, falling back to two for
+ * pseudo-currencies that have none.
+ * <p>
+ * Codes are only meaningful within one process; anything persisted keeps the ISO code.
+ * Registration is serialized and bounded; lookups never lock.
+ */
+public final class CurrencyRegistry {
+    public static final int MAX_CURRENCIES = 1024;
+    private static final int DEFAULT_SCALE = 2;
+
+    private static final Map<String, Integer> CODES = new ConcurrentHashMap<>();
+    private static volatile String[] isoCodes = new String[16];
+    private static volatile int[] scales = new int[16];
+    private static volatile int size;
+
+    private CurrencyRegistry() {
+    }
+
+    /**
+     * Returns the code of the currency with the given ISO code, registering it if it is new.
+     * Codes are matched regardless of case, so {@code "usd"} is {@code "USD"}.
+     *
+     * @throws IllegalArgumentException if the code is blank or not an ISO 4217 currency
+     */
+    public static int codeOf(String isoCode) {
+        if (isoCode == null || isoCode.trim().isEmpty()) {
+            throw new IllegalArgumentException("Currency cannot be null or empty");
+        }
+        Integer code = CODES.get(isoCode);
+        if (code != null) {
+            return code;
+        }
+        String upperCase = isoCode.toUpperCase(Locale.ROOT);
+        code = CODES.get(upperCase);
+        return code != null ? code : register(upperCase);
+    }
+
+    public static String isoCodeOf(int code) {
+        return isoCodes[checked(code)];
+    }
+
+    public static int scaleOf(int code) {
+        return scales[checked(code)];
+    }
+
+    /**
+     * Number of currencies registered so far.
+     */
+    public static int size() {
+        return size;
+    }
+
+    private static synchronized int register(String isoCode) {
+        Integer existing = CODES.get(isoCode);
+        if (existing != null) {
+            return existing;
+        }
+        int scale = lookupScale(isoCode);
+        int code = size;
+        if (code == MAX_CURRENCIES) {
+            throw new IllegalArgumentException("Too many currencies; cannot register " + isoCode);
+        }
+        if (code == isoCodes.length) {
+            isoCodes = Arrays.copyOf(isoCodes, code << 1);
+            scales = Arrays.copyOf(scales, code << 1);
+        }
+        isoCodes[code] = isoCode;
+        scales[code] = scale;
+        size = code + 1;
+        CODES.put(isoCode, code);
+        return code;
+    }
+
+    private static int checked(int code) {
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("Unknown currency code " + code);
+        }
+        return code;
+    }
+
+    private static int lookupScale(String isoCode) {
+        Currency currency;
+        try {
+            currency = Currency.getInstance(isoCode);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency: " + isoCode);
+        }
+        int digits = currency.getDefaultFractionDigits();
+        return digits < 0 ? DEFAULT_SCALE : digits;
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.core.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions between decimal amounts and minor units (e.g. cents) held in a {@code long}.
+ * Scales come from the {@link CurrencyRegistry}.
+ */
+public final class MinorUnits {
+
+    private MinorUnits() {
+    }
+
+    public static int scaleOf(String currency) {
+        return CurrencyRegistry.scaleOf(CurrencyRegistry.codeOf(currency));
+    }
+
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                "Amount " + amount + " cannot be represented with " + scale + " decimal places");
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+}
@@ -5,20 +5,24 @@ import java.util.Objects;
 
 /**
  * Value object representing monetary amounts.
+ * The currency is held as its {@link CurrencyRegistry} code, so currency checks compare
+ * ints and the minor-unit scale is looked up without hashing.
  */
 public class Money {
     private final BigDecimal amount;
-    private final String currency;
+    private final int currencyCode;
 
     public Money(BigDecimal amount, String currency) {
+        this(amount, CurrencyRegistry.codeOf(currency));
+    }
+
+    public Money(BigDecimal amount, int currencyCode) {
         if (amount == null) {
             throw new IllegalArgumentException("Amount cannot be null");
         }
-        if (currency == null || currency.trim().isEmpty()) {
-            throw new IllegalArgumentException("Currency cannot be null or empty");
-        }
+        CurrencyRegistry.scaleOf(currencyCode);
         this.amount = amount;
-        this.currency = currency;
+        this.currencyCode = currencyCode;
     }
 
     public Money(double amount, String currency) {
@@ -30,32 +34,51 @@ public class Money {
     }
 
     public String getCurrency() {
-        return currency;
+        return CurrencyRegistry.isoCodeOf(currencyCode);
+    }
+
+    public int getCurrencyCode() {
+        return currencyCode;
+    }
+
+    /**
+     * Returns this amount in minor units of its currency, e.g. cents for USD.
+     */
+    public long toMinorUnits() {
+        return MinorUnits.toMinorUnits(amount, CurrencyRegistry.scaleOf(currencyCode));
+    }
+
+    public static Money ofMinorUnits(long minorUnits, String currency) {
+        return ofMinorUnits(minorUnits, CurrencyRegistry.codeOf(currency));
+    }
+
+    public static Money ofMinorUnits(long minorUnits, int currencyCode) {
+        return new Money(MinorUnits.toBigDecimal(minorUnits, CurrencyRegistry.scaleOf(currencyCode)), currencyCode);
     }
 
     public Money add(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currencyCode != other.currencyCode) {
             throw new IllegalArgumentException("Cannot add different currencies");
         }
-        return new Money(this.amount.add(other.amount), this.currency);
+        return new Money(this.amount.add(other.amount), this.currencyCode);
     }
 
     public Money subtract(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currencyCode != other.currencyCode) {
             throw new IllegalArgumentException("Cannot subtract different currencies");
         }
-        return new Money(this.amount.subtract(other.amount), this.currency);
+        return new Money(this.amount.subtract(other.amount), this.currencyCode);
     }
 
     public boolean isGreaterThan(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currencyCode != other.currencyCode) {
             throw new IllegalArgumentException("Cannot compare different currencies");
         }
         return this.amount.compareTo(other.amount) > 0;
     }
 
     public boolean isLessThan(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currencyCode != other.currencyCode) {
             throw new IllegalArgumentException("Cannot compare different currencies");
         }
         return this.amount.compareTo(other.amount) < 0;
@@ -66,17 +89,16 @@ public class Money {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Money money = (Money) o;
-        return Objects.equals(amount, money.amount) && Objects.equals(currency, money.currency);
+        return currencyCode == money.currencyCode && amount.compareTo(money.amount) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(amount, currency);
+        return Objects.hash(amount.stripTrailingZeros(), currencyCode);
     }
 
     @Override
     public String toString() {
-        return amount + " " + currency;
+        return amount + " " + getCurrency();
     }
 }
-
@@ -0,0 +1,13 @@
+package com.banking.core.domain;
+
+/**
+ * Outcome of an operation that may be declined in the normal course of business.
+ * The {@code try} variants of account and transaction operations report a decline with
+ * one of these instead of throwing; invalid arguments still throw.
+ */
+public enum OperationStatus {
+    APPLIED,
+    ACCOUNT_NOT_FOUND,
+    ACCOUNT_INACTIVE,
+    INSUFFICIENT_FUNDS
+}
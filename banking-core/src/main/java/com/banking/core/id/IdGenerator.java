@@ -0,0 +1,10 @@
+package com.banking.core.id;
+
+/**
+ * Source of unique identifiers for accounts and transactions.
+ * Implementations must be safe for concurrent use.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
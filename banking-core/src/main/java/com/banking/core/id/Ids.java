@@ -0,0 +1,28 @@
+package com.banking.core.id;
+
+/**
+ * Process-wide id generator used when accounts and transactions are created.
+ * Defaults to a {@link SnowflakeIdGenerator} for node 0; deployments running several
+ * nodes must give each one a distinct node id at startup.
+ */
+public final class Ids {
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(0);
+
+    private Ids() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static IdGenerator getGenerator() {
+        return generator;
+    }
+
+    public static void setGenerator(IdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Id generator cannot be null");
+        }
+        generator = idGenerator;
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.core.id;
+
+import java.util.UUID;
+
+/**
+ * Random UUID identifiers, as used before time-ordered ids. Not ordered, and
+ * {@link UUID#randomUUID()} draws on a shared {@code SecureRandom}.
+ */
+public final class UuidIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.core.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of one component, one per named operation. Callers look a histogram
+ * up once and keep it, so recording never goes through the map.
+ */
+public class LatencyMetrics {
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String operation) {
+        if (operation == null || operation.isEmpty()) {
+            throw new IllegalArgumentException("Operation name cannot be empty");
+        }
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram != null ? histogram : histograms.computeIfAbsent(operation, name -> new LatencyHistogram());
+    }
+
+    /**
+     * Snapshots of every histogram, by operation name.
+     */
+    public Map<String, LatencySnapshot> snapshot() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((operation, histogram) -> snapshots.put(operation, histogram.snapshot()));
+        return Collections.unmodifiableMap(snapshots);
+    }
+}
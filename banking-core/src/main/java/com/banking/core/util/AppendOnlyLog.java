@@ -0,0 +1,100 @@
+package com.banking.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only sequence of entries in insertion order.
+ * Appends are serialized; reads never lock and see every entry whose append completed
+ * before the read started. Newest-first reads cost O(limit), independent of log length.
+ */
+public final class AppendOnlyLog<T> {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private volatile Object[] entries = new Object[INITIAL_CAPACITY];
+    private volatile int size;
+
+    /**
+     * Appends an entry and returns its index.
+     */
+    public synchronized int append(T entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Entry cannot be null");
+        }
+        int index = size;
+        Object[] current = entries;
+        if (index == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+            entries = current;
+        }
+        current[index] = entry;
+        size = index + 1;
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int n = size;
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+        }
+        return (T) entries[index];
+    }
+
+    /**
+     * Visits, oldest first and without copying, every entry appended before the call started.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        int n = size;
+        Object[] current = entries;
+        for (int i = 0; i < n; i++) {
+            action.accept((T) current[i]);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries starting at {@code fromIndex}, oldest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> oldestFirst(int fromIndex, int limit) {
+        int n = size;
+        Object[] current = entries;
+        int from = Math.max(0, fromIndex);
+        int count = Math.max(0, Math.min(limit, n - from));
+        List<T> result = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            result.add((T) current[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} entries, newest first.
+     */
+    public List<T> newestFirst(int limit) {
+        return newestFirst(size, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} entries with index below {@code beforeIndex}, newest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> newestFirst(int beforeIndex, int limit) {
+        int n = size;
+        Object[] current = entries;
+        int from = Math.min(beforeIndex, n) - 1;
+        int count = Math.max(0, Math.min(limit, from + 1));
+        List<T> result = new ArrayList<>(count);
+        for (int i = from; i > from - count; i--) {
+            result.add((T) current[i]);
+        }
+        return result;
+    }
+}
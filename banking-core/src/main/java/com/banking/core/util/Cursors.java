@@ -0,0 +1,48 @@
+package com.banking.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes listing positions as opaque, URL-safe cursor strings.
+ * A cursor carries the kind of listing it belongs to, so a cursor from one listing
+ * is rejected by another instead of silently returning the wrong page.
+ */
+public final class Cursors {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Cursors() {
+    }
+
+    public static String encode(String kind, long position) {
+        return ENCODER.encodeToString((kind + ":" + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the position in a cursor produced by {@link #encode} for the same kind.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or of another kind
+     */
+    public static long decode(String kind, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        String prefix = kind + ":";
+        if (!decoded.startsWith(prefix)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            long position = Long.parseLong(decoded.substring(prefix.length()));
+            if (position < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return position;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
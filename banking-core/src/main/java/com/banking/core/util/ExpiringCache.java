@@ -0,0 +1,140 @@
+package com.banking.core.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded concurrent cache whose entries expire a fixed time after they were added, for
+ * remembering the outcome of operations that may be retried. {@link #getOrCompute} runs
+ * the computation once per live key: concurrent callers with the same key wait for the
+ * first caller's result, and later callers get it back until the entry expires or is
+ * evicted. A computation that throws leaves nothing behind, so the next caller runs it
+ * again; callers already waiting for it get the same exception.
+ * <p>
+ * Every entry lives for the same time, so queue order is close to expiry order: entries
+ * are queued once their value is computed, and each completion evicts from the head of
+ * the queue whatever has expired and, past the capacity, the oldest entries. Entries still
+ * being computed are neither queued nor counted against the capacity, so eviction never
+ * drops one while callers may still arrive to wait for it. Lookups and additions take
+ * constant time and no lock.
+ */
+public class ExpiringCache<K, V> {
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<K, V>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int capacity;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public ExpiringCache(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache reading time from {@code nanoClock}, in nanoseconds as
+     * {@link System#nanoTime()} does.
+     */
+    public ExpiringCache(int capacity, Duration ttl, LongSupplier nanoClock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the value cached for {@code key}, computing and caching it if there is none.
+     */
+    public V getOrCompute(K key, Supplier<V> computation) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        long now = nanoClock.getAsLong();
+        while (true) {
+            Entry<K, V> existing = entries.get(key);
+            if (existing != null) {
+                if (now - existing.addedAt < ttlNanos) {
+                    return existing.await();
+                }
+                entries.remove(key, existing);
+                continue;
+            }
+            Entry<K, V> added = new Entry<>(key, now);
+            if (entries.putIfAbsent(key, added) == null) {
+                return compute(added, computation);
+            }
+        }
+    }
+
+    /**
+     * Number of live entries, including ones still being computed.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private V compute(Entry<K, V> entry, Supplier<V> computation) {
+        V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.result.complete(value);
+        order.offer(entry);
+        queued.incrementAndGet();
+        evict(nanoClock.getAsLong());
+        return value;
+    }
+
+    private void evict(long now) {
+        Entry<K, V> oldest;
+        while ((oldest = order.peek()) != null && (queued.get() > capacity || now - oldest.addedAt >= ttlNanos)) {
+            if (order.remove(oldest)) {
+                queued.decrementAndGet();
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final long addedAt;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Entry(K key, long addedAt) {
+            this.key = key;
+            this.addedAt = addedAt;
+        }
+
+        private V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.core.util;
+
+import java.util.List;
+
+/**
+ * One page of a listing together with the cursor for the page after it.
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        if (items == null) {
+            throw new IllegalArgumentException("Items cannot be null");
+        }
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Opaque cursor for the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
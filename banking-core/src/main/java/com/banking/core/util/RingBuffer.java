@@ -0,0 +1,169 @@
+package com.banking.core.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, laid out as a
+ * preallocated ring of slots. A producer claims the next sequence number with one atomic
+ * increment, waits while the ring is full, writes its entry into the sequence's slot and
+ * then publishes the slot by storing the sequence next to it; the consumer reads slots
+ * in sequence order as soon as they are published and releases them in batches, so
+ * producers never contend with each other beyond the claim and never with the consumer.
+ * <p>
+ * The consumer spins briefly on an empty ring and then parks until a producer publishes.
+ * Producers facing a full ring back off until the consumer catches up.
+ */
+public final class RingBuffer<E> {
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int CONSUMER_SPINS = 256;
+    private static final int PRODUCER_SPINS = 64;
+
+    private final Object[] entries;
+    private final long[] published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile Thread parkedConsumer;
+    private long next;
+
+    /**
+     * Creates a ring of {@code capacity} slots, rounded up to a power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = new Object[size];
+        this.published = new long[size];
+        Arrays.fill(published, -1L);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Number of entries published or being published and not yet taken; approximate
+     * while producers or the consumer are active.
+     */
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    /**
+     * Adds an entry, waiting while the ring is full. Safe to call from any thread.
+     */
+    public void put(E entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Entry cannot be null");
+        }
+        long sequence = claimed.getAndIncrement();
+        long wrapPoint = sequence - entries.length;
+        for (int idle = 0; wrapPoint >= consumed; idle++) {
+            if (idle < PRODUCER_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(1_000L);
+            }
+        }
+        int slot = (int) sequence & mask;
+        entries[slot] = entry;
+        PUBLISHED.setVolatile(published, slot, sequence);
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Removes and returns the next entry, or {@code null} if none is published yet.
+     * Consumer thread only.
+     */
+    public E poll() {
+        E entry = takePublished();
+        if (entry != null) {
+            consumed = next;
+        }
+        return entry;
+    }
+
+    /**
+     * Hands up to {@code limit} published entries to {@code action} in order and returns
+     * how many it took. The slots are released to producers once, after the whole batch.
+     * Consumer thread only.
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        int count = 0;
+        try {
+            E entry;
+            while (count < limit && (entry = takePublished()) != null) {
+                count++;
+                action.accept(entry);
+            }
+        } finally {
+            if (count > 0) {
+                consumed = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes and returns the next entry, waiting until one is published.
+     * Consumer thread only.
+     */
+    public E take() throws InterruptedException {
+        for (int spins = 0; ; spins++) {
+            E entry = poll();
+            if (entry != null) {
+                return entry;
+            }
+            if (spins < CONSUMER_SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            awaitPublished();
+        }
+    }
+
+    /**
+     * Waits until the next entry is published, without taking it. Consumer thread only.
+     */
+    public void awaitPublished() throws InterruptedException {
+        int slot = (int) next & mask;
+        parkedConsumer = Thread.currentThread();
+        try {
+            // Checked after announcing the park, so a producer publishing now unparks us
+            while ((long) PUBLISHED.getVolatile(published, slot) != next) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            parkedConsumer = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E takePublished() {
+        int slot = (int) next & mask;
+        if ((long) PUBLISHED.getVolatile(published, slot) != next) {
+            return null;
+        }
+        E entry = (E) entries[slot];
+        entries[slot] = null;
+        next++;
+        return entry;
+    }
+}
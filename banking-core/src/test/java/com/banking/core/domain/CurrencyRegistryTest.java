@@ -0,0 +1,55 @@
+package com.banking.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    @Test
+    void testCodesAreStablePerIsoCode() {
+        int usd = CurrencyRegistry.codeOf("USD");
+        int jpy = CurrencyRegistry.codeOf("JPY");
+        assertNotEquals(usd, jpy);
+        assertEquals(usd, CurrencyRegistry.codeOf(new String("USD")));
+        assertEquals(usd, CurrencyRegistry.codeOf("usd"));
+        assertEquals("USD", CurrencyRegistry.isoCodeOf(usd));
+        assertEquals(2, CurrencyRegistry.scaleOf(usd));
+        assertEquals(0, CurrencyRegistry.scaleOf(jpy));
+        assertEquals(3, CurrencyRegistry.scaleOf(CurrencyRegistry.codeOf("BHD")));
+    }
+
+    @Test
+    void testInvalidCurrenciesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.codeOf(null));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.codeOf(" "));
+        assertThrows(IllegalArgumentException.class, () -> new Money(BigDecimal.ONE, (String) null));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.isoCodeOf(-1));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.scaleOf(CurrencyRegistry.MAX_CURRENCIES));
+    }
+
+    @Test
+    void testUnknownCurrenciesAreNotRegistered() {
+        int before = CurrencyRegistry.size();
+        for (int i = 0; i < 2 * CurrencyRegistry.MAX_CURRENCIES; i++) {
+            String junk = "JUNK" + i;
+            assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.codeOf(junk));
+        }
+        assertEquals(before, CurrencyRegistry.size());
+        assertEquals("CHF", CurrencyRegistry.isoCodeOf(CurrencyRegistry.codeOf("CHF")));
+    }
+
+    @Test
+    void testMoneyCarriesCurrencyCode() {
+        Money dollars = new Money(12.5, "USD");
+        Money sameDollars = Money.ofMinorUnits(1250, CurrencyRegistry.codeOf("USD"));
+        assertEquals(CurrencyRegistry.codeOf("USD"), dollars.getCurrencyCode());
+        assertEquals(dollars, sameDollars);
+        assertEquals(dollars.hashCode(), sameDollars.hashCode());
+        assertEquals("USD", sameDollars.getCurrency());
+        assertThrows(IllegalArgumentException.class, () -> dollars.add(new Money(1.0, "EUR")));
+        assertThrows(IllegalArgumentException.class, () -> new Money(BigDecimal.ONE, -1));
+    }
+}
@@ -36,5 +36,24 @@ class MoneyTest {
         assertThrows(IllegalArgumentException.class, () -> usd.add(eur));
         assertThrows(IllegalArgumentException.class, () -> usd.subtract(eur));
     }
-}
 
+    @Test
+    void testMinorUnitsRoundTrip() {
+        Money money = new Money(12.34, "USD");
+        assertEquals(1234L, money.toMinorUnits());
+        assertEquals(money, Money.ofMinorUnits(1234L, "USD"));
+        assertEquals(500L, new Money(500, "JPY").toMinorUnits());
+    }
+
+    @Test
+    void testMinorUnitsRejectsExcessPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new Money(0.001, "USD").toMinorUnits());
+    }
+
+    @Test
+    void testEqualityIgnoresScale() {
+        assertEquals(new Money(new java.math.BigDecimal("150"), "USD"), new Money(new java.math.BigDecimal("150.00"), "USD"));
+        assertEquals(new Money(new java.math.BigDecimal("150"), "USD").hashCode(),
+            new Money(new java.math.BigDecimal("150.00"), "USD").hashCode());
+    }
+}
@@ -0,0 +1,89 @@
+package com.banking.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void testIdsIncreaseAndCarryNodeAndTime() {
+        long now = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000L;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37, () -> now);
+        long first = generator.nextLongId();
+        long second = generator.nextLongId();
+        assertTrue(second > first);
+        assertEquals(37, SnowflakeIdGenerator.nodeOf(first));
+        assertEquals(now, SnowflakeIdGenerator.timestampOf(first));
+    }
+
+    @Test
+    void testSequenceOverflowAndClockRegressionStayMonotonic() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 5_000L);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextLongId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        clock.addAndGet(-1_000L);
+        assertTrue(generator.nextLongId() > previous);
+    }
+
+    @Test
+    void testEncodingRoundTripsAndSortsLikeIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(2);
+        List<String> encoded = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            long id = generator.nextLongId();
+            String text = SnowflakeIdGenerator.encode(id);
+            assertEquals(13, text.length());
+            assertEquals(id, SnowflakeIdGenerator.decode(text));
+            encoded.add(text);
+        }
+        List<String> sorted = new ArrayList<>(encoded);
+        sorted.sort(null);
+        assertEquals(encoded, sorted);
+        assertEquals(Long.MAX_VALUE, SnowflakeIdGenerator.decode(SnowflakeIdGenerator.encode(Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("not-an-id"));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("ZZZZZZZZZZZZZ"));
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                Set<Long> local = new HashSet<>();
+                for (int i = 0; i < perThread; i++) {
+                    local.add(generator.nextLongId());
+                }
+                ids.addAll(local);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testInvalidNodeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
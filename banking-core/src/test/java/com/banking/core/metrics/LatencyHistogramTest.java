@@ -0,0 +1,80 @@
+package com.banking.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverEveryValueWithinTheirPrecision() {
+        for (long value : new long[]{0, 1, 31, 32, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKET_COUNT);
+            long highest = LatencyHistogram.highestValueAt(index);
+            assertTrue(highest >= value, "bucket of " + value + " ends at " + highest);
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKET_COUNT,
+                "bucket of " + value + " is too wide");
+            assertTrue(index == 0 || LatencyHistogram.highestValueAt(index - 1) < value);
+        }
+    }
+
+    @Test
+    void testPercentilesOfRecordedLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+        histogram.record(-5);
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_001, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_500_000 / 1_001, snapshot.getMeanNanos());
+        assertEquals(0, snapshot.getValueAtPercentile(0.0));
+        assertWithin(500_000, snapshot.getValueAtPercentile(50.0));
+        assertWithin(990_000, snapshot.getValueAtPercentile(99.0));
+        assertEquals(1_000_000, snapshot.getValueAtPercentile(100.0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101.0));
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(99.0));
+    }
+
+    @Test
+    void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(40_000, snapshot.getCount());
+        assertEquals(4L * 50_005_000, snapshot.getTotalNanos());
+        assertEquals(10_000, snapshot.getMaxNanos());
+    }
+
+    @Test
+    void testMetricsKeepOneHistogramPerOperation() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        assertSame(metrics.histogram("deposit"), metrics.histogram("deposit"));
+        metrics.histogram("withdraw").record(10);
+        assertEquals(java.util.List.of("deposit", "withdraw"), new java.util.ArrayList<>(metrics.snapshot().keySet()));
+        assertEquals(1, metrics.snapshot().get("withdraw").getCount());
+        assertThrows(IllegalArgumentException.class, () -> metrics.histogram(""));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKET_COUNT,
+            "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,85 @@
+package com.banking.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyLogTest {
+
+    @Test
+    void testAppendAndGet() {
+        AppendOnlyLog<String> log = new AppendOnlyLog<>();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, log.append("E" + i));
+        }
+        assertEquals(10, log.size());
+        assertEquals("E7", log.get(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(10));
+    }
+
+    @Test
+    void testNewestFirst() {
+        AppendOnlyLog<String> log = new AppendOnlyLog<>();
+        log.append("A");
+        log.append("B");
+        log.append("C");
+        assertEquals(Arrays.asList("C", "B"), log.newestFirst(2));
+        assertEquals(Arrays.asList("C", "B", "A"), log.newestFirst(10));
+        assertEquals(Arrays.asList("B", "A"), log.newestFirst(2, 5));
+        assertTrue(log.newestFirst(0, 5).isEmpty());
+    }
+
+    @Test
+    void testConcurrentReadersSeeCompletePrefix() throws InterruptedException {
+        AppendOnlyLog<Integer> log = new AppendOnlyLog<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                log.append(i);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            List<Integer> page = log.newestFirst(16);
+            for (int i = 1; i < page.size(); i++) {
+                assertEquals(page.get(i - 1) - 1, (int) page.get(i));
+            }
+        }
+        writer.join();
+        assertEquals(100_000, log.size());
+    }
+
+    @Test
+    void testNullEntryRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AppendOnlyLog<String>().append(null));
+    }
+
+    @Test
+    void testOldestFirst() {
+        AppendOnlyLog<String> log = new AppendOnlyLog<>();
+        log.append("A");
+        log.append("B");
+        log.append("C");
+        assertEquals(Arrays.asList("A", "B"), log.oldestFirst(0, 2));
+        assertEquals(Arrays.asList("C"), log.oldestFirst(2, 2));
+        assertTrue(log.oldestFirst(3, 2).isEmpty());
+        assertTrue(log.oldestFirst(10, 2).isEmpty());
+    }
+
+    @Test
+    void testForEachSeesEntriesPresentAtStart() {
+        AppendOnlyLog<String> log = new AppendOnlyLog<>();
+        log.append("A");
+        log.append("B");
+        List<String> seen = new ArrayList<>();
+        log.forEach(entry -> {
+            seen.add(entry);
+            log.append(entry + "'");
+        });
+        assertEquals(Arrays.asList("A", "B"), seen);
+        assertEquals(4, log.size());
+    }
+}
@@ -0,0 +1,27 @@
+package com.banking.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorsTest {
+
+    @Test
+    void testRoundTrip() {
+        String cursor = Cursors.encode("accounts", 12345L);
+        assertEquals(12345L, Cursors.decode("accounts", cursor));
+        assertFalse(cursor.contains("12345"), "cursor should be opaque");
+    }
+
+    @Test
+    void testRejectsCursorOfAnotherKind() {
+        String cursor = Cursors.encode("history", 7L);
+        assertThrows(IllegalArgumentException.class, () -> Cursors.decode("accounts", cursor));
+    }
+
+    @Test
+    void testRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> Cursors.decode("accounts", "not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> Cursors.decode("accounts", Cursors.encode("accounts", -1L)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.banking.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    @Test
+    void testValueIsComputedOncePerKeyUntilItExpires() {
+        AtomicLong clock = new AtomicLong();
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofSeconds(10), clock::get);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(1, (int) cache.getOrCompute("a", runs::incrementAndGet));
+        assertEquals(1, (int) cache.getOrCompute("a", runs::incrementAndGet));
+        assertEquals(2, (int) cache.getOrCompute("b", runs::incrementAndGet));
+        clock.set(TimeUnit.SECONDS.toNanos(9));
+        assertEquals(1, (int) cache.getOrCompute("a", runs::incrementAndGet));
+
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(3, (int) cache.getOrCompute("a", runs::incrementAndGet));
+        assertEquals(1, cache.size(), "the expired entry for b was evicted");
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCompute(null, () -> 0));
+    }
+
+    @Test
+    void testOldestEntriesAreEvictedPastCapacity() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3, Duration.ofHours(1));
+        for (int i = 0; i < 5; i++) {
+            cache.getOrCompute(i, () -> 0);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(1, (int) cache.getOrCompute(0, () -> 1), "evicted keys compute again");
+        assertEquals(0, (int) cache.getOrCompute(4, () -> 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(0, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(1, Duration.ZERO));
+    }
+
+    @Test
+    void testEntriesBeingComputedAreNotEvicted() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, Duration.ofHours(1));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> cache.getOrCompute("slow", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return runs.incrementAndGet();
+            }));
+            while (cache.size() == 0) {
+                Thread.onSpinWait();
+            }
+            cache.getOrCompute("a", () -> 0);
+            cache.getOrCompute("b", () -> 0);
+            Future<Integer> retry = executor.submit(() -> cache.getOrCompute("slow", runs::incrementAndGet));
+            release.countDown();
+            assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, (int) retry.get(10, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+            assertEquals(1, cache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofHours(1));
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> cache.getOrCompute("a", () -> {
+                throw new IllegalStateException("declined");
+            }));
+        assertEquals("declined", failure.getMessage());
+        assertEquals(0, cache.size());
+        assertEquals(7, (int) cache.getOrCompute("a", () -> 7));
+    }
+
+    @Test
+    void testConcurrentCallersShareOneComputation() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofHours(1));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> first = executor.submit(() -> cache.getOrCompute("key", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return runs.incrementAndGet();
+            }));
+            while (cache.size() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<Integer> second = executor.submit(() -> cache.getOrCompute("key", runs::incrementAndGet));
+            Future<Integer> third = executor.submit(() -> cache.getOrCompute("key", runs::incrementAndGet));
+            release.countDown();
+            assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, (int) second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, (int) third.get(10, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void testEntriesComeOutInOrder() {
+        RingBuffer<String> ring = new RingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+        assertNull(ring.poll());
+        ring.put("A");
+        ring.put("B");
+        ring.put("C");
+        assertEquals(3, ring.size());
+        assertEquals("A", ring.poll());
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, ring.drain(drained::add, 10));
+        assertEquals(List.of("B", "C"), drained);
+        assertEquals(0, ring.size());
+        assertThrows(IllegalArgumentException.class, () -> ring.put(null));
+    }
+
+    @Test
+    void testProducersBlockedOnFullRingDeliverEverything() throws InterruptedException {
+        RingBuffer<Integer> ring = new RingBuffer<>(16);
+        int producers = 4;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.put(base + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (int taken = 0; taken < producers * perProducer; taken++) {
+            int value = ring.take();
+            int producer = value / perProducer;
+            // Each producer's entries arrive in the order it put them
+            assertTrue(value % perProducer > last[producer]);
+            last[producer] = value % perProducer;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(ring.poll());
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.transaction.batch;
+
+import com.banking.transaction.domain.Transaction;
+
+/**
+ * Outcome of one operation in a batch: the transaction it produced, or why it was not applied.
+ */
+public final class BatchItemResult {
+    private final int index;
+    private final Transaction transaction;
+    private final String error;
+
+    private BatchItemResult(int index, Transaction transaction, String error) {
+        this.index = index;
+        this.transaction = transaction;
+        this.error = error;
+    }
+
+    public static BatchItemResult applied(int index, Transaction transaction) {
+        return new BatchItemResult(index, transaction, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+
+    /**
+     * Position of the operation in the submitted batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isApplied() {
+        return transaction != null;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
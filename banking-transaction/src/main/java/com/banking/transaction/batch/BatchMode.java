@@ -0,0 +1,25 @@
+package com.banking.transaction.batch;
+
+/**
+ * How a batch handles an operation that cannot be applied.
+ */
+public enum BatchMode {
+    /** Any failure rolls back the whole batch; either every operation applies or none does. */
+    ALL_OR_NOTHING,
+    /** Failed operations are skipped and reported; the rest still apply. */
+    BEST_EFFORT;
+
+    /**
+     * Returns the mode with the given name, ignoring case.
+     *
+     * @throws IllegalArgumentException if no mode has that name
+     */
+    public static BatchMode fromName(String name) {
+        for (BatchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown batch mode: " + name);
+    }
+}
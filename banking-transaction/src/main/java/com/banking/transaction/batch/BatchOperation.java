@@ -0,0 +1,65 @@
+package com.banking.transaction.batch;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+
+/**
+ * A single deposit, withdrawal or transfer submitted as part of a batch.
+ */
+public final class BatchOperation {
+    private final TransactionType type;
+    private final String accountId;
+    private final String relatedAccountId;
+    private final Money amount;
+    private final String description;
+
+    private BatchOperation(TransactionType type, String accountId, String relatedAccountId,
+                           Money amount, String description) {
+        if (type == null) {
+            throw new IllegalArgumentException("Operation type cannot be null");
+        }
+        this.type = type;
+        this.accountId = accountId;
+        this.relatedAccountId = relatedAccountId;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static BatchOperation deposit(String accountId, Money amount, String description) {
+        return new BatchOperation(TransactionType.DEPOSIT, accountId, null, amount, description);
+    }
+
+    public static BatchOperation withdraw(String accountId, Money amount, String description) {
+        return new BatchOperation(TransactionType.WITHDRAWAL, accountId, null, amount, description);
+    }
+
+    public static BatchOperation transfer(String fromAccountId, String toAccountId, Money amount, String description) {
+        return new BatchOperation(TransactionType.TRANSFER, fromAccountId, toAccountId, amount, description);
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * The account the operation applies to; the source account for a transfer.
+     */
+    public String getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * The destination account of a transfer, otherwise {@code null}.
+     */
+    public String getRelatedAccountId() {
+        return relatedAccountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
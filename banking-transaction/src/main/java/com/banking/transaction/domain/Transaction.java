@@ -2,10 +2,10 @@ package com.banking.transaction.domain;
 
 import com.banking.core.domain.Money;
 import com.banking.core.domain.TransactionType;
+import com.banking.core.id.Ids;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Represents a banking transaction.
@@ -30,7 +30,7 @@ public class Transaction {
             throw new IllegalArgumentException("Amount cannot be null");
         }
         
-        this.transactionId = UUID.randomUUID().toString();
+        this.transactionId = Ids.next();
         this.accountId = accountId;
         this.type = type;
         this.amount = amount;
@@ -43,6 +43,17 @@ public class Transaction {
         this.relatedAccountId = relatedAccountId;
     }
 
+    public Transaction(String transactionId, String accountId, TransactionType type, Money amount,
+                       LocalDateTime timestamp, String description, String relatedAccountId) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.description = description;
+        this.relatedAccountId = relatedAccountId;
+    }
+
     public String getTransactionId() {
         return transactionId;
     }
@@ -0,0 +1,53 @@
+package com.banking.transaction.domain;
+
+import com.banking.core.domain.OperationStatus;
+
+/**
+ * Outcome of a withdrawal or transfer requested through the {@code try} API of
+ * {@code TransactionService}: the transaction it produced, or why it was declined and
+ * which account declined it.
+ */
+public final class TransactionResult {
+    private final OperationStatus status;
+    private final Transaction transaction;
+    private final String declinedAccountId;
+
+    private TransactionResult(OperationStatus status, Transaction transaction, String declinedAccountId) {
+        this.status = status;
+        this.transaction = transaction;
+        this.declinedAccountId = declinedAccountId;
+    }
+
+    public static TransactionResult applied(Transaction transaction) {
+        return new TransactionResult(OperationStatus.APPLIED, transaction, null);
+    }
+
+    public static TransactionResult declined(OperationStatus status, String accountId) {
+        if (status == OperationStatus.APPLIED) {
+            throw new IllegalArgumentException("A declined result needs a decline status");
+        }
+        return new TransactionResult(status, null, accountId);
+    }
+
+    public boolean isApplied() {
+        return status == OperationStatus.APPLIED;
+    }
+
+    public OperationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * The recorded transaction, or {@code null} if declined.
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Id of the account that was missing, inactive or short of funds, or {@code null} if applied.
+     */
+    public String getDeclinedAccountId() {
+        return declinedAccountId;
+    }
+}
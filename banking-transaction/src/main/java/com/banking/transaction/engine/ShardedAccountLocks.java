@@ -0,0 +1,61 @@
+package com.banking.transaction.engine;
+
+import com.banking.account.concurrent.AccountLocks;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * {@link AccountLocks} that grants exclusive access to an account by handing the action
+ * to the {@link ShardedLedgerEngine} shard owning it instead of taking a lock. Services
+ * built on {@code AccountLocks} (account, transaction and snapshot code) run unchanged on
+ * top of the engine: single-account work and work on accounts of one shard runs on that
+ * shard's thread, and the calling thread waits for its completion future; work spanning
+ * shards runs on the calling thread while those shards are held. Transfers between
+ * shards avoid holding them: {@code TransactionService} splits them into legs instead.
+ */
+public class ShardedAccountLocks extends AccountLocks {
+    private final ShardedLedgerEngine engine;
+
+    public ShardedAccountLocks(ShardedLedgerEngine engine) {
+        super(1);
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        this.engine = engine;
+    }
+
+    public ShardedLedgerEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Whether the two accounts are owned by the same shard.
+     */
+    public boolean sameShard(String firstAccountId, String secondAccountId) {
+        return engine.shardOf(firstAccountId) == engine.shardOf(secondAccountId);
+    }
+
+    /**
+     * Always {@code false}: the owning shard's thread is the only writer of an account.
+     */
+    @Override
+    public boolean allowsUnlockedWriters() {
+        return false;
+    }
+
+    @Override
+    public <T> T withLock(String accountId, Supplier<T> action) {
+        return engine.execute(engine.shardOf(accountId), action);
+    }
+
+    @Override
+    public <T> T withLocks(String firstAccountId, String secondAccountId, Supplier<T> action) {
+        return engine.executeHolding(new int[] {engine.shardOf(firstAccountId), engine.shardOf(secondAccountId)}, action);
+    }
+
+    @Override
+    public <T> T withAllLocks(Collection<String> accountIds, Supplier<T> action) {
+        return engine.executeHolding(accountIds.stream().mapToInt(engine::shardOf).toArray(), action);
+    }
+}
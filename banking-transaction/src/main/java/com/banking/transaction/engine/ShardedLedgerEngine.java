@@ -0,0 +1,251 @@
+package com.banking.transaction.engine;
+
+import com.banking.core.util.RingBuffer;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer engine that partitions accounts across a fixed number of shards.
+ * Each shard is one thread that owns its accounts exclusively and runs the commands
+ * submitted for them one at a time, in submission order, taken in batches from its own
+ * {@link RingBuffer}. State owned by a shard is only ever written by its thread, so
+ * commands need no locks.
+ * <p>
+ * Work that spans shards runs on the calling thread while those shards are held: each
+ * is sent a hold command and the caller waits until it is idle inside it. Shards are
+ * held in ascending order, so concurrent multi-shard callers cannot deadlock. A shard
+ * thread may only wait for its own shard; waiting for another one from a shard thread
+ * is rejected.
+ */
+public class ShardedLedgerEngine implements Closeable {
+    public static final int DEFAULT_RING_SIZE = 4096;
+
+    private static final int DRAIN_BATCH = 256;
+    private static final int IDLE_SPINS = 1024;
+
+    private final Shard[] shards;
+
+    public ShardedLedgerEngine(int shardCount) {
+        this(shardCount, DEFAULT_RING_SIZE);
+    }
+
+    public ShardedLedgerEngine(int shardCount, int ringSize) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, ringSize);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String accountId) {
+        int h = accountId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    /**
+     * Returns the index of the shard whose thread is calling, or -1 from any other thread.
+     */
+    public int currentShard() {
+        Thread current = Thread.currentThread();
+        for (Shard shard : shards) {
+            if (shard.thread == current) {
+                return shard.index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Queues {@code command} on the shard and returns a future completed with its result,
+     * or with the exception it threw, once the shard thread has run it.
+     *
+     * @throws IllegalStateException if the engine is closed
+     */
+    public <T> CompletableFuture<T> submit(int shard, Supplier<T> command) {
+        Command<T> queued = new Command<>(command);
+        shards[shard].put(queued);
+        return queued.future;
+    }
+
+    /**
+     * Runs {@code command} on the shard and waits for its result. On the shard's own
+     * thread it runs inline.
+     *
+     * @throws IllegalStateException if called from another shard's thread
+     */
+    public <T> T execute(int shard, Supplier<T> command) {
+        int current = currentShard();
+        if (current == shard) {
+            return command.get();
+        }
+        rejectShardThread(current);
+        return await(submit(shard, command));
+    }
+
+    /**
+     * Runs {@code action} on the calling thread while every given shard is held idle, so
+     * it has exclusive access to their state. A single shard runs the action itself.
+     * The action must not submit work to the shards it holds.
+     *
+     * @throws IllegalStateException if called from a shard thread
+     */
+    public <T> T executeHolding(int[] shardIndexes, Supplier<T> action) {
+        int[] order = Arrays.stream(shardIndexes).distinct().sorted().toArray();
+        if (order.length == 1) {
+            return execute(order[0], action);
+        }
+        rejectShardThread(currentShard());
+        CountDownLatch released = new CountDownLatch(1);
+        try {
+            for (int shard : order) {
+                CountDownLatch holding = new CountDownLatch(1);
+                shards[shard].put(() -> {
+                    holding.countDown();
+                    awaitUninterruptibly(released);
+                });
+                awaitUninterruptibly(holding);
+            }
+            return action.get();
+        } finally {
+            released.countDown();
+        }
+    }
+
+    /**
+     * Stops every shard after the commands already queued on it have run.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for a command's future and returns its result, rethrowing the exception the
+     * command threw as is.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void rejectShardThread(int current) {
+        if (current >= 0) {
+            throw new IllegalStateException("Shard " + current + " cannot wait for another shard");
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Command<T> implements Runnable {
+        private final Supplier<T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(action.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static final class Shard implements Runnable {
+        private final int index;
+        private final RingBuffer<Runnable> ring;
+        private final Thread thread;
+        private volatile boolean accepting = true;
+        private boolean running = true;
+
+        private Shard(int index, int ringSize) {
+            this.index = index;
+            this.ring = new RingBuffer<>(ringSize);
+            this.thread = new Thread(this, "ledger-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void put(Runnable command) {
+            if (!accepting) {
+                throw new IllegalStateException("Ledger engine is closed");
+            }
+            ring.put(command);
+        }
+
+        private void stop() {
+            accepting = false;
+            ring.put(() -> running = false);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                if (ring.drain(Runnable::run, DRAIN_BATCH) > 0) {
+                    idle = 0;
+                } else if (++idle < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    try {
+                        ring.awaitPublished();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    idle = 0;
+                }
+            }
+            // Commands that raced with stop() still complete
+            ring.drain(Runnable::run, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.transaction.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts transfers by the path they took: single-step transfers, applied at once with
+ * exclusive access to both accounts, against cross-shard transfers that went through the
+ * debit, credit and refund legs, with the time those spent in the protocol.
+ */
+public class TransferMetrics {
+    private final LongAdder singleStep = new LongAdder();
+    private final LongAdder crossShard = new LongAdder();
+    private final LongAdder refunded = new LongAdder();
+    private final LongAdder crossShardNanos = new LongAdder();
+
+    public void recordSingleStep() {
+        singleStep.increment();
+    }
+
+    /**
+     * Records a cross-shard transfer that reached its credit leg.
+     */
+    public void recordCrossShard(long nanos) {
+        crossShard.increment();
+        crossShardNanos.add(nanos);
+    }
+
+    /**
+     * Records a cross-shard transfer whose held funds were refunded to the source.
+     */
+    public void recordRefunded(long nanos) {
+        refunded.increment();
+        crossShardNanos.add(nanos);
+    }
+
+    public long getSingleStepTransfers() {
+        return singleStep.sum();
+    }
+
+    public long getCrossShardTransfers() {
+        return crossShard.sum();
+    }
+
+    public long getRefundedTransfers() {
+        return refunded.sum();
+    }
+
+    /**
+     * Mean time a cross-shard transfer spent from its debit leg to its outcome, or zero.
+     */
+    public long getMeanCrossShardNanos() {
+        long count = crossShard.sum() + refunded.sum();
+        return count == 0 ? 0L : crossShardNanos.sum() / count;
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.domain.Account;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * A single journal entry: a transaction, one leg of a cross-shard transfer, an account
+ * opening or an account status change, together with the sequence number the journal
+ * assigned to it.
+ * On disk each record is framed as {@code [int length][int crc32][payload]} so that a
+ * torn write at the end of a segment is detected on recovery.
+ */
+public final class JournalRecord {
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * What a journal record describes.
+     */
+    public enum Kind {
+        TRANSACTION,
+        ACCOUNT_OPENED,
+        ACCOUNT_STATUS,
+        TRANSFER_LEG,
+        /** Internal marker asking the flusher to start a new segment; never written. */
+        ROLL
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final Transaction transaction;
+    private final Account account;
+    private final String accountId;
+    private final boolean active;
+    private final TransferLeg leg;
+
+    private JournalRecord(long sequence, Kind kind, Transaction transaction, Account account,
+                          String accountId, boolean active, TransferLeg leg) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.transaction = transaction;
+        this.account = account;
+        this.accountId = accountId;
+        this.active = active;
+        this.leg = leg;
+    }
+
+    public static JournalRecord transaction(long sequence, Transaction transaction) {
+        return new JournalRecord(sequence, Kind.TRANSACTION, transaction, null, transaction.getAccountId(), true, null);
+    }
+
+    /**
+     * A leg of a cross-shard transfer; its account is the destination for a credit and
+     * the source otherwise.
+     */
+    public static JournalRecord transferLeg(long sequence, TransferLeg leg, Transaction transaction) {
+        String accountId = leg == TransferLeg.CREDIT ? transaction.getRelatedAccountId() : transaction.getAccountId();
+        return new JournalRecord(sequence, Kind.TRANSFER_LEG, transaction, null, accountId, true, leg);
+    }
+
+    public static JournalRecord accountOpened(long sequence, Account account) {
+        return new JournalRecord(sequence, Kind.ACCOUNT_OPENED, null, account, account.getAccountId(), account.isActive(), null);
+    }
+
+    public static JournalRecord accountStatus(long sequence, String accountId, boolean active) {
+        return new JournalRecord(sequence, Kind.ACCOUNT_STATUS, null, null, accountId, active, null);
+    }
+
+    static JournalRecord roll(long firstSequenceOfNextSegment) {
+        return new JournalRecord(firstSequenceOfNextSegment, Kind.ROLL, null, null, null, false, null);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * The journaled transaction, for {@link Kind#TRANSACTION} and {@link Kind#TRANSFER_LEG} records.
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * The transfer step, for {@link Kind#TRANSFER_LEG} records.
+     */
+    public TransferLeg getLeg() {
+        return leg;
+    }
+
+    /**
+     * The account as opened, for {@link Kind#ACCOUNT_OPENED} records.
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * The new status, for {@link Kind#ACCOUNT_STATUS} records.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeByte(kind.ordinal());
+            switch (kind) {
+                case TRANSACTION:
+                    writeTransaction(out, transaction);
+                    break;
+                case TRANSFER_LEG:
+                    out.writeByte(leg.ordinal());
+                    writeTransaction(out, transaction);
+                    break;
+                case ACCOUNT_OPENED:
+                    writeAccount(out, account);
+                    break;
+                case ACCOUNT_STATUS:
+                    out.writeUTF(accountId);
+                    out.writeBoolean(active);
+                    break;
+                default:
+                    throw new IllegalStateException("Record kind " + kind + " is not written to disk");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        ByteBuffer framed = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        framed.putInt(payload.length);
+        framed.putInt(checksum(payload));
+        framed.put(payload);
+        return framed.array();
+    }
+
+    static JournalRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        int kind = in.readByte();
+        if (kind == Kind.TRANSACTION.ordinal()) {
+            return transaction(sequence, readTransaction(in));
+        }
+        if (kind == Kind.TRANSFER_LEG.ordinal()) {
+            TransferLeg leg = TransferLeg.values()[in.readByte()];
+            return transferLeg(sequence, leg, readTransaction(in));
+        }
+        if (kind == Kind.ACCOUNT_OPENED.ordinal()) {
+            return accountOpened(sequence, readAccount(in));
+        }
+        if (kind == Kind.ACCOUNT_STATUS.ordinal()) {
+            return accountStatus(sequence, in.readUTF(), in.readBoolean());
+        }
+        throw new IOException("Unknown journal record kind: " + kind);
+    }
+
+    static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeTransaction(DataOutputStream out, Transaction transaction) throws IOException {
+        out.writeUTF(transaction.getTransactionId());
+        out.writeUTF(transaction.getAccountId());
+        String related = transaction.getRelatedAccountId();
+        out.writeBoolean(related != null);
+        if (related != null) {
+            out.writeUTF(related);
+        }
+        out.writeByte(transaction.getType().ordinal());
+        out.writeLong(transaction.getAmount().toMinorUnits());
+        out.writeUTF(transaction.getAmount().getCurrency());
+        LocalDateTime timestamp = transaction.getTimestamp();
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+        out.writeUTF(transaction.getDescription());
+    }
+
+    private static Transaction readTransaction(DataInputStream in) throws IOException {
+        String transactionId = in.readUTF();
+        String accountId = in.readUTF();
+        String related = in.readBoolean() ? in.readUTF() : null;
+        TransactionType type = TransactionType.values()[in.readByte()];
+        long amountMinorUnits = in.readLong();
+        String currency = in.readUTF();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        String description = in.readUTF();
+        return new Transaction(transactionId, accountId, type,
+            Money.ofMinorUnits(amountMinorUnits, currency), timestamp, description, related);
+    }
+
+    private static void writeAccount(DataOutputStream out, Account account) throws IOException {
+        out.writeUTF(account.getAccountId());
+        out.writeUTF(account.getCustomerId());
+        out.writeByte(account.getAccountType().ordinal());
+        out.writeUTF(account.getCurrency());
+        out.writeLong(account.getBalanceMinorUnits());
+        out.writeBoolean(account.isActive());
+    }
+
+    private static Account readAccount(DataInputStream in) throws IOException {
+        String accountId = in.readUTF();
+        String customerId = in.readUTF();
+        AccountType accountType = AccountType.values()[in.readByte()];
+        String currency = in.readUTF();
+        long balanceMinorUnits = in.readLong();
+        boolean active = in.readBoolean();
+        return new Account(accountId, customerId, accountType, Money.ofMinorUnits(balanceMinorUnits, currency), active);
+    }
+}
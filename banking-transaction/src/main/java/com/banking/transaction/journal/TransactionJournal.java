@@ -0,0 +1,421 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountJournal;
+import com.banking.transaction.domain.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Durable write-ahead journal of transactions and account changes with group commit.
+ * Callers {@link #append} a record while holding the locks of the accounts it touches,
+ * which fixes its sequence number, then {@link #awaitDurable} after releasing them.
+ * A single flusher thread drains pending records in batches of up to
+ * {@code maxBatchSize}, writes each batch with one channel write and makes it durable
+ * with one {@link FileChannel#force}, so concurrent writers share a disk flush.
+ * <p>
+ * The flush interval is how long the flusher lingers after the first record of a batch
+ * arrives, waiting for more; zero flushes as soon as the previous flush completes.
+ * <p>
+ * The journal is a directory of segment files named after the first sequence number
+ * they hold. {@link #roll()} starts a new segment, so that a snapshot can mark where
+ * recovery starts applying records again; the older segments still hold the history.
+ */
+public class TransactionJournal implements AccountJournal, Closeable {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ZERO;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<JournalRecord> pending = new LinkedBlockingQueue<>();
+    // A lock rather than a monitor, so virtual threads waiting for a flush release their carrier
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition flushed = durableLock.newCondition();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private long nextSequence;
+    private volatile long durableSequence;
+    private volatile long flushCount;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    public TransactionJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    public TransactionJournal(Path directory, int maxBatchSize, Duration flushInterval) throws IOException {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (flushInterval == null || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Flush interval cannot be null or negative");
+        }
+        this.directory = directory;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        Files.createDirectories(directory);
+
+        // Reopen the newest segment after its last intact record, dropping any torn tail
+        List<Long> segments = segmentStarts(directory);
+        long firstSequence = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        this.channel = FileChannel.open(segmentPath(directory, firstSequence),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long[] lastSequence = {firstSequence - 1};
+        long validLength = scan(channel, record -> lastSequence[0] = record.getSequence());
+        channel.truncate(validLength);
+        channel.position(validLength);
+        this.nextSequence = lastSequence[0] + 1;
+        this.durableSequence = lastSequence[0];
+
+        this.flusher = new Thread(this::flushLoop, "transaction-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return Duration.ofNanos(flushIntervalNanos);
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Queues a transaction for the journal and returns its sequence number.
+     * Sequence numbers increase in append order, which is also the order on disk.
+     */
+    public long append(Transaction transaction) {
+        return enqueue(JournalRecord.Kind.TRANSACTION, transaction, null);
+    }
+
+    /**
+     * Queues one leg of a cross-shard transfer and returns its sequence number.
+     */
+    public synchronized long appendLeg(TransferLeg leg, Transaction transaction) {
+        checkWritable();
+        long sequence = nextSequence++;
+        pending.add(JournalRecord.transferLeg(sequence, leg, transaction));
+        return sequence;
+    }
+
+    /**
+     * Queues several transactions as consecutive records and returns the sequence number
+     * of the last one; the first is that number minus {@code transactions.size() - 1}.
+     */
+    public synchronized long appendAll(List<Transaction> transactions) {
+        checkWritable();
+        for (Transaction transaction : transactions) {
+            pending.add(JournalRecord.transaction(nextSequence++, transaction));
+        }
+        return nextSequence - 1;
+    }
+
+    @Override
+    public long appendAccountOpened(Account account) {
+        // Capture the opening state now; the flusher encodes it later
+        Account opened = new Account(account.getAccountId(), account.getCustomerId(), account.getAccountType(),
+            account.getBalance(), account.isActive());
+        return enqueue(JournalRecord.Kind.ACCOUNT_OPENED, null, opened);
+    }
+
+    @Override
+    public long appendAccountStatus(Account account) {
+        return enqueue(JournalRecord.Kind.ACCOUNT_STATUS, null, account);
+    }
+
+    /**
+     * Starts a new segment for all records appended after this call and returns the
+     * sequence number the new segment begins with.
+     */
+    public synchronized long roll() {
+        checkWritable();
+        pending.add(JournalRecord.roll(nextSequence));
+        return nextSequence;
+    }
+
+    /**
+     * Blocks until the record with the given sequence number has been forced to disk.
+     */
+    @Override
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                IOException error = failure;
+                if (error != null) {
+                    throw new UncheckedIOException("Journal write failed", error);
+                }
+                try {
+                    flushed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal flush", e);
+                }
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Reads every intact record with a sequence number of at least {@code fromSequence},
+     * in order, skipping segments that lie entirely before it.
+     */
+    public void replay(long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        replay(directory, fromSequence, consumer);
+    }
+
+    /**
+     * Deletes segments whose records all have sequence numbers below {@code sequence}.
+     */
+    public void deleteSegmentsBefore(long sequence) throws IOException {
+        List<Long> segments = segmentStarts(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1) <= sequence) {
+                Files.deleteIfExists(segmentPath(directory, segments.get(i)));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Reads every intact record of a journal directory with a sequence number of at least
+     * {@code fromSequence}, stopping each segment at its first torn or corrupt record.
+     */
+    public static void replay(Path directory, long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        List<Long> segments = segmentStarts(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segments.get(i + 1) <= fromSequence) {
+                continue;
+            }
+            try (FileChannel segment = FileChannel.open(segmentPath(directory, segments.get(i)), StandardOpenOption.READ)) {
+                scan(segment, record -> {
+                    if (record.getSequence() >= fromSequence) {
+                        consumer.accept(record);
+                    }
+                });
+            }
+        }
+    }
+
+    private synchronized long enqueue(JournalRecord.Kind kind, Transaction transaction, Account account) {
+        checkWritable();
+        long sequence = nextSequence++;
+        switch (kind) {
+            case TRANSACTION:
+                pending.add(JournalRecord.transaction(sequence, transaction));
+                break;
+            case ACCOUNT_OPENED:
+                pending.add(JournalRecord.accountOpened(sequence, account));
+                break;
+            default:
+                pending.add(JournalRecord.accountStatus(sequence, account.getAccountId(), account.isActive()));
+                break;
+        }
+        return sequence;
+    }
+
+    private void checkWritable() {
+        if (!running) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        IOException error = failure;
+        if (error != null) {
+            throw new UncheckedIOException("Journal is unavailable after a write failure", error);
+        }
+    }
+
+    private static List<Long> segmentStarts(Path directory) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return starts;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                starts.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private static Path segmentPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long scan(FileChannel channel, Consumer<JournalRecord> consumer) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        long size = channel.size();
+        long position = 0;
+        while (position + JournalRecord.HEADER_SIZE <= size) {
+            int length;
+            int crc;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                crc = in.readInt();
+                if (length <= 0 || position + JournalRecord.HEADER_SIZE + length > size) {
+                    break;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                break;
+            }
+            if (JournalRecord.checksum(payload) != crc) {
+                break;
+            }
+            consumer.accept(JournalRecord.decode(payload));
+            position += JournalRecord.HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private void flushLoop() {
+        List<JournalRecord> batch = new ArrayList<>(maxBatchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                JournalRecord first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Not interrupted by close(), which would abort an in-flight channel write
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<JournalRecord> batch) throws InterruptedException {
+        if (flushIntervalNanos == 0) {
+            pending.drainTo(batch, maxBatchSize - batch.size());
+            return;
+        }
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            JournalRecord next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            pending.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void write(List<JournalRecord> batch) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            List<byte[]> encoded = new ArrayList<>(batch.size());
+            long lastSequence = durableSequence;
+            for (JournalRecord record : batch) {
+                if (record.getKind() == JournalRecord.Kind.ROLL) {
+                    writeAndForce(encoded);
+                    encoded.clear();
+                    channel.close();
+                    channel = FileChannel.open(segmentPath(directory, record.getSequence()),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    channel.position(channel.size());
+                    continue;
+                }
+                encoded.add(record.encode());
+                lastSequence = record.getSequence();
+            }
+            writeAndForce(encoded);
+            flushCount++;
+            durableSequence = lastSequence;
+        } catch (IOException | RuntimeException e) {
+            failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+        durableLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void writeAndForce(List<byte[]> encoded) throws IOException {
+        if (encoded.isEmpty()) {
+            return;
+        }
+        int total = 0;
+        for (byte[] bytes : encoded) {
+            total += bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] bytes : encoded) {
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.transaction.journal;
+
+/**
+ * One step of a transfer between accounts owned by different shards, journaled by the
+ * shard that applies it. Each leg changes a single account, so every account still applies
+ * its journal records in sequence order.
+ */
+public enum TransferLeg {
+    /** Funds debited from the source and held in flight until the destination answers. */
+    DEBIT,
+    /** Funds credited to the destination; the transfer is complete. */
+    CREDIT,
+    /** Held funds returned to the source after the destination refused them. */
+    REFUND
+}
@@ -0,0 +1,233 @@
+package com.banking.transaction.persistence;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.journal.JournalRecord;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.journal.TransferLeg;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinates snapshots and the journal: takes periodic snapshots without stopping
+ * writers and recovers state on startup from the latest snapshot plus the journal tail.
+ * <p>
+ * A snapshot starts by rolling the journal, which fixes the base sequence: every record
+ * below it has already been applied in memory. Accounts are then captured one at a time
+ * under their own locks, each with the sequence of the last record applied to it.
+ * Recovery replays records from the base sequence and applies each one only to accounts
+ * whose captured sequence is older, so changes made while the snapshot was running are
+ * neither lost nor applied twice. Once a snapshot is durable, older snapshots are deleted,
+ * so balance replay depends on the tail rather than the full history.
+ * <p>
+ * Journal segments are never deleted: they are the only durable copy of transaction
+ * history, which a snapshot does not hold. Records before the base sequence are read back
+ * into the transaction store without touching balances, so every acknowledged transaction
+ * can still be looked up and listed after a restart.
+ * <p>
+ * Cross-shard transfers are journaled as legs, and recovery settles every transfer whose
+ * debit leg has no credit or refund after it.
+ */
+public class LedgerPersistence implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LedgerPersistence.class.getName());
+
+    private final SnapshotStore snapshotStore;
+    private final TransactionJournal journal;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private ScheduledExecutorService scheduler;
+
+    public LedgerPersistence(SnapshotStore snapshotStore, TransactionJournal journal,
+                             AccountService accountService, TransactionService transactionService) {
+        if (snapshotStore == null || journal == null || accountService == null || transactionService == null) {
+            throw new IllegalArgumentException("Snapshot store, journal and services cannot be null");
+        }
+        this.snapshotStore = snapshotStore;
+        this.journal = journal;
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Loads the latest snapshot and replays the journal tail after it into the services,
+     * which must be empty, restoring the history recorded before it along the way, then
+     * settles cross-shard transfers left in flight. Returns the number of journal records
+     * replayed from the tail. A transfer that can be neither credited nor refunded fails
+     * recovery rather than leaving the ledger short.
+     */
+    public long recover() throws IOException {
+        long baseSequence = snapshotStore.loadLatest(accountService::restoreAccount);
+        long[] replayed = {0};
+        Map<String, Transaction> unsettled = new LinkedHashMap<>();
+        journal.replay(0, record -> {
+            if (record.getKind() == JournalRecord.Kind.TRANSFER_LEG) {
+                String transactionId = record.getTransaction().getTransactionId();
+                if (record.getLeg() == TransferLeg.DEBIT) {
+                    unsettled.put(transactionId, record.getTransaction());
+                } else {
+                    unsettled.remove(transactionId);
+                }
+            }
+            if (record.getSequence() >= baseSequence) {
+                apply(record);
+                replayed[0]++;
+            } else {
+                restoreHistory(record);
+            }
+        });
+        for (Transaction transaction : unsettled.values()) {
+            boolean credited = transactionService.settleTransfer(transaction);
+            LOGGER.info("Settled in-flight transfer " + transaction.getTransactionId()
+                + (credited ? " by crediting the destination" : " by refunding the source"));
+        }
+        return replayed[0];
+    }
+
+    /**
+     * Takes a snapshot while writers keep running, then deletes the snapshots it
+     * supersedes. Returns the snapshot's base sequence, from which recovery replays.
+     */
+    public synchronized long takeSnapshot() throws IOException {
+        long baseSequence = journal.roll();
+        snapshotStore.write(baseSequence, accountService);
+        snapshotStore.deleteOlderThan(baseSequence);
+        return baseSequence;
+    }
+
+    /**
+     * Takes a snapshot every {@code interval} on a background thread.
+     */
+    public synchronized void startSnapshots(Duration interval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Snapshots already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Snapshot failed; the journal still holds every change", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        long sequence = record.getSequence();
+        switch (record.getKind()) {
+            case ACCOUNT_OPENED:
+                if (!accountService.hasAccount(record.getAccountId())) {
+                    Account account = record.getAccount();
+                    account.markJournaled(sequence);
+                    accountService.restoreAccount(account);
+                }
+                break;
+            case ACCOUNT_STATUS:
+                Account account = accountService.getAccount(record.getAccountId());
+                if (account.getJournalSequence() < sequence) {
+                    if (record.isActive()) {
+                        account.activate();
+                    } else {
+                        account.deactivate();
+                    }
+                    account.markJournaled(sequence);
+                }
+                break;
+            case TRANSACTION:
+                applyTransaction(record.getTransaction(), sequence);
+                break;
+            case TRANSFER_LEG:
+                applyLeg(record.getLeg(), record.getTransaction(), sequence);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Stores a transaction recorded before the snapshot, whose effect on balances the
+     * snapshot already holds.
+     */
+    private void restoreHistory(JournalRecord record) {
+        if (record.getKind() == JournalRecord.Kind.TRANSACTION
+                || record.getKind() == JournalRecord.Kind.TRANSFER_LEG && record.getLeg() == TransferLeg.CREDIT) {
+            transactionService.restoreTransaction(record.getTransaction());
+        }
+    }
+
+    private void applyTransaction(Transaction transaction, long sequence) {
+        long amount = transaction.getAmount().toMinorUnits();
+        switch (transaction.getType()) {
+            case WITHDRAWAL:
+                debit(transaction.getAccountId(), amount, sequence);
+                break;
+            case TRANSFER:
+                debit(transaction.getAccountId(), amount, sequence);
+                credit(transaction.getRelatedAccountId(), amount, sequence);
+                break;
+            default:
+                credit(transaction.getAccountId(), amount, sequence);
+                break;
+        }
+        transactionService.restoreTransaction(transaction);
+    }
+
+    private void applyLeg(TransferLeg leg, Transaction transaction, long sequence) {
+        long amount = transaction.getAmount().toMinorUnits();
+        switch (leg) {
+            case DEBIT:
+                debit(transaction.getAccountId(), amount, sequence);
+                break;
+            case CREDIT:
+                credit(transaction.getRelatedAccountId(), amount, sequence);
+                transactionService.restoreTransaction(transaction);
+                break;
+            default:
+                Account account = accountService.getAccount(transaction.getAccountId());
+                if (account.getJournalSequence() < sequence) {
+                    account.refundMinorUnits(amount);
+                    account.markJournaled(sequence);
+                }
+                break;
+        }
+    }
+
+    private void credit(String accountId, long amount, long sequence) {
+        Account account = accountService.getAccount(accountId);
+        if (account.getJournalSequence() < sequence) {
+            account.depositMinorUnits(amount);
+            account.markJournaled(sequence);
+        }
+    }
+
+    private void debit(String accountId, long amount, long sequence) {
+        Account account = accountService.getAccount(accountId);
+        if (account.getJournalSequence() < sequence) {
+            account.withdrawMinorUnits(amount);
+            account.markJournaled(sequence);
+        }
+    }
+}
@@ -1,78 +1,473 @@
 package com.banking.transaction.service;
 
+import com.banking.account.concurrent.AccountLocks;
 import com.banking.account.domain.Account;
+import com.banking.account.domain.BalanceSnapshot;
 import com.banking.account.service.AccountService;
 import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
 import com.banking.core.domain.TransactionType;
 import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.LatencyMetrics;
+import com.banking.core.util.Cursors;
+import com.banking.core.util.Page;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
+import com.banking.transaction.engine.ShardedAccountLocks;
+import com.banking.transaction.engine.TransferMetrics;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.journal.TransferLeg;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import com.banking.transaction.store.TransactionStore;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Service for processing banking transactions.
+ * Balance changes run under the account stripe locks shared with {@link AccountService},
+ * so concurrent operations on different accounts proceed in parallel and a transfer
+ * is applied atomically with respect to both of its accounts.
+ * Account ids are resolved to registry handles once per call; transactions are recorded
+ * with the accounts' canonical id strings and stored under their handles.
+ * Recorded transactions live in a {@link TransactionStore}, which keeps each account's
+ * history in an append-only index written under the account's lock, so history reads are
+ * already in time order and never scan or sort; a global recording order does the same
+ * for full listings and exports.
+ * With a {@link TransactionJournal}, every change is journaled under the same locks and
+ * only acknowledged once the journal has made it durable. A change the journal refuses is
+ * reversed before its locks are released and is never stored.
+ * <p>
+ * On {@link ShardedAccountLocks}, a transfer between accounts of one shard still runs as
+ * one step on that shard. A transfer between shards runs in legs, each applied and
+ * journaled by the shard owning its account: the source's shard debits the funds and
+ * holds them in flight, then the destination's shard credits them, or, if the destination
+ * refuses them, the source's shard refunds them and the refusal is rethrown. Such a
+ * transfer is recorded once, by the destination's shard as it credits, so it is the one
+ * exception to commit-ordered histories: in the source's history it takes its place at the
+ * credit, after changes the source's shard made while the funds were in flight.
+ * <p>
+ * With optimistic updates enabled, deposits and withdrawals first try to change the balance
+ * without the lock: they read a {@link BalanceSnapshot} and compare-and-set the new balance,
+ * retrying a bounded number of times when another update wins the race, and fall back to
+ * the locked path when the attempts run out, when the account's lock is held, or when the
+ * change must be refused. Such a change is recorded after it is applied, so concurrent
+ * changes to one account may appear in its history in either order. Optimistic updates
+ * are unavailable with a journal, whose records must follow the order of the changes, and
+ * on {@link ShardedAccountLocks}, where each account already has a single writer.
+ * <p>
+ * Deposits to a {@linkplain AccountService#makeHot(String) hot} account never take its
+ * lock: they land in the account's credit cells, which any number of threads update at
+ * once. Withdrawals still lock, and fold the cells into the balance when they need them.
+ * <p>
+ * {@link #tryWithdraw} and {@link #tryTransfer} report a missing or inactive account or
+ * insufficient funds with a {@link TransactionResult} rather than an exception, so a
+ * decline costs no stack trace; {@link #withdraw} and {@link #transfer} throw as before.
  */
 public class TransactionService {
+    private static final String HISTORY_CURSOR = "history";
+
     private final AccountService accountService;
-    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final AccountLocks accountLocks;
+    private final TransactionJournal journal;
+    private final TransactionStore store;
+    private final int optimisticAttempts;
+    private final TransferMetrics transferMetrics = new TransferMetrics();
+    private final LatencyMetrics latencyMetrics = new LatencyMetrics();
+    private final LatencyHistogram depositLatency = latencyMetrics.histogram("deposit");
+    private final LatencyHistogram withdrawLatency = latencyMetrics.histogram("withdraw");
+    private final LatencyHistogram transferLatency = latencyMetrics.histogram("transfer");
+    private final LatencyHistogram batchLatency = latencyMetrics.histogram("batch");
+    private final LatencyHistogram historyLatency = latencyMetrics.histogram("history");
+    private final LatencyHistogram historyPageLatency = latencyMetrics.histogram("historyPage");
+    private final Map<String, Long> transfersInFlight = new ConcurrentHashMap<>();
 
     public TransactionService(AccountService accountService) {
+        this(accountService, null);
+    }
+
+    /**
+     * Creates a service that journals every change; a {@code null} journal keeps
+     * transactions in memory only.
+     */
+    public TransactionService(AccountService accountService, TransactionJournal journal) {
+        this(accountService, journal, new InMemoryTransactionStore());
+    }
+
+    public TransactionService(AccountService accountService, TransactionJournal journal, TransactionStore store) {
+        this(accountService, journal, store, 0);
+    }
+
+    /**
+     * Creates a service that tries each deposit and withdrawal up to
+     * {@code optimisticAttempts} times without the account lock before taking it; zero
+     * always takes the lock.
+     *
+     * @throws IllegalArgumentException if optimistic updates are requested with a journal,
+     *                                  on sharded account locks or on an off-heap account table
+     */
+    public TransactionService(AccountService accountService, TransactionJournal journal, TransactionStore store,
+                              int optimisticAttempts) {
         if (accountService == null) {
             throw new IllegalArgumentException("AccountService cannot be null");
         }
+        if (store == null) {
+            throw new IllegalArgumentException("TransactionStore cannot be null");
+        }
+        if (optimisticAttempts < 0) {
+            throw new IllegalArgumentException("Optimistic attempts cannot be negative");
+        }
+        if (optimisticAttempts > 0 && journal != null) {
+            throw new IllegalArgumentException("Optimistic updates cannot be journaled");
+        }
+        if (optimisticAttempts > 0 && accountService.getAccountLocks() instanceof ShardedAccountLocks) {
+            throw new IllegalArgumentException("Optimistic updates need striped account locks");
+        }
+        if (optimisticAttempts > 0 && accountService.getAccountTable() != null) {
+            // An off-heap slot compares the balance alone, so a deactivation racing the
+            // compare-and-set would go unnoticed.
+            throw new IllegalArgumentException("Optimistic updates need heap-held accounts");
+        }
         this.accountService = accountService;
+        this.accountLocks = accountService.getAccountLocks();
+        this.journal = journal;
+        this.store = store;
+        this.optimisticAttempts = optimisticAttempts;
     }
 
     public Transaction deposit(String accountId, Money amount, String description) {
+        long start = System.nanoTime();
+        try {
+            return applyDeposit(accountId, amount, description);
+        } finally {
+            depositLatency.recordSince(start);
+        }
+    }
+
+    private Transaction applyDeposit(String accountId, Money amount, String description) {
         Account account = accountService.getAccount(accountId);
-        account.deposit(amount);
-        Transaction transaction = new Transaction(accountId, TransactionType.DEPOSIT, amount, description);
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        Transaction transaction = new Transaction(account.getAccountId(), TransactionType.DEPOSIT, amount, description);
+        if (journal == null && account.isHot()) {
+            account.deposit(amount);
+            index(transaction, account, null);
+            return transaction;
+        }
+        if (updateOptimistically(account, amount, true)) {
+            index(transaction, account, null);
+            return transaction;
+        }
+        long sequence = accountLocks.withLock(account.getAccountId(), () -> {
+            account.deposit(amount);
+            long minorUnits = account.toMinorUnits(amount);
+            return record(transaction, account, null, () -> account.withdrawMinorUnits(minorUnits));
+        });
+        return acknowledge(transaction, sequence);
     }
 
     public Transaction withdraw(String accountId, Money amount, String description) {
-        Account account = accountService.getAccount(accountId);
-        account.withdraw(amount);
-        Transaction transaction = new Transaction(accountId, TransactionType.WITHDRAWAL, amount, description);
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        return orThrow(tryWithdraw(accountId, amount, description), amount);
+    }
+
+    /**
+     * Withdraws like {@link #withdraw}, but reports a missing or inactive account or
+     * insufficient funds as a declined result instead of throwing. Both check in the same
+     * order: the account exists, it is active, the amount is valid, the funds suffice.
+     *
+     * @throws IllegalArgumentException if the account is active but the amount is not
+     *                                  positive or in another currency
+     */
+    public TransactionResult tryWithdraw(String accountId, Money amount, String description) {
+        long start = System.nanoTime();
+        try {
+            return applyWithdrawal(accountId, amount, description);
+        } finally {
+            withdrawLatency.recordSince(start);
+        }
+    }
+
+    private TransactionResult applyWithdrawal(String accountId, Money amount, String description) {
+        Account account = accountService.findAccount(accountId).orElse(null);
+        if (account == null) {
+            return TransactionResult.declined(OperationStatus.ACCOUNT_NOT_FOUND, accountId);
+        }
+        if (!account.isActive()) {
+            return TransactionResult.declined(OperationStatus.ACCOUNT_INACTIVE, account.getAccountId());
+        }
+        if (amount == null || amount.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        long minorUnits = account.toMinorUnits(amount);
+        Transaction transaction = new Transaction(account.getAccountId(), TransactionType.WITHDRAWAL, amount, description);
+        if (updateOptimistically(account, amount, false)) {
+            index(transaction, account, null);
+            return TransactionResult.applied(transaction);
+        }
+        long[] sequence = new long[1];
+        OperationStatus status = accountLocks.withLock(account.getAccountId(), () -> {
+            OperationStatus withdrawn = account.tryWithdrawMinorUnits(minorUnits);
+            if (withdrawn == OperationStatus.APPLIED) {
+                sequence[0] = record(transaction, account, null, () -> account.refundMinorUnits(minorUnits));
+            }
+            return withdrawn;
+        });
+        if (status != OperationStatus.APPLIED) {
+            return TransactionResult.declined(status, account.getAccountId());
+        }
+        return TransactionResult.applied(acknowledge(transaction, sequence[0]));
     }
 
     public Transaction transfer(String fromAccountId, String toAccountId, Money amount, String description) {
-        Account fromAccount = accountService.getAccount(fromAccountId);
-        Account toAccount = accountService.getAccount(toAccountId);
+        return orThrow(tryTransfer(fromAccountId, toAccountId, amount, description), amount);
+    }
 
-        // Withdraw from source account
-        fromAccount.withdraw(amount);
-        
-        // Deposit to destination account
-        toAccount.deposit(amount);
+    /**
+     * Transfers like {@link #transfer}, but reports a missing or inactive account or
+     * insufficient funds as a declined result instead of throwing. Both check in the same
+     * order: both accounts exist, the source is active, the amount is valid, the funds
+     * suffice, the destination is active.
+     *
+     * @throws IllegalArgumentException if the source is active but the amount is not
+     *                                  positive or the accounts' currencies differ
+     */
+    public TransactionResult tryTransfer(String fromAccountId, String toAccountId, Money amount, String description) {
+        long start = System.nanoTime();
+        try {
+            return applyTransfer(fromAccountId, toAccountId, amount, description);
+        } finally {
+            transferLatency.recordSince(start);
+        }
+    }
 
-        // Create transaction record
+    private TransactionResult applyTransfer(String fromAccountId, String toAccountId, Money amount, String description) {
+        Account fromAccount = accountService.findAccount(fromAccountId).orElse(null);
+        if (fromAccount == null) {
+            return TransactionResult.declined(OperationStatus.ACCOUNT_NOT_FOUND, fromAccountId);
+        }
+        Account toAccount = accountService.findAccount(toAccountId).orElse(null);
+        if (toAccount == null) {
+            return TransactionResult.declined(OperationStatus.ACCOUNT_NOT_FOUND, toAccountId);
+        }
+        if (!fromAccount.isActive()) {
+            return TransactionResult.declined(OperationStatus.ACCOUNT_INACTIVE, fromAccount.getAccountId());
+        }
+        if (amount == null || amount.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (fromAccount.getCurrencyCode() != toAccount.getCurrencyCode()) {
+            throw new IllegalArgumentException("Cannot transfer between accounts in different currencies");
+        }
+        long minorUnits = fromAccount.toMinorUnits(amount);
         Transaction transaction = new Transaction(
-            fromAccountId, 
-            TransactionType.TRANSFER, 
-            amount, 
+            fromAccount.getAccountId(),
+            TransactionType.TRANSFER,
+            amount,
             description,
-            toAccountId
+            toAccount.getAccountId()
         );
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        if (crossesShards(fromAccount, toAccount)) {
+            return transferAcrossShards(transaction, fromAccount, toAccount, minorUnits);
+        }
+
+        long[] sequence = new long[1];
+        TransactionResult declined = accountLocks.withLocks(fromAccount.getAccountId(), toAccount.getAccountId(), () -> {
+            // Withdraw from source account
+            OperationStatus withdrawn = fromAccount.tryWithdrawMinorUnits(minorUnits);
+            if (withdrawn != OperationStatus.APPLIED) {
+                return TransactionResult.declined(withdrawn, fromAccount.getAccountId());
+            }
+
+            // Deposit to destination account, undoing the withdrawal if it is rejected
+            if (!toAccount.isActive()) {
+                fromAccount.refundMinorUnits(minorUnits);
+                return TransactionResult.declined(OperationStatus.ACCOUNT_INACTIVE, toAccount.getAccountId());
+            }
+            try {
+                toAccount.depositMinorUnits(minorUnits);
+            } catch (RuntimeException e) {
+                fromAccount.refundMinorUnits(minorUnits);
+                throw e;
+            }
+
+            sequence[0] = record(transaction, fromAccount, toAccount, () -> {
+                toAccount.withdrawMinorUnits(minorUnits);
+                fromAccount.refundMinorUnits(minorUnits);
+            });
+            return null;
+        });
+        if (declined != null) {
+            return declined;
+        }
+        transferMetrics.recordSingleStep();
+        return TransactionResult.applied(acknowledge(transaction, sequence[0]));
+    }
+
+    /**
+     * Completes a cross-shard transfer found in the journal with a debit leg but no outcome,
+     * crediting the destination or, if it refuses or the credit fails before it applies,
+     * refunding the source. Returns {@code true} if the destination was credited and
+     * {@code false} once the refund is durable. A failed refund propagates, leaving the
+     * transfer unsettled, and so does a failure after the credit applied, which is never
+     * refunded.
+     */
+    public boolean settleTransfer(Transaction transaction) {
+        Account fromAccount = accountService.getAccount(transaction.getAccountId());
+        Account toAccount = accountService.getAccount(transaction.getRelatedAccountId());
+        long minorUnits = fromAccount.toMinorUnits(transaction.getAmount());
+        long start = System.nanoTime();
+        long[] sequence = new long[1];
+        boolean[] applied = new boolean[1];
+        boolean credited;
+        try {
+            credited = creditHeld(transaction, fromAccount, toAccount, minorUnits, sequence, applied);
+        } catch (RuntimeException e) {
+            if (applied[0]) {
+                transfersInFlight.remove(transaction.getTransactionId());
+                throw e;
+            }
+            // The funds are still held for the source, so refunding them settles the transfer
+            credited = false;
+        }
+        if (!credited) {
+            refund(transaction, fromAccount, minorUnits, start);
+            return false;
+        }
+        completeCredit(transaction, sequence[0], start);
+        return true;
+    }
+
+    /**
+     * Journal sequence of the oldest debit leg whose transfer has no outcome yet, or
+     * {@link Long#MAX_VALUE} if none is in flight. The journal must be kept from there for
+     * recovery to settle it.
+     */
+    public long getOldestTransferInFlight() {
+        long oldest = Long.MAX_VALUE;
+        for (long sequence : transfersInFlight.values()) {
+            oldest = Math.min(oldest, sequence);
+        }
+        return oldest;
+    }
+
+    public TransferMetrics getTransferMetrics() {
+        return transferMetrics;
+    }
+
+    /**
+     * Latency of each public operation, declined and failed calls included; withdrawals
+     * and transfers are recorded once whether they throw or return a result.
+     */
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    /**
+     * Applies a batch of operations while holding the locks of every account it touches,
+     * acquired once, then journals the resulting transactions in one append and waits for
+     * durability once. Results are returned in submission order. In
+     * {@link BatchMode#ALL_OR_NOTHING} mode a single failure undoes the operations already
+     * applied and nothing is recorded.
+     */
+    public List<BatchItemResult> executeBatch(List<BatchOperation> operations, BatchMode mode) {
+        long start = System.nanoTime();
+        try {
+            return runBatch(operations, mode);
+        } finally {
+            batchLatency.recordSince(start);
+        }
+    }
+
+    private List<BatchItemResult> runBatch(List<BatchOperation> operations, BatchMode mode) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Batch mode cannot be null");
+        }
+        BatchItemResult[] results = new BatchItemResult[operations.size()];
+        List<PreparedOperation> prepared = new ArrayList<>(operations.size());
+        Set<String> accountIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            try {
+                PreparedOperation operation = prepare(i, operations.get(i));
+                prepared.add(operation);
+                accountIds.add(operation.account.getAccountId());
+                if (operation.relatedAccount != null) {
+                    accountIds.add(operation.relatedAccount.getAccountId());
+                }
+            } catch (RuntimeException e) {
+                results[i] = BatchItemResult.failed(i, e.getMessage());
+            }
+        }
+        if (mode == BatchMode.ALL_OR_NOTHING && prepared.size() < operations.size()) {
+            return rejectRemaining(results);
+        }
+        if (!prepared.isEmpty()) {
+            long sequence = accountLocks.withAllLocks(accountIds, () -> applyBatch(prepared, mode, results));
+            if (journal != null && sequence > 0) {
+                journal.awaitDurable(sequence);
+            }
+        }
+        return Arrays.asList(results);
     }
 
     public List<Transaction> getTransactionsByAccount(String accountId) {
-        return transactions.values().stream()
-                .filter(t -> t.getAccountId().equals(accountId) || 
-                           (t.getRelatedAccountId() != null && t.getRelatedAccountId().equals(accountId)))
-                .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
-                .collect(Collectors.toList());
+        return getRecentTransactions(accountId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} of the account's most recent transactions, newest first.
+     */
+    public List<Transaction> getRecentTransactions(String accountId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return readHistory(accountId, limit);
+        } finally {
+            historyLatency.recordSince(start);
+        }
+    }
+
+    private List<Transaction> readHistory(String accountId, int limit) {
+        int handle = accountService.handleOf(accountId);
+        return handle < 0 ? new ArrayList<>() : store.newestFirst(handle, Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} of the account's transactions, newest first, continuing
+     * from the page the cursor was issued for, or from the newest if {@code cursor} is
+     * {@code null}. Transactions recorded after the first page was read appear on a new
+     * first page rather than shifting later pages.
+     */
+    public Page<Transaction> getTransactions(String accountId, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            return readHistoryPage(accountId, cursor, limit);
+        } finally {
+            historyPageLatency.recordSince(start);
+        }
+    }
+
+    private Page<Transaction> readHistoryPage(String accountId, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int handle = accountService.handleOf(accountId);
+        int size = handle < 0 ? 0 : store.historySize(handle);
+        long before = cursor == null ? size : Cursors.decode(HISTORY_CURSOR, cursor);
+        int end = (int) Math.min(before, size);
+        List<Transaction> items = handle < 0 ? new ArrayList<>() : store.newestFirst(handle, end, limit);
+        int next = end - items.size();
+        return new Page<>(items, next > 0 ? Cursors.encode(HISTORY_CURSOR, next) : null);
     }
 
     public Transaction getTransaction(String transactionId) {
-        Transaction transaction = transactions.get(transactionId);
+        Transaction transaction = store.get(transactionId);
         if (transaction == null) {
             throw new IllegalArgumentException("Transaction not found: " + transactionId);
         }
@@ -80,12 +475,408 @@ public class TransactionService {
     }
 
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactions.values());
+        return store.oldestFirst(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Visits transactions in the order they were recorded without copying them, optionally
+     * restricted to one account and to timestamps from {@code from} (inclusive) to
+     * {@code to} (exclusive); {@code null} leaves that bound open. Transactions recorded
+     * while the visit runs are not included.
+     */
+    public void forEachTransaction(String accountId, LocalDateTime from, LocalDateTime to,
+                                   Consumer<Transaction> action) {
+        int handle = TransactionStore.NO_ACCOUNT;
+        if (accountId != null) {
+            handle = accountService.handleOf(accountId);
+            if (handle < 0) {
+                return;
+            }
+        }
+        if (from == null && to == null) {
+            store.forEach(handle, action);
+            return;
+        }
+        store.forEach(handle, transaction -> {
+            LocalDateTime timestamp = transaction.getTimestamp();
+            if ((from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to))) {
+                action.accept(transaction);
+            }
+        });
     }
 
     public Money calculateAccountBalance(String accountId) {
         Account account = accountService.getAccount(accountId);
         return account.getBalance();
     }
-}
 
+    /**
+     * Registers a transaction recovered from the journal, without journaling it again.
+     * Balances are restored separately by the recovery process.
+     */
+    public void restoreTransaction(Transaction transaction) {
+        Account account = accountService.getAccount(transaction.getAccountId());
+        Account relatedAccount = transaction.getRelatedAccountId() == null
+            ? null : accountService.getAccount(transaction.getRelatedAccountId());
+        index(transaction, account, relatedAccount);
+    }
+
+    /**
+     * Queues a transaction already applied to its accounts on the journal, then stores it
+     * and appends it to the history of each account it touches, returning its journal
+     * sequence (zero without a journal). If the journal refuses the record, runs
+     * {@code undo} to reverse the change and rethrows, leaving nothing stored, so no other
+     * thread ever sees a change the journal does not hold. Must be called while holding the
+     * locks of those accounts.
+     */
+    private long record(Transaction transaction, Account account, Account relatedAccount, Runnable undo) {
+        long sequence = 0L;
+        if (journal != null) {
+            try {
+                sequence = journal.append(transaction);
+            } catch (RuntimeException e) {
+                undo.run();
+                throw e;
+            }
+            account.markJournaled(sequence);
+            if (relatedAccount != null) {
+                relatedAccount.markJournaled(sequence);
+            }
+        }
+        index(transaction, account, relatedAccount);
+        return sequence;
+    }
+
+    /**
+     * Credits or debits {@code amount} without the account lock, making up to the configured
+     * number of compare-and-set attempts. Returns {@code false}, having changed nothing, if
+     * the attempts run out or the change has to go through the locked path instead: the
+     * account's lock is held by work that may still be undone, or the change would be
+     * refused there (invalid amount, inactive account, insufficient funds).
+     */
+    private boolean updateOptimistically(Account account, Money amount, boolean credit) {
+        if (optimisticAttempts == 0 || amount.getAmount().signum() <= 0
+                || amount.getCurrencyCode() != account.getCurrencyCode()) {
+            return false;
+        }
+        long minorUnits = account.toMinorUnits(amount);
+        for (int attempt = 0; attempt < optimisticAttempts; attempt++) {
+            BalanceSnapshot current = account.readBalance();
+            if (!account.isActive() || accountLocks.isLocked(account.getAccountId())) {
+                return false;
+            }
+            long balance = current.getBalanceMinorUnits();
+            if (!credit && balance < minorUnits) {
+                return false;
+            }
+            long updated = credit ? Math.addExact(balance, minorUnits) : balance - minorUnits;
+            if (account.compareAndSetBalance(current, updated)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean crossesShards(Account fromAccount, Account toAccount) {
+        return accountLocks instanceof ShardedAccountLocks
+            && !((ShardedAccountLocks) accountLocks).sameShard(fromAccount.getAccountId(), toAccount.getAccountId());
+    }
+
+    private TransactionResult transferAcrossShards(Transaction transaction, Account fromAccount, Account toAccount,
+                                                   long minorUnits) {
+        long start = System.nanoTime();
+        OperationStatus withdrawn = accountLocks.withLock(fromAccount.getAccountId(), () -> {
+            OperationStatus status = fromAccount.tryWithdrawMinorUnits(minorUnits);
+            if (status == OperationStatus.APPLIED) {
+                long sequence;
+                try {
+                    sequence = journalLeg(TransferLeg.DEBIT, transaction, fromAccount);
+                } catch (RuntimeException e) {
+                    fromAccount.refundMinorUnits(minorUnits);
+                    throw e;
+                }
+                if (journal != null) {
+                    transfersInFlight.put(transaction.getTransactionId(), sequence);
+                }
+            }
+            return status;
+        });
+        if (withdrawn != OperationStatus.APPLIED) {
+            return TransactionResult.declined(withdrawn, fromAccount.getAccountId());
+        }
+        return settle(transaction, fromAccount, toAccount, minorUnits, start);
+    }
+
+    /**
+     * Credits held funds to the destination once the credit is durable. If the destination
+     * is inactive, refunds the source and returns the decline once the refund is durable;
+     * if the credit fails before it applies, refunds the source the same way and rethrows.
+     * A failure after the credit applied is rethrown without a refund, since the
+     * destination already holds the funds.
+     */
+    private TransactionResult settle(Transaction transaction, Account fromAccount, Account toAccount,
+                                     long minorUnits, long start) {
+        long[] sequence = new long[1];
+        boolean[] applied = new boolean[1];
+        boolean credited;
+        try {
+            credited = creditHeld(transaction, fromAccount, toAccount, minorUnits, sequence, applied);
+        } catch (RuntimeException e) {
+            if (applied[0]) {
+                transfersInFlight.remove(transaction.getTransactionId());
+            } else {
+                refund(transaction, fromAccount, minorUnits, start);
+            }
+            throw e;
+        }
+        if (!credited) {
+            refund(transaction, fromAccount, minorUnits, start);
+            return TransactionResult.declined(OperationStatus.ACCOUNT_INACTIVE, toAccount.getAccountId());
+        }
+        return TransactionResult.applied(completeCredit(transaction, sequence[0], start));
+    }
+
+    /**
+     * On the destination's shard, credits held funds, journals the credit leg, storing its
+     * sequence in {@code sequence}, and records the transfer for both accounts. Returns
+     * {@code false}, changing nothing, if the destination is inactive. Sets
+     * {@code applied} once the credit is journaled: a failure before that leaves the
+     * destination unchanged, one after it leaves the credit in place.
+     */
+    private boolean creditHeld(Transaction transaction, Account fromAccount, Account toAccount, long minorUnits,
+                               long[] sequence, boolean[] applied) {
+        return accountLocks.withLock(toAccount.getAccountId(), () -> {
+            if (!toAccount.isActive()) {
+                return false;
+            }
+            toAccount.depositMinorUnits(minorUnits);
+            try {
+                sequence[0] = journalLeg(TransferLeg.CREDIT, transaction, toAccount);
+            } catch (RuntimeException e) {
+                toAccount.withdrawMinorUnits(minorUnits);
+                throw e;
+            }
+            applied[0] = true;
+            index(transaction, fromAccount, toAccount);
+            return true;
+        });
+    }
+
+    private Transaction completeCredit(Transaction transaction, long sequence, long start) {
+        transfersInFlight.remove(transaction.getTransactionId());
+        transferMetrics.recordCrossShard(System.nanoTime() - start);
+        return acknowledge(transaction, sequence);
+    }
+
+    private void refund(Transaction transaction, Account fromAccount, long minorUnits, long start) {
+        long sequence = accountLocks.withLock(fromAccount.getAccountId(), () -> {
+            fromAccount.refundMinorUnits(minorUnits);
+            return journalLeg(TransferLeg.REFUND, transaction, fromAccount);
+        });
+        transfersInFlight.remove(transaction.getTransactionId());
+        transferMetrics.recordRefunded(System.nanoTime() - start);
+        acknowledge(transaction, sequence);
+    }
+
+    /**
+     * Returns the transaction of an applied result, or throws the exception the throwing
+     * API has always used for the decline.
+     */
+    private Transaction orThrow(TransactionResult result, Money amount) {
+        if (result.isApplied()) {
+            return result.getTransaction();
+        }
+        String accountId = result.getDeclinedAccountId();
+        switch (result.getStatus()) {
+            case ACCOUNT_NOT_FOUND:
+                throw new InvalidAccountException("Account not found: " + accountId);
+            case ACCOUNT_INACTIVE:
+                throw new InvalidAccountException("Account " + accountId + " is not active");
+            default:
+                throw new InsufficientFundsException(String.format("Insufficient funds. Balance: %s, Requested: %s",
+                    accountService.getBalance(accountId), amount));
+        }
+    }
+
+    /**
+     * Journals one leg of a cross-shard transfer against the account it changed, returning
+     * its sequence (zero without a journal). Must be called while owning that account.
+     */
+    private long journalLeg(TransferLeg leg, Transaction transaction, Account account) {
+        if (journal == null) {
+            return 0L;
+        }
+        long sequence = journal.appendLeg(leg, transaction);
+        account.markJournaled(sequence);
+        return sequence;
+    }
+
+    private PreparedOperation prepare(int index, BatchOperation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("Operation cannot be null");
+        }
+        Account account = accountService.getAccount(operation.getAccountId());
+        Account relatedAccount = null;
+        if (operation.getType() == TransactionType.TRANSFER) {
+            if (operation.getRelatedAccountId() == null) {
+                throw new IllegalArgumentException("Transfer destination cannot be null");
+            }
+            relatedAccount = accountService.getAccount(operation.getRelatedAccountId());
+            if (account.getCurrencyCode() != relatedAccount.getCurrencyCode()) {
+                throw new IllegalArgumentException("Cannot transfer between accounts in different currencies");
+            }
+        }
+        Transaction transaction = new Transaction(account.getAccountId(), operation.getType(),
+            operation.getAmount(), operation.getDescription(),
+            relatedAccount == null ? operation.getRelatedAccountId() : relatedAccount.getAccountId());
+        if (operation.getAmount().getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return new PreparedOperation(index, transaction, account, relatedAccount, account.toMinorUnits(operation.getAmount()));
+    }
+
+    /**
+     * Applies prepared operations in order, records the ones that succeeded and returns the
+     * journal sequence of the last record (zero if nothing was journaled).
+     * Must be called while holding the locks of every account in the batch.
+     */
+    private long applyBatch(List<PreparedOperation> prepared, BatchMode mode, BatchItemResult[] results) {
+        List<PreparedOperation> applied = new ArrayList<>(prepared.size());
+        for (PreparedOperation operation : prepared) {
+            try {
+                operation.apply();
+                applied.add(operation);
+            } catch (RuntimeException e) {
+                results[operation.index] = BatchItemResult.failed(operation.index, e.getMessage());
+                if (mode == BatchMode.ALL_OR_NOTHING) {
+                    for (int i = applied.size() - 1; i >= 0; i--) {
+                        applied.get(i).undo();
+                    }
+                    rejectRemaining(results);
+                    return 0L;
+                }
+            }
+        }
+        long last = applied.isEmpty() ? 0L : journalBatch(applied);
+        for (PreparedOperation operation : applied) {
+            index(operation.transaction, operation.account, operation.relatedAccount);
+            results[operation.index] = BatchItemResult.applied(operation.index, operation.transaction);
+        }
+        return last;
+    }
+
+    /**
+     * Queues the applied operations of a batch on the journal as consecutive records and
+     * returns the sequence of the last (zero without a journal). If the journal refuses
+     * them, undoes every operation and rethrows.
+     */
+    private long journalBatch(List<PreparedOperation> applied) {
+        if (journal == null) {
+            return 0L;
+        }
+        List<Transaction> recorded = new ArrayList<>(applied.size());
+        for (PreparedOperation operation : applied) {
+            recorded.add(operation.transaction);
+        }
+        long last;
+        try {
+            last = journal.appendAll(recorded);
+        } catch (RuntimeException e) {
+            for (int i = applied.size() - 1; i >= 0; i--) {
+                applied.get(i).undo();
+            }
+            throw e;
+        }
+        long sequence = last - recorded.size() + 1;
+        for (PreparedOperation operation : applied) {
+            operation.account.markJournaled(sequence);
+            if (operation.relatedAccount != null) {
+                operation.relatedAccount.markJournaled(sequence);
+            }
+            sequence++;
+        }
+        return last;
+    }
+
+    private static List<BatchItemResult> rejectRemaining(BatchItemResult[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BatchItemResult.failed(i, "Not applied: another operation in the batch failed");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void index(Transaction transaction, Account account, Account relatedAccount) {
+        store.add(transaction, account.getHandle(),
+            relatedAccount == null ? TransactionStore.NO_ACCOUNT : relatedAccount.getHandle());
+    }
+
+    /**
+     * Waits, outside the account locks, until the transaction's journal record is durable.
+     */
+    private Transaction acknowledge(Transaction transaction, long sequence) {
+        if (journal != null) {
+            journal.awaitDurable(sequence);
+        }
+        return transaction;
+    }
+
+    /**
+     * A batch operation validated against its accounts and converted to minor units.
+     */
+    private static final class PreparedOperation {
+        private final int index;
+        private final Transaction transaction;
+        private final Account account;
+        private final Account relatedAccount;
+        private final long minorUnits;
+
+        private PreparedOperation(int index, Transaction transaction, Account account, Account relatedAccount,
+                                  long minorUnits) {
+            this.index = index;
+            this.transaction = transaction;
+            this.account = account;
+            this.relatedAccount = relatedAccount;
+            this.minorUnits = minorUnits;
+        }
+
+        private void apply() {
+            switch (transaction.getType()) {
+                case DEPOSIT:
+                    account.depositMinorUnits(minorUnits);
+                    break;
+                case WITHDRAWAL:
+                    account.withdrawMinorUnits(minorUnits);
+                    break;
+                default:
+                    account.withdrawMinorUnits(minorUnits);
+                    try {
+                        relatedAccount.depositMinorUnits(minorUnits);
+                    } catch (RuntimeException e) {
+                        account.refundMinorUnits(minorUnits);
+                        throw e;
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Reverses {@link #apply()}; only valid in reverse application order.
+         */
+        private void undo() {
+            switch (transaction.getType()) {
+                case DEPOSIT:
+                    account.withdrawMinorUnits(minorUnits);
+                    break;
+                case WITHDRAWAL:
+                    account.refundMinorUnits(minorUnits);
+                    break;
+                default:
+                    relatedAccount.withdrawMinorUnits(minorUnits);
+                    account.refundMinorUnits(minorUnits);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.banking.transaction.store;
+
+import com.banking.account.registry.AccountRegistry;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.id.SnowflakeIdGenerator;
+import com.banking.transaction.domain.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Struct-of-arrays transaction store. Each transaction is a row across primitive column
+ * chunks: snowflake id, account and related-account registry handles, type, amount in
+ * minor units, {@link com.banking.core.domain.CurrencyRegistry} code, timestamp in epoch
+ * nanoseconds and a reference into a UTF-8 description pool. Rows hold no object
+ * references, so the garbage collector has almost nothing to trace however many
+ * transactions are stored, and a row costs a fraction of the equivalent
+ * {@link Transaction} object graph.
+ * <p>
+ * {@link Transaction} objects are only built when a row is read. Views are equal to the
+ * original transaction field by field, with account ids resolved through the
+ * {@link AccountRegistry} the handles came from. Timestamps are taken as UTC wall-clock
+ * values. Transaction ids must come from {@link SnowflakeIdGenerator}.
+ * <p>
+ * Appends are serialized on the store; readers never lock, except for lookups by id.
+ * Column chunks are filled before the volatile row count is published, so a reader that
+ * sees a row count sees every column value below it.
+ */
+public class ColumnarTransactionStore implements TransactionStore {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile int size;
+
+    private final AccountRegistry registry;
+    private volatile IntAppendLog[] histories = new IntAppendLog[1024];
+
+    private volatile byte[][] descriptionPages = new byte[16][];
+    private int descriptionPageCount;
+    private int descriptionPosition = PAGE_SIZE;
+
+    private final LongIntIndex rowsById = new LongIntIndex();
+
+    public ColumnarTransactionStore(AccountRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Account registry cannot be null");
+        }
+        this.registry = registry;
+    }
+
+    /**
+     * One block of {@code CHUNK_SIZE} rows.
+     */
+    private static final class Chunk {
+        final long[] ids = new long[CHUNK_SIZE];
+        final int[] accounts = new int[CHUNK_SIZE];
+        final int[] relatedAccounts = new int[CHUNK_SIZE];
+        final byte[] types = new byte[CHUNK_SIZE];
+        final long[] amounts = new long[CHUNK_SIZE];
+        final short[] currencies = new short[CHUNK_SIZE];
+        final long[] timestamps = new long[CHUNK_SIZE];
+        final long[] descriptions = new long[CHUNK_SIZE];
+
+        static long bytes() {
+            return 8L * 16 + (long) CHUNK_SIZE * (8 + 4 + 4 + 1 + 8 + 2 + 8 + 8);
+        }
+    }
+
+    @Override
+    public synchronized void add(Transaction transaction, int account, int related) {
+        long id = SnowflakeIdGenerator.decode(transaction.getTransactionId());
+        int row = size;
+        Chunk chunk = chunkFor(row);
+        int offset = row & CHUNK_MASK;
+
+        chunk.ids[offset] = id;
+        chunk.accounts[offset] = account;
+        chunk.relatedAccounts[offset] = related;
+        chunk.types[offset] = (byte) transaction.getType().ordinal();
+        chunk.amounts[offset] = transaction.getAmount().toMinorUnits();
+        chunk.currencies[offset] = (short) transaction.getAmount().getCurrencyCode();
+        chunk.timestamps[offset] = toEpochNanos(transaction.getTimestamp());
+        chunk.descriptions[offset] = storeDescription(transaction.getDescription());
+
+        historyFor(account).append(row);
+        if (related != NO_ACCOUNT && related != account) {
+            historyFor(related).append(row);
+        }
+        rowsById.put(id, row);
+        size = row + 1;
+    }
+
+    @Override
+    public Transaction get(String transactionId) {
+        long id;
+        try {
+            id = SnowflakeIdGenerator.decode(transactionId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int row;
+        synchronized (this) {
+            row = rowsById.get(id);
+        }
+        return row < 0 ? null : view(row);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int historySize(int accountHandle) {
+        IntAppendLog history = historyOf(accountHandle);
+        return history == null ? 0 : history.size();
+    }
+
+    @Override
+    public List<Transaction> newestFirst(int accountHandle, int beforeIndex, int limit) {
+        IntAppendLog history = historyOf(accountHandle);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        int n = history.size();
+        int[] rows = history.values();
+        int from = Math.min(beforeIndex, n) - 1;
+        int count = Math.max(0, Math.min(limit, from + 1));
+        List<Transaction> result = new ArrayList<>(count);
+        for (int i = from; i > from - count; i--) {
+            result.add(view(rows[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Transaction> oldestFirst(int fromIndex, int limit) {
+        int n = size;
+        int from = Math.max(0, fromIndex);
+        int count = Math.max(0, Math.min(limit, n - from));
+        List<Transaction> result = new ArrayList<>(count);
+        for (int row = from; row < from + count; row++) {
+            result.add(view(row));
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(int accountHandle, Consumer<Transaction> action) {
+        if (accountHandle == NO_ACCOUNT) {
+            int n = size;
+            for (int row = 0; row < n; row++) {
+                action.accept(view(row));
+            }
+            return;
+        }
+        IntAppendLog history = historyOf(accountHandle);
+        if (history == null) {
+            return;
+        }
+        int n = history.size();
+        int[] rows = history.values();
+        for (int i = 0; i < n; i++) {
+            action.accept(view(rows[i]));
+        }
+    }
+
+    /**
+     * Approximate heap bytes held by the store: column chunks, description pages, the id
+     * index and the account histories. Account ids belong to the registry and are not counted.
+     */
+    public synchronized long getFootprintBytes() {
+        long bytes = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                bytes += Chunk.bytes();
+            }
+        }
+        bytes += 16L + 8L * descriptionPages.length + (long) descriptionPageCount * (16 + PAGE_SIZE);
+        bytes += rowsById.footprintBytes();
+        bytes += 16L + 4L * histories.length;
+        for (IntAppendLog history : histories) {
+            if (history != null) {
+                bytes += history.footprintBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private Transaction view(int row) {
+        Chunk chunk = chunks[row >>> CHUNK_BITS];
+        int offset = row & CHUNK_MASK;
+        int related = chunk.relatedAccounts[offset];
+        return new Transaction(
+            SnowflakeIdGenerator.encode(chunk.ids[offset]),
+            registry.idOf(chunk.accounts[offset]),
+            TYPES[chunk.types[offset]],
+            Money.ofMinorUnits(chunk.amounts[offset], chunk.currencies[offset]),
+            fromEpochNanos(chunk.timestamps[offset]),
+            readDescription(chunk.descriptions[offset]),
+            related == NO_ACCOUNT ? null : registry.idOf(related));
+    }
+
+    private IntAppendLog historyOf(int accountHandle) {
+        IntAppendLog[] current = histories;
+        return accountHandle >= 0 && accountHandle < current.length ? current[accountHandle] : null;
+    }
+
+    private IntAppendLog historyFor(int accountHandle) {
+        IntAppendLog[] current = histories;
+        if (accountHandle >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length << 1, accountHandle + 1));
+            histories = current;
+        }
+        if (current[accountHandle] == null) {
+            current[accountHandle] = new IntAppendLog();
+        }
+        return current[accountHandle];
+    }
+
+    private Chunk chunkFor(int row) {
+        int index = row >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (index == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+            chunks = current;
+        }
+        if (current[index] == null) {
+            current[index] = new Chunk();
+        }
+        return current[index];
+    }
+
+    /**
+     * Appends a description to the pool as {@code [unsigned short length][UTF-8 bytes]}
+     * and returns its reference, {@code page << 16 | position}. Entries never span pages.
+     */
+    private long storeDescription(String description) {
+        byte[] bytes = (description == null ? "" : description).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > PAGE_SIZE - 2) {
+            throw new IllegalArgumentException("Description too long: " + bytes.length + " bytes");
+        }
+        if (descriptionPosition + 2 + bytes.length > PAGE_SIZE) {
+            byte[][] pages = descriptionPages;
+            if (descriptionPageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pages.length << 1);
+            }
+            pages[descriptionPageCount++] = new byte[PAGE_SIZE];
+            descriptionPages = pages;
+            descriptionPosition = 0;
+        }
+        int page = descriptionPageCount - 1;
+        byte[] target = descriptionPages[page];
+        int position = descriptionPosition;
+        target[position] = (byte) (bytes.length >>> 8);
+        target[position + 1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, target, position + 2, bytes.length);
+        descriptionPosition = position + 2 + bytes.length;
+        return ((long) page << PAGE_BITS) | position;
+    }
+
+    private String readDescription(long reference) {
+        byte[] page = descriptionPages[(int) (reference >>> PAGE_BITS)];
+        int position = (int) (reference & (PAGE_SIZE - 1));
+        int length = ((page[position] & 0xFF) << 8) | (page[position + 1] & 0xFF);
+        return new String(page, position + 2, length, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochNanos(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+            timestamp.getNano());
+    }
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+            (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.transaction.store;
+
+import com.banking.core.util.AppendOnlyLog;
+import com.banking.transaction.domain.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@link Transaction} objects on the heap: a map by id, an append-only log in
+ * recording order and one append-only history per account handle.
+ */
+public class InMemoryTransactionStore implements TransactionStore {
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final AppendOnlyLog<Transaction> allTransactions = new AppendOnlyLog<>();
+    @SuppressWarnings("unchecked")
+    private volatile AppendOnlyLog<Transaction>[] histories = (AppendOnlyLog<Transaction>[]) new AppendOnlyLog<?>[1024];
+
+    @Override
+    public void add(Transaction transaction, int accountHandle, int relatedAccountHandle) {
+        transactions.put(transaction.getTransactionId(), transaction);
+        allTransactions.append(transaction);
+        historyFor(accountHandle).append(transaction);
+        if (relatedAccountHandle != NO_ACCOUNT && relatedAccountHandle != accountHandle) {
+            historyFor(relatedAccountHandle).append(transaction);
+        }
+    }
+
+    @Override
+    public Transaction get(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    @Override
+    public int size() {
+        return allTransactions.size();
+    }
+
+    @Override
+    public int historySize(int accountHandle) {
+        AppendOnlyLog<Transaction> history = historyOf(accountHandle);
+        return history == null ? 0 : history.size();
+    }
+
+    @Override
+    public List<Transaction> newestFirst(int accountHandle, int beforeIndex, int limit) {
+        AppendOnlyLog<Transaction> history = historyOf(accountHandle);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        return history.newestFirst(beforeIndex, limit);
+    }
+
+    @Override
+    public List<Transaction> oldestFirst(int fromIndex, int limit) {
+        return allTransactions.oldestFirst(fromIndex, limit);
+    }
+
+    @Override
+    public void forEach(int accountHandle, Consumer<Transaction> action) {
+        AppendOnlyLog<Transaction> source = accountHandle == NO_ACCOUNT ? allTransactions : historyOf(accountHandle);
+        if (source != null) {
+            source.forEach(action);
+        }
+    }
+
+    private AppendOnlyLog<Transaction> historyOf(int accountHandle) {
+        AppendOnlyLog<Transaction>[] current = histories;
+        return accountHandle >= 0 && accountHandle < current.length ? current[accountHandle] : null;
+    }
+
+    /**
+     * Returns the account's history, creating it on first use. Creation and growth of the
+     * table are serialized; the common case is a plain array read.
+     */
+    private AppendOnlyLog<Transaction> historyFor(int accountHandle) {
+        AppendOnlyLog<Transaction> history = historyOf(accountHandle);
+        if (history != null) {
+            return history;
+        }
+        synchronized (this) {
+            AppendOnlyLog<Transaction>[] current = histories;
+            if (accountHandle >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length << 1, accountHandle + 1));
+            }
+            if (current[accountHandle] == null) {
+                current[accountHandle] = new AppendOnlyLog<>();
+            }
+            histories = current;
+            return current[accountHandle];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.transaction.store;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of {@code int}s with a single writer and lock-free readers, the
+ * primitive counterpart of {@link com.banking.core.util.AppendOnlyLog}.
+ */
+final class IntAppendLog {
+    private volatile int[] values = new int[4];
+    private volatile int size;
+
+    /**
+     * Must only be called by one thread at a time.
+     */
+    void append(int value) {
+        int index = size;
+        int[] current = values;
+        if (index == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+            values = current;
+        }
+        current[index] = value;
+        size = index + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The backing array; valid for indexes below a {@link #size()} read before this call.
+     */
+    int[] values() {
+        return values;
+    }
+
+    long footprintBytes() {
+        return 16L + 16L + 4L * values.length;
+    }
+}
@@ -0,0 +1,460 @@
+package com.banking.transaction.store;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.id.SnowflakeIdGenerator;
+import com.banking.transaction.domain.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of transactions in fixed-size memory-mapped segment files.
+ * Records are addressed by ordinal, their position in append order. Each segment is a
+ * file preallocated to the segment size and named after the first ordinal it holds;
+ * when a record no longer fits, the segment is forced, sealed and remapped read-only,
+ * and a new one is started. Every segment keeps a sparse in-memory index with the
+ * offset of every {@value #INDEX_INTERVAL}th record, so a read jumps to the nearest
+ * indexed record and steps over at most {@value #INDEX_INTERVAL} - 1 headers before
+ * decoding straight from the mapped pages.
+ * <p>
+ * A record is {@code [int length][int CRC32][payload]}; a zero length marks the end of
+ * the written part of a segment. {@link #open} rebuilds the sparse indexes and checks
+ * the CRC of every record in the newest segment, cutting the log at the first torn or
+ * corrupt one. Records hold ISO currency codes and account id strings, so a log can be
+ * read by any process. Transaction ids must come from {@link SnowflakeIdGenerator}.
+ * <p>
+ * Appends are serialized; reads never lock and see every record whose append completed
+ * before the read started. Pages are written back by the operating system;
+ * {@link #force()} makes them durable on demand.
+ */
+public class MappedTransactionLog implements Closeable {
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    private static final String SEGMENT_PREFIX = "transactions-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int INDEX_INTERVAL = 32;
+    private static final int HEADER_BYTES = 8;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private volatile Segment[] segments;
+    private volatile int size;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private MappedTransactionLog(Path directory, int segmentBytes) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the log in {@code directory}, keeping every intact record already there.
+     */
+    public static MappedTransactionLog open(Path directory, int segmentBytes) throws IOException {
+        MappedTransactionLog log = new MappedTransactionLog(directory, segmentBytes);
+        Files.createDirectories(directory);
+        List<Long> starts = segmentStarts(directory);
+        if (starts.isEmpty()) {
+            log.segments = new Segment[] {log.createSegment(0)};
+            return log;
+        }
+        Segment[] recovered = new Segment[starts.size()];
+        int total = 0;
+        for (int i = 0; i < recovered.length; i++) {
+            boolean last = i == recovered.length - 1;
+            if (starts.get(i) != total) {
+                throw new IOException("Segment " + segmentPath(directory, starts.get(i)) + " does not follow ordinal " + total);
+            }
+            recovered[i] = log.recoverSegment(total, last);
+            total += recovered[i].count;
+        }
+        log.segments = recovered;
+        log.size = total;
+        return log;
+    }
+
+    /**
+     * Creates an empty log in {@code directory}, deleting any segments already there.
+     */
+    public static MappedTransactionLog create(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        for (long start : segmentStarts(directory)) {
+            Files.delete(segmentPath(directory, start));
+        }
+        return open(directory, segmentBytes);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Appends a transaction and returns its ordinal.
+     */
+    public synchronized int append(Transaction transaction) {
+        ByteBuffer payload = encode(transaction);
+        int length = payload.remaining();
+        if (HEADER_BYTES + length > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Transaction too large for a log segment: " + length + " bytes");
+        }
+        Segment segment = segments[segments.length - 1];
+        if (segment.writePosition + HEADER_BYTES + length > segmentBytes - HEADER_BYTES) {
+            segment = roll(segment);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        int position = segment.writePosition;
+        ByteBuffer target = segment.buffer.duplicate();
+        target.position(position + HEADER_BYTES);
+        target.put(payload);
+        target.putInt(position + 4, (int) crc.getValue());
+        target.putInt(position, length);
+        if (segment.count % INDEX_INTERVAL == 0) {
+            segment.index.append(position);
+        }
+        segment.writePosition = position + HEADER_BYTES + length;
+        segment.count++;
+        int ordinal = size;
+        size = ordinal + 1;
+        return ordinal;
+    }
+
+    /**
+     * Decodes the record with the given ordinal from its mapped segment.
+     */
+    public Transaction read(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for size " + size);
+        }
+        Segment segment = segmentOf(ordinal);
+        int local = ordinal - segment.firstOrdinal;
+        ByteBuffer buffer = segment.buffer;
+        int position = segment.index.values()[local / INDEX_INTERVAL];
+        for (int i = local % INDEX_INTERVAL; i > 0; i--) {
+            position += HEADER_BYTES + buffer.getInt(position);
+        }
+        return decode(buffer, position + HEADER_BYTES);
+    }
+
+    /**
+     * Visits records from {@code fromOrdinal} in append order, up to the size at the time of the call.
+     */
+    public void forEach(int fromOrdinal, Consumer<Transaction> action) {
+        forEach(fromOrdinal, size, action);
+    }
+
+    /**
+     * Decodes the records from {@code fromOrdinal} up to, but not including, {@code toOrdinal}
+     * in order, stopping early at the end of the log.
+     */
+    public void forEach(int fromOrdinal, int toOrdinal, Consumer<Transaction> action) {
+        int end = Math.min(toOrdinal, size);
+        int ordinal = Math.max(0, fromOrdinal);
+        Segment[] current = segments;
+        while (ordinal < end) {
+            int segmentIndex = segmentIndexOf(current, ordinal);
+            Segment segment = current[segmentIndex];
+            ByteBuffer buffer = segment.buffer;
+            int local = ordinal - segment.firstOrdinal;
+            int position = segment.index.values()[local / INDEX_INTERVAL];
+            for (int i = local % INDEX_INTERVAL; i > 0; i--) {
+                position += HEADER_BYTES + buffer.getInt(position);
+            }
+            int segmentEnd = segmentIndex + 1 < current.length
+                ? Math.min(end, current[segmentIndex + 1].firstOrdinal) : end;
+            for (; ordinal < segmentEnd; ordinal++) {
+                action.accept(decode(buffer, position + HEADER_BYTES));
+                position += HEADER_BYTES + buffer.getInt(position);
+            }
+        }
+    }
+
+    /**
+     * Drops every record from {@code ordinal} on: deletes the segments after the one
+     * holding it and clears that segment from the record on, so the next append takes
+     * {@code ordinal}. Must not run while the dropped records are being read.
+     */
+    public synchronized void truncate(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal > size) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for size " + size);
+        }
+        if (ordinal == size) {
+            return;
+        }
+        Segment[] current = segments;
+        int keep = segmentIndexOf(current, ordinal);
+        for (int i = current.length - 1; i > keep; i--) {
+            Files.delete(segmentPath(directory, current[i].firstOrdinal));
+        }
+        int firstOrdinal = current[keep].firstOrdinal;
+        Segment segment = new Segment(firstOrdinal,
+            map(segmentPath(directory, firstOrdinal), FileChannel.MapMode.READ_WRITE), false);
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (segment.count < ordinal - firstOrdinal) {
+            if (segment.count % INDEX_INTERVAL == 0) {
+                segment.index.append(position);
+            }
+            segment.count++;
+            position += HEADER_BYTES + buffer.getInt(position);
+        }
+        clearFrom(buffer, position);
+        segment.writePosition = position;
+        Segment[] kept = Arrays.copyOf(current, keep + 1);
+        kept[keep] = segment;
+        segments = kept;
+        size = ordinal;
+    }
+
+    /**
+     * Writes every appended record back to its segment file.
+     */
+    public synchronized void force() {
+        Segment active = segments[segments.length - 1];
+        if (!active.sealed) {
+            ((MappedByteBuffer) active.buffer).force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+    }
+
+    private Segment segmentOf(int ordinal) {
+        Segment[] current = segments;
+        return current[segmentIndexOf(current, ordinal)];
+    }
+
+    private static int segmentIndexOf(Segment[] current, int ordinal) {
+        int low = 0;
+        int high = current.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (current[mid].firstOrdinal <= ordinal) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private Segment roll(Segment active) {
+        ((MappedByteBuffer) active.buffer).force();
+        try {
+            active.buffer = map(segmentPath(directory, active.firstOrdinal), FileChannel.MapMode.READ_ONLY);
+            active.sealed = true;
+            Segment next = createSegment(size);
+            Segment[] grown = Arrays.copyOf(segments, segments.length + 1);
+            grown[grown.length - 1] = next;
+            segments = grown;
+            return next;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot roll transaction log segment", e);
+        }
+    }
+
+    private Segment createSegment(int firstOrdinal) throws IOException {
+        Path path = segmentPath(directory, firstOrdinal);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), segmentBytes - 1);
+        }
+        return new Segment(firstOrdinal, map(path, FileChannel.MapMode.READ_WRITE), false);
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its sparse index. The newest segment is
+     * checked record by record and cut at the first torn or corrupt record; older ones
+     * were sealed intact and are only walked.
+     */
+    private Segment recoverSegment(int firstOrdinal, boolean last) throws IOException {
+        Path path = segmentPath(directory, firstOrdinal);
+        if (Files.size(path) != segmentBytes) {
+            throw new IOException("Segment " + path + " is not " + segmentBytes + " bytes");
+        }
+        Segment segment = new Segment(firstOrdinal,
+            map(path, last ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY), !last);
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > segmentBytes - position - HEADER_BYTES) {
+                break;
+            }
+            if (last && !crcMatches(buffer, position, length)) {
+                break;
+            }
+            if (segment.count % INDEX_INTERVAL == 0) {
+                segment.index.append(position);
+            }
+            segment.count++;
+            position += HEADER_BYTES + length;
+        }
+        if (last) {
+            // Clear everything after the cut so intact records beyond a torn one can never
+            // be read back once new records are written over the gap
+            clearFrom(buffer, position);
+        }
+        segment.writePosition = position;
+        return segment;
+    }
+
+    private static void clearFrom(ByteBuffer buffer, int position) {
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private static boolean crcMatches(ByteBuffer buffer, int position, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(position + HEADER_BYTES + length).position(position + HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+
+    private ByteBuffer encode(Transaction transaction) {
+        byte[] currency = transaction.getAmount().getCurrency().getBytes(StandardCharsets.UTF_8);
+        byte[] account = transaction.getAccountId().getBytes(StandardCharsets.UTF_8);
+        String relatedAccountId = transaction.getRelatedAccountId();
+        byte[] related = relatedAccountId == null ? null : relatedAccountId.getBytes(StandardCharsets.UTF_8);
+        byte[] description = transaction.getDescription() == null
+            ? null : transaction.getDescription().getBytes(StandardCharsets.UTF_8);
+        int length = 8 + 1 + 8 + 8 + 4 * 2 + currency.length + account.length
+            + (related == null ? 0 : related.length) + (description == null ? 0 : description.length);
+        if (scratch.capacity() < length) {
+            scratch = ByteBuffer.allocate(Math.max(length, scratch.capacity() << 1));
+        }
+        ByteBuffer out = scratch;
+        out.clear();
+        out.putLong(SnowflakeIdGenerator.decode(transaction.getTransactionId()));
+        out.put((byte) transaction.getType().ordinal());
+        out.putLong(transaction.getAmount().toMinorUnits());
+        out.putLong(toEpochNanos(transaction.getTimestamp()));
+        putString(out, currency);
+        putString(out, account);
+        putString(out, related);
+        putString(out, description);
+        out.flip();
+        return out;
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("Transaction field too long: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static Transaction decode(ByteBuffer buffer, int position) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(position);
+        long id = in.getLong();
+        TransactionType type = TYPES[in.get()];
+        long minorUnits = in.getLong();
+        long nanos = in.getLong();
+        String currency = getString(in);
+        String accountId = getString(in);
+        String relatedAccountId = getString(in);
+        String description = getString(in);
+        return new Transaction(SnowflakeIdGenerator.encode(id), accountId, type, Money.ofMinorUnits(minorUnits, currency),
+            LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L),
+                ZoneOffset.UTC),
+            description, relatedAccountId);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochNanos(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+            timestamp.getNano());
+    }
+
+    private static List<Long> segmentStarts(Path directory) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                starts.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private static Path segmentPath(Path directory, long firstOrdinal) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstOrdinal, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * One segment file: its mapping, how far it is written and its sparse index.
+     */
+    private static final class Segment {
+        final int firstOrdinal;
+        final IntAppendLog index = new IntAppendLog();
+        volatile ByteBuffer buffer;
+        volatile boolean sealed;
+        int writePosition;
+        int count;
+
+        Segment(int firstOrdinal, ByteBuffer buffer, boolean sealed) {
+            this.firstOrdinal = firstOrdinal;
+            this.buffer = buffer;
+            this.sealed = sealed;
+        }
+    }
+}
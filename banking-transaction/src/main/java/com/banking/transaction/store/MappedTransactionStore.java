@@ -0,0 +1,224 @@
+package com.banking.transaction.store;
+
+import com.banking.core.id.SnowflakeIdGenerator;
+import com.banking.transaction.domain.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Transaction store backed by a {@link MappedTransactionLog}. Transactions live in the
+ * mapped segment files; the heap only holds a window of the most recent transactions as
+ * objects, an index from id to log ordinal and per-account histories of ordinals. Reads
+ * inside the window return the object; reads older than the window, by id or through a
+ * history, decode the record straight from the page cache.
+ * <p>
+ * The store reopens the log already in its directory, cutting it at the first torn
+ * record, but the journal stays the source of truth: the reopened records are only
+ * published as recovery adds them again, in journal order. A transaction that matches the
+ * next reopened record takes its ordinal and is indexed without being written again. At
+ * the first one that does not, the log is truncated there and everything from then on
+ * is appended, so a record whose journal entry never became durable is never seen. On a
+ * restart the log therefore only has to be rewritten from where it diverged.
+ * Transaction ids must come from {@link SnowflakeIdGenerator}.
+ * <p>
+ * Appends are serialized on the store; readers never lock, except for lookups by id.
+ */
+public class MappedTransactionStore implements TransactionStore, Closeable {
+    public static final int DEFAULT_WINDOW = 1 << 16;
+
+    private final MappedTransactionLog log;
+    private final AtomicReferenceArray<Transaction> window;
+    private final int windowMask;
+    private final LongIntIndex ordinalsById = new LongIntIndex();
+    private volatile IntAppendLog[] histories = new IntAppendLog[1024];
+    private volatile int size;
+    private int reopened;
+
+    public MappedTransactionStore(Path directory) throws IOException {
+        this(directory, MappedTransactionLog.DEFAULT_SEGMENT_BYTES, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates a store over the log in {@code directory}, opening it if one is already
+     * there; its records stay unpublished until they are added again. {@code window} is
+     * rounded up to a power of two.
+     */
+    public MappedTransactionStore(Path directory, int segmentBytes, int window) throws IOException {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        int capacity = Integer.highestOneBit(window);
+        if (capacity < window) {
+            capacity <<= 1;
+        }
+        this.log = MappedTransactionLog.open(directory, segmentBytes);
+        this.window = new AtomicReferenceArray<>(capacity);
+        this.windowMask = capacity - 1;
+        this.reopened = log.size();
+    }
+
+    public MappedTransactionLog getLog() {
+        return log;
+    }
+
+    public int getWindowSize() {
+        return windowMask + 1;
+    }
+
+    /**
+     * Number of records reopened from the log and not yet added again.
+     */
+    public synchronized int getUnconfirmedCount() {
+        return Math.max(0, reopened - size);
+    }
+
+    @Override
+    public synchronized void add(Transaction transaction, int accountHandle, int relatedAccountHandle) {
+        long id = SnowflakeIdGenerator.decode(transaction.getTransactionId());
+        int ordinal = reuseOrAppend(transaction);
+        window.set(ordinal & windowMask, transaction);
+        ordinalsById.put(id, ordinal);
+        historyFor(accountHandle).append(ordinal);
+        if (relatedAccountHandle != NO_ACCOUNT && relatedAccountHandle != accountHandle) {
+            historyFor(relatedAccountHandle).append(ordinal);
+        }
+        size = ordinal + 1;
+    }
+
+    @Override
+    public Transaction get(String transactionId) {
+        long id;
+        try {
+            id = SnowflakeIdGenerator.decode(transactionId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int ordinal;
+        synchronized (this) {
+            ordinal = ordinalsById.get(id);
+        }
+        return ordinal < 0 ? null : read(ordinal);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int historySize(int accountHandle) {
+        IntAppendLog history = historyOf(accountHandle);
+        return history == null ? 0 : history.size();
+    }
+
+    @Override
+    public List<Transaction> newestFirst(int accountHandle, int beforeIndex, int limit) {
+        IntAppendLog history = historyOf(accountHandle);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        int n = history.size();
+        int[] ordinals = history.values();
+        int from = Math.min(beforeIndex, n) - 1;
+        int count = Math.max(0, Math.min(limit, from + 1));
+        List<Transaction> result = new ArrayList<>(count);
+        for (int i = from; i > from - count; i--) {
+            result.add(read(ordinals[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Transaction> oldestFirst(int fromIndex, int limit) {
+        int n = size;
+        int from = Math.max(0, fromIndex);
+        int count = Math.max(0, Math.min(limit, n - from));
+        List<Transaction> result = new ArrayList<>(count);
+        for (int ordinal = from; ordinal < from + count; ordinal++) {
+            result.add(read(ordinal));
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(int accountHandle, Consumer<Transaction> action) {
+        if (accountHandle == NO_ACCOUNT) {
+            // The log may already hold a record the store has not published yet
+            log.forEach(0, size, action);
+            return;
+        }
+        IntAppendLog history = historyOf(accountHandle);
+        if (history == null) {
+            return;
+        }
+        int n = history.size();
+        int[] ordinals = history.values();
+        for (int i = 0; i < n; i++) {
+            action.accept(read(ordinals[i]));
+        }
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * Returns the ordinal of {@code transaction}: the next reopened record's if it holds
+     * the same transaction, otherwise a new one, dropping the reopened records left.
+     */
+    private int reuseOrAppend(Transaction transaction) {
+        int next = size;
+        if (next < reopened) {
+            if (log.read(next).getTransactionId().equals(transaction.getTransactionId())) {
+                return next;
+            }
+            try {
+                log.truncate(next);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            reopened = next;
+        }
+        return log.append(transaction);
+    }
+
+    /**
+     * Returns the transaction at {@code ordinal}, from the window if it is still there.
+     * The window slot is checked against the store size after it is read: a writer only
+     * overwrites the slot of {@code ordinal} when it appends {@code ordinal + window},
+     * which is after the size reached {@code ordinal + window}.
+     */
+    private Transaction read(int ordinal) {
+        Transaction cached = window.get(ordinal & windowMask);
+        if (cached != null && ordinal > size - 1 - windowMask) {
+            return cached;
+        }
+        return log.read(ordinal);
+    }
+
+    private IntAppendLog historyOf(int accountHandle) {
+        IntAppendLog[] current = histories;
+        return accountHandle >= 0 && accountHandle < current.length ? current[accountHandle] : null;
+    }
+
+    private IntAppendLog historyFor(int accountHandle) {
+        IntAppendLog[] current = histories;
+        if (accountHandle >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length << 1, accountHandle + 1));
+            histories = current;
+        }
+        if (current[accountHandle] == null) {
+            current[accountHandle] = new IntAppendLog();
+        }
+        return current[accountHandle];
+    }
+}
@@ -0,0 +1,59 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.domain.Transaction;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage for recorded transactions, indexed by id, by account and in recording order.
+ * Accounts are addressed by their {@link com.banking.account.registry.AccountRegistry}
+ * handles, resolved once by the caller, so per-account indexes are arrays.
+ * {@link #add} is called while the caller holds the locks of the accounts the transaction
+ * touches, so calls for different accounts may run concurrently. Reads never block
+ * writers and see every transaction whose {@code add} completed before the read started.
+ * Positions in an account's history and in the global order never change, which is what
+ * paged reads rely on.
+ */
+public interface TransactionStore {
+
+    /**
+     * Handle passed for a missing related account, and to {@link #forEach} for every account.
+     */
+    int NO_ACCOUNT = -1;
+
+    /**
+     * Records a transaction of the account with handle {@code accountHandle}; for a
+     * transfer {@code relatedAccountHandle} is the destination, otherwise {@link #NO_ACCOUNT}.
+     */
+    void add(Transaction transaction, int accountHandle, int relatedAccountHandle);
+
+    /**
+     * Returns the transaction with the given id, or {@code null} if there is none.
+     */
+    Transaction get(String transactionId);
+
+    int size();
+
+    /**
+     * Number of transactions in the account's history, counting both legs of a transfer.
+     */
+    int historySize(int accountHandle);
+
+    /**
+     * Returns up to {@code limit} of the account's transactions at history positions below
+     * {@code beforeIndex}, newest first.
+     */
+    List<Transaction> newestFirst(int accountHandle, int beforeIndex, int limit);
+
+    /**
+     * Returns up to {@code limit} transactions in recording order, starting at position {@code fromIndex}.
+     */
+    List<Transaction> oldestFirst(int fromIndex, int limit);
+
+    /**
+     * Visits, in recording order, every transaction of the account, or every transaction
+     * if {@code accountHandle} is {@link #NO_ACCOUNT}, that was added before the call started.
+     */
+    void forEach(int accountHandle, Consumer<Transaction> action);
+}
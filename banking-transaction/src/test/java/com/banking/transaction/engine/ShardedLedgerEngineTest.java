@@ -0,0 +1,259 @@
+package com.banking.transaction.engine;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.journal.TransferLeg;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedLedgerEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCommandsRunInOrderOnTheirShard() {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(2, 8)) {
+            List<Integer> seen = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                engine.submit(1, () -> seen.add(value));
+            }
+            assertEquals("ledger-shard-1", engine.execute(1, () -> Thread.currentThread().getName()));
+            assertEquals(100, seen.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, (int) seen.get(i));
+            }
+            assertEquals(1, (int) engine.execute(1, () -> engine.execute(1, engine::currentShard)));
+            assertThrows(IllegalStateException.class, () -> engine.execute(0, () -> engine.execute(1, () -> 0)));
+            IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> engine.execute(0, () -> {
+                    throw new IllegalArgumentException("rejected");
+                }));
+            assertEquals("rejected", failure.getMessage());
+        }
+    }
+
+    @Test
+    void testHoldingShardsExcludesTheirCommands() throws InterruptedException {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(4)) {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 2_000; i++) {
+                        int first = random.nextInt(4);
+                        int second = random.nextInt(4);
+                        engine.executeHolding(new int[] {second, first}, () -> {
+                            if (running.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            running.decrementAndGet();
+                            return null;
+                        });
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "holders deadlocked");
+            assertEquals(0, overlaps.get());
+        }
+    }
+
+    @Test
+    void testTransactionServiceOnShardedLocks() throws InterruptedException {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(4)) {
+            AccountService accountService = new AccountService(new ShardedAccountLocks(engine));
+            TransactionService service = new TransactionService(accountService);
+            List<String> accountIds = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                accountIds.add(accountService.createAccount("CUST" + i, AccountType.CHECKING,
+                    new Money(100.0, "USD")).getAccountId());
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 2_000; i++) {
+                        String from = accountIds.get(random.nextInt(accountIds.size()));
+                        String to = accountIds.get(random.nextInt(accountIds.size()));
+                        try {
+                            if (from.equals(to)) {
+                                service.deposit(from, new Money(1.0, "USD"), "d");
+                                service.withdraw(from, new Money(1.0, "USD"), "w");
+                            } else {
+                                service.transfer(from, to, new Money(3.0, "USD"), "t");
+                            }
+                        } catch (InsufficientFundsException ignored) {
+                            // declined when the source runs dry
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+            long total = 0;
+            for (String accountId : accountIds) {
+                long balance = accountService.getAccount(accountId).getBalanceMinorUnits();
+                assertTrue(balance >= 0);
+                total += balance;
+            }
+            assertEquals(64 * 10_000L, total);
+
+            assertThrows(IllegalStateException.class, () -> accountService.makeHot(accountIds.get(0)));
+            assertFalse(accountService.getAccount(accountIds.get(0)).isHot());
+
+            Account poor = accountService.getAccount(accountIds.get(0));
+            assertThrows(InsufficientFundsException.class,
+                () -> service.withdraw(poor.getAccountId(), new Money(1_000_000.0, "USD"), "too much"));
+
+            List<BatchItemResult> results = service.executeBatch(Arrays.asList(
+                BatchOperation.deposit(accountIds.get(1), new Money(5.0, "USD"), "b1"),
+                BatchOperation.transfer(accountIds.get(2), accountIds.get(3), new Money(1_000_000.0, "USD"), "b2")),
+                BatchMode.ALL_OR_NOTHING);
+            assertFalse(results.get(0).isApplied());
+            assertFalse(results.get(1).isApplied());
+        }
+    }
+
+    @Test
+    void testTransfersAcrossShardsRunAsLegs() {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(4)) {
+            ShardedAccountLocks locks = new ShardedAccountLocks(engine);
+            AccountService accountService = new AccountService(locks);
+            TransactionService service = new TransactionService(accountService);
+            String source = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD")).getAccountId();
+            String near = null;
+            String far = null;
+            String closed = null;
+            for (int i = 0; near == null || far == null || closed == null; i++) {
+                String accountId = accountService.createAccount("CUST" + (i + 2), AccountType.CHECKING,
+                    new Money(0.0, "USD")).getAccountId();
+                if (locks.sameShard(source, accountId)) {
+                    near = near == null ? accountId : near;
+                } else if (far == null) {
+                    far = accountId;
+                } else if (closed == null) {
+                    closed = accountId;
+                    accountService.deactivateAccount(closed);
+                }
+            }
+
+            service.transfer(source, near, new Money(10.0, "USD"), "same shard");
+            service.transfer(source, far, new Money(20.0, "USD"), "other shard");
+            String inactive = closed;
+            assertThrows(InvalidAccountException.class,
+                () -> service.transfer(source, inactive, new Money(30.0, "USD"), "refunded"));
+            assertThrows(InsufficientFundsException.class,
+                () -> service.transfer(source, inactive, new Money(1_000.0, "USD"), "declined"));
+            TransactionResult declined = service.tryTransfer(source, inactive, new Money(30.0, "USD"), "refunded");
+            assertEquals(OperationStatus.ACCOUNT_INACTIVE, declined.getStatus());
+            assertEquals(inactive, declined.getDeclinedAccountId());
+
+            assertEquals(7_000, accountService.getAccount(source).getBalanceMinorUnits());
+            assertEquals(1_000, accountService.getAccount(near).getBalanceMinorUnits());
+            assertEquals(2_000, accountService.getAccount(far).getBalanceMinorUnits());
+            assertEquals(0, accountService.getAccount(closed).getBalanceMinorUnits());
+            assertEquals(2, service.getTransactionsByAccount(source).size());
+            assertEquals(Long.MAX_VALUE, service.getOldestTransferInFlight());
+
+            TransferMetrics metrics = service.getTransferMetrics();
+            assertEquals(1, metrics.getSingleStepTransfers());
+            assertEquals(1, metrics.getCrossShardTransfers());
+            assertEquals(2, metrics.getRefundedTransfers());
+            assertTrue(metrics.getMeanCrossShardNanos() > 0);
+        }
+    }
+
+    @Test
+    void testCreditLegTheJournalRefusesIsRefunded() throws IOException {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(4);
+             TransactionJournal journal = new TransactionJournal(tempDir.resolve("journal")) {
+                 @Override
+                 public synchronized long appendLeg(TransferLeg leg, Transaction transaction) {
+                     if (leg == TransferLeg.CREDIT) {
+                         throw new UncheckedIOException(new IOException("disk full"));
+                     }
+                     return super.appendLeg(leg, transaction);
+                 }
+             }) {
+            ShardedAccountLocks locks = new ShardedAccountLocks(engine);
+            AccountService accountService = new AccountService(locks, journal);
+            TransactionService service = new TransactionService(accountService, journal);
+            String source = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD")).getAccountId();
+            String far = farAccount(accountService, locks, source);
+
+            assertThrows(UncheckedIOException.class,
+                () -> service.transfer(source, far, new Money(30.0, "USD"), "refunded"));
+            assertEquals(10_000, accountService.getAccount(source).getBalanceMinorUnits());
+            assertEquals(0, accountService.getAccount(far).getBalanceMinorUnits());
+            assertTrue(service.getTransactionsByAccount(far).isEmpty());
+            assertEquals(1, service.getTransferMetrics().getRefundedTransfers());
+            assertEquals(Long.MAX_VALUE, service.getOldestTransferInFlight());
+        }
+    }
+
+    @Test
+    void testFailureAfterTheCreditAppliedIsNotRefunded() {
+        try (ShardedLedgerEngine engine = new ShardedLedgerEngine(4)) {
+            ShardedAccountLocks locks = new ShardedAccountLocks(engine);
+            AccountService accountService = new AccountService(locks);
+            TransactionService service = new TransactionService(accountService, null, new InMemoryTransactionStore() {
+                @Override
+                public void add(Transaction transaction, int accountHandle, int relatedAccountHandle) {
+                    throw new IllegalStateException("store unavailable");
+                }
+            });
+            String source = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD")).getAccountId();
+            String far = farAccount(accountService, locks, source);
+
+            assertThrows(IllegalStateException.class,
+                () -> service.transfer(source, far, new Money(30.0, "USD"), "credited"));
+            assertEquals(7_000, accountService.getAccount(source).getBalanceMinorUnits());
+            assertEquals(3_000, accountService.getAccount(far).getBalanceMinorUnits());
+            assertEquals(0, service.getTransferMetrics().getRefundedTransfers());
+            assertEquals(Long.MAX_VALUE, service.getOldestTransferInFlight());
+        }
+    }
+
+    private static String farAccount(AccountService accountService, ShardedAccountLocks locks, String accountId) {
+        for (int i = 2; ; i++) {
+            String candidate = accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(0.0, "USD"))
+                .getAccountId();
+            if (!locks.sameShard(accountId, candidate)) {
+                return candidate;
+            }
+        }
+    }
+}
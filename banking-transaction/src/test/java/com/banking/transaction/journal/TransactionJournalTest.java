@@ -0,0 +1,151 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppendedRecordsReplayInOrder() throws IOException {
+        Path directory = tempDir.resolve("journal");
+        Transaction first = new Transaction("ACC1", TransactionType.DEPOSIT, new Money(10.25, "USD"), "first");
+        Transaction second = new Transaction("ACC1", TransactionType.TRANSFER, new Money(3.0, "USD"), "second", "ACC2");
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            long s1 = journal.append(first);
+            long s2 = journal.append(second);
+            journal.awaitDurable(s2);
+            assertEquals(1, s1);
+            assertEquals(2, s2);
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        TransactionJournal.replay(directory, 0, records::add);
+        assertEquals(2, records.size());
+        Transaction replayed = records.get(1).getTransaction();
+        assertEquals(second.getTransactionId(), replayed.getTransactionId());
+        assertEquals("ACC2", replayed.getRelatedAccountId());
+        assertEquals(second.getAmount(), replayed.getAmount());
+        assertEquals(second.getTimestamp(), replayed.getTimestamp());
+        assertEquals("second", replayed.getDescription());
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnReopen() throws IOException {
+        Path directory = tempDir.resolve("journal");
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            journal.awaitDurable(journal.append(new Transaction("ACC1", TransactionType.DEPOSIT, new Money(1.0, "USD"), "ok")));
+            journal.awaitDurable(journal.append(new Transaction("ACC1", TransactionType.DEPOSIT, new Money(2.0, "USD"), "torn")));
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("journal-00000000000000000001.log"), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            assertEquals(1, journal.getDurableSequence());
+            long next = journal.append(new Transaction("ACC1", TransactionType.DEPOSIT, new Money(3.0, "USD"), "after"));
+            journal.awaitDurable(next);
+            assertEquals(2, next);
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        TransactionJournal.replay(directory, 0, records::add);
+        assertEquals(2, records.size());
+        assertEquals("after", records.get(1).getTransaction().getDescription());
+    }
+
+    @Test
+    void testRollStartsNewSegmentAndOldSegmentsCanBeDeleted() throws IOException {
+        Path directory = tempDir.resolve("journal");
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            journal.append(new Transaction("ACC1", TransactionType.DEPOSIT, new Money(1.0, "USD"), "old"));
+            long base = journal.roll();
+            assertEquals(2, base);
+            journal.awaitDurable(journal.append(new Transaction("ACC1", TransactionType.DEPOSIT, new Money(2.0, "USD"), "new")));
+            assertTrue(Files.exists(directory.resolve("journal-00000000000000000002.log")));
+
+            List<JournalRecord> tail = new ArrayList<>();
+            journal.replay(base, tail::add);
+            assertEquals(1, tail.size());
+            assertEquals("new", tail.get(0).getTransaction().getDescription());
+
+            journal.deleteSegmentsBefore(base);
+            assertFalse(Files.exists(directory.resolve("journal-00000000000000000001.log")));
+        }
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            assertEquals(2, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void testAccountRecordsReplay() throws IOException {
+        Path directory = tempDir.resolve("journal");
+        try (TransactionJournal journal = new TransactionJournal(directory)) {
+            AccountService accountService = new AccountService(new AccountLocks(), journal);
+            Account account = accountService.createAccount("CUST1", AccountType.SAVINGS, new Money(5.5, "EUR"));
+            accountService.deactivateAccount(account.getAccountId());
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        TransactionJournal.replay(directory, 0, records::add);
+        assertEquals(2, records.size());
+        assertEquals(JournalRecord.Kind.ACCOUNT_OPENED, records.get(0).getKind());
+        assertEquals(new Money(5.5, "EUR"), records.get(0).getAccount().getBalance());
+        assertTrue(records.get(0).getAccount().isActive());
+        assertEquals(JournalRecord.Kind.ACCOUNT_STATUS, records.get(1).getKind());
+        assertFalse(records.get(1).isActive());
+    }
+
+    @Test
+    void testConcurrentWritersShareFlushes() throws Exception {
+        Path directory = tempDir.resolve("journal");
+        int threads = 8;
+        int perThread = 200;
+        try (TransactionJournal journal = new TransactionJournal(directory, 64, Duration.ofMillis(1))) {
+            AccountService accountService = new AccountService();
+            TransactionService transactionService = new TransactionService(accountService, journal);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                Account account = accountService.createAccount("CUST" + t, AccountType.CHECKING, new Money(0.0, "USD"));
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        transactionService.deposit(account.getAccountId(), new Money(1.0, "USD"), "load");
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+            assertEquals(threads * perThread, journal.getDurableSequence());
+            assertTrue(journal.getFlushCount() < threads * perThread, "writers were not batched");
+        }
+    }
+
+    @Test
+    void testInvalidSettingsRejected() {
+        Path directory = tempDir.resolve("journal");
+        assertThrows(IllegalArgumentException.class, () -> new TransactionJournal(directory, 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionJournal(directory, 1, Duration.ofMillis(-1)));
+    }
+}
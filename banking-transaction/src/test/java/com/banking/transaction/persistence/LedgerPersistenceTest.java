@@ -0,0 +1,371 @@
+package com.banking.transaction.persistence;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.engine.ShardedAccountLocks;
+import com.banking.transaction.engine.ShardedLedgerEngine;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.journal.TransferLeg;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerPersistenceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecoveryFromJournalOnly() throws IOException {
+        byte[] live;
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account b = ledger.accounts.createAccount("CUST2", AccountType.SAVINGS, new Money(0.0, "USD"));
+            ledger.transactions.deposit(a.getAccountId(), new Money(25.5, "USD"), "deposit");
+            ledger.transactions.transfer(a.getAccountId(), b.getAccountId(), new Money(40.0, "USD"), "transfer");
+            ledger.transactions.withdraw(b.getAccountId(), new Money(0.01, "USD"), "withdraw");
+            ledger.accounts.deactivateAccount(b.getAccountId());
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            assertEquals(6, recovered.persistence.recover());
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+            assertEquals(3, recovered.transactions.getAllTransactions().size());
+        }
+    }
+
+    @Test
+    void testRecoveryFromSnapshotTakenUnderConcurrentWrites() throws Exception {
+        int accounts = 64;
+        int threads = 8;
+        int perThread = 2_000;
+        byte[] live;
+        try (Ledger ledger = new Ledger()) {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                ids.add(ledger.accounts.createAccount("CUST" + i, AccountType.CHECKING, new Money(1_000.0, "USD"))
+                    .getAccountId());
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        String from = ids.get(random.nextInt(accounts));
+                        String to = ids.get(random.nextInt(accounts));
+                        Money amount = Money.ofMinorUnits(1 + random.nextInt(500), "USD");
+                        if (from.equals(to)) {
+                            ledger.transactions.deposit(from, amount, "deposit");
+                        } else {
+                            try {
+                                ledger.transactions.transfer(from, to, amount, "transfer");
+                            } catch (RuntimeException e) {
+                                // insufficient funds; nothing was journaled
+                            }
+                        }
+                    }
+                });
+            }
+            // Snapshot repeatedly while writers are running
+            for (int i = 0; i < 5; i++) {
+                ledger.persistence.takeSnapshot();
+                Thread.sleep(5);
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            recovered.persistence.recover();
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+        }
+    }
+
+    @Test
+    void testRecoveryAfterBatch() throws IOException {
+        byte[] live;
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account b = ledger.accounts.createAccount("CUST2", AccountType.CHECKING, new Money(0.0, "USD"));
+            ledger.transactions.executeBatch(Arrays.asList(
+                BatchOperation.transfer(a.getAccountId(), b.getAccountId(), new Money(30.0, "USD"), "move"),
+                BatchOperation.withdraw(b.getAccountId(), new Money(500.0, "USD"), "rejected"),
+                BatchOperation.deposit(b.getAccountId(), new Money(2.5, "USD"), "in")
+            ), BatchMode.BEST_EFFORT);
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            assertEquals(4, recovered.persistence.recover());
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+        }
+    }
+
+    @Test
+    void testRecoveryOfShardedLedgerUnderConcurrentWrites() throws Exception {
+        int accounts = 32;
+        byte[] live;
+        try (Ledger ledger = new Ledger(4)) {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                ids.add(ledger.accounts.createAccount("CUST" + i, AccountType.CHECKING, new Money(100.0, "USD"))
+                    .getAccountId());
+            }
+            ledger.accounts.deactivateAccount(ids.get(0));
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 1_000; i++) {
+                        String from = ids.get(1 + random.nextInt(accounts - 1));
+                        String to = ids.get(random.nextInt(accounts));
+                        if (!from.equals(to)) {
+                            try {
+                                ledger.transactions.transfer(from, to, Money.ofMinorUnits(1 + random.nextInt(900), "USD"), "t");
+                            } catch (RuntimeException e) {
+                                // insufficient funds, or refunded by the inactive account
+                            }
+                        }
+                    }
+                });
+            }
+            for (int i = 0; i < 5; i++) {
+                ledger.persistence.takeSnapshot();
+                Thread.sleep(5);
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+            assertTrue(ledger.transactions.getTransferMetrics().getCrossShardTransfers() > 0);
+            assertTrue(ledger.transactions.getTransferMetrics().getRefundedTransfers() > 0);
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            recovered.persistence.recover();
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+        }
+    }
+
+    @Test
+    void testRecoverySettlesTransferLeftInFlight() throws IOException {
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account b = ledger.accounts.createAccount("CUST2", AccountType.CHECKING, new Money(0.0, "USD"));
+            Account c = ledger.accounts.createAccount("CUST3", AccountType.CHECKING, new Money(0.0, "USD"));
+            ledger.accounts.deactivateAccount(c.getAccountId());
+            // Debit legs journaled by a source shard that stopped before the destination answered
+            Transaction toB = new Transaction(a.getAccountId(), TransactionType.TRANSFER, new Money(30.0, "USD"),
+                "in flight", b.getAccountId());
+            Transaction toC = new Transaction(a.getAccountId(), TransactionType.TRANSFER, new Money(20.0, "USD"),
+                "in flight", c.getAccountId());
+            ledger.persistence.takeSnapshot();
+            a.withdrawMinorUnits(3_000);
+            a.markJournaled(ledger.journal.appendLeg(TransferLeg.DEBIT, toB));
+            a.withdrawMinorUnits(2_000);
+            long last = ledger.journal.appendLeg(TransferLeg.DEBIT, toC);
+            a.markJournaled(last);
+            ledger.journal.awaitDurable(last);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            recovered.persistence.recover();
+            List<Account> accounts = recovered.accounts.getAllAccounts();
+            assertEquals(7_000, accounts.get(0).getBalanceMinorUnits());
+            assertEquals(3_000, accounts.get(1).getBalanceMinorUnits());
+            assertEquals(0, accounts.get(2).getBalanceMinorUnits());
+            assertEquals(1, recovered.transactions.getAllTransactions().size());
+        }
+
+        try (Ledger again = new Ledger()) {
+            again.persistence.recover();
+            assertEquals(7_000, again.accounts.getAllAccounts().get(0).getBalanceMinorUnits());
+            assertEquals(3_000, again.accounts.getAllAccounts().get(1).getBalanceMinorUnits());
+        }
+    }
+
+    @Test
+    void testSettlingFailsWhenNeitherCreditNorRefundCanBeJournaled() throws IOException {
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account c = ledger.accounts.createAccount("CUST3", AccountType.CHECKING, new Money(0.0, "USD"));
+            ledger.accounts.deactivateAccount(c.getAccountId());
+            Transaction toC = new Transaction(a.getAccountId(), TransactionType.TRANSFER, new Money(20.0, "USD"),
+                "in flight", c.getAccountId());
+            a.withdrawMinorUnits(2_000);
+            a.markJournaled(ledger.journal.appendLeg(TransferLeg.DEBIT, toC));
+            ledger.journal.close();
+
+            assertThrows(IllegalStateException.class, () -> ledger.transactions.settleTransfer(toC));
+        }
+    }
+
+    @Test
+    void testChangesTheJournalRefusesLeaveBalancesAndHistoriesUnchanged() throws IOException {
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account b = ledger.accounts.createAccount("CUST2", AccountType.CHECKING, new Money(50.0, "USD"));
+            ledger.journal.close();
+
+            String from = a.getAccountId();
+            String to = b.getAccountId();
+            assertThrows(IllegalStateException.class,
+                () -> ledger.transactions.deposit(from, new Money(10.0, "USD"), "deposit"));
+            assertThrows(IllegalStateException.class,
+                () -> ledger.transactions.withdraw(from, new Money(10.0, "USD"), "withdraw"));
+            assertThrows(IllegalStateException.class,
+                () -> ledger.transactions.transfer(from, to, new Money(10.0, "USD"), "transfer"));
+            assertThrows(IllegalStateException.class, () -> ledger.transactions.executeBatch(Arrays.asList(
+                BatchOperation.deposit(from, new Money(5.0, "USD"), "deposit"),
+                BatchOperation.transfer(from, to, new Money(5.0, "USD"), "transfer")), BatchMode.BEST_EFFORT));
+
+            assertEquals(10_000, a.getBalanceMinorUnits());
+            assertEquals(5_000, b.getBalanceMinorUnits());
+            assertTrue(ledger.transactions.getAllTransactions().isEmpty());
+            assertTrue(ledger.transactions.getTransactionsByAccount(from).isEmpty());
+            assertTrue(ledger.transactions.getTransactionsByAccount(to).isEmpty());
+        }
+    }
+
+    @Test
+    void testDebitLegTheJournalRefusesIsRefunded() throws IOException {
+        try (Ledger ledger = new Ledger(2)) {
+            ShardedAccountLocks locks = (ShardedAccountLocks) ledger.accounts.getAccountLocks();
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            Account far = null;
+            for (int i = 2; far == null; i++) {
+                Account account = ledger.accounts.createAccount("CUST" + i, AccountType.CHECKING, new Money(0.0, "USD"));
+                if (!locks.sameShard(a.getAccountId(), account.getAccountId())) {
+                    far = account;
+                }
+            }
+            ledger.journal.close();
+
+            String to = far.getAccountId();
+            assertThrows(IllegalStateException.class,
+                () -> ledger.transactions.transfer(a.getAccountId(), to, new Money(10.0, "USD"), "transfer"));
+            assertEquals(10_000, a.getBalanceMinorUnits());
+            assertEquals(0, far.getBalanceMinorUnits());
+            assertEquals(Long.MAX_VALUE, ledger.transactions.getOldestTransferInFlight());
+        }
+    }
+
+    @Test
+    void testHistoryFromBeforeTheSnapshotSurvivesRestart() throws IOException {
+        String depositId;
+        String transferId;
+        String a;
+        String b;
+        byte[] live;
+        try (Ledger ledger = new Ledger()) {
+            a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD")).getAccountId();
+            b = ledger.accounts.createAccount("CUST2", AccountType.CHECKING, new Money(0.0, "USD")).getAccountId();
+            depositId = ledger.transactions.deposit(a, new Money(10.0, "USD"), "before").getTransactionId();
+            transferId = ledger.transactions.transfer(a, b, new Money(30.0, "USD"), "before").getTransactionId();
+            ledger.persistence.takeSnapshot();
+            ledger.transactions.withdraw(b, new Money(5.0, "USD"), "after");
+            ledger.persistence.takeSnapshot();
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            assertEquals(0, recovered.persistence.recover());
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+            assertEquals(3, recovered.transactions.getAllTransactions().size());
+            assertEquals("before", recovered.transactions.getTransaction(depositId).getDescription());
+            assertEquals(TransactionType.TRANSFER, recovered.transactions.getTransaction(transferId).getType());
+            assertEquals(2, recovered.transactions.getTransactionsByAccount(a).size());
+            assertEquals(2, recovered.transactions.getTransactionsByAccount(b).size());
+            assertEquals(transferId, recovered.transactions.getTransactionsByAccount(b).get(1).getTransactionId());
+        }
+    }
+
+    @Test
+    void testRecoveryFromSnapshotWithEmptyTail() throws IOException {
+        byte[] live;
+        try (Ledger ledger = new Ledger()) {
+            Account a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(10.0, "EUR"));
+            ledger.transactions.deposit(a.getAccountId(), new Money(5.0, "EUR"), "deposit");
+            ledger.persistence.takeSnapshot();
+            live = canonicalState(ledger.accounts);
+        }
+
+        try (Ledger recovered = new Ledger()) {
+            assertEquals(0, recovered.persistence.recover());
+            assertArrayEquals(live, canonicalState(recovered.accounts));
+        }
+    }
+
+    /**
+     * Encodes every account field, ordered by account id, so two ledgers can be compared byte for byte.
+     */
+    private static byte[] canonicalState(AccountService accountService) throws IOException {
+        List<Account> accounts = new ArrayList<>(accountService.getAllAccounts());
+        accounts.sort(Comparator.comparing(Account::getAccountId));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Account account : accounts) {
+                out.writeUTF(account.getAccountId());
+                out.writeUTF(account.getCustomerId());
+                out.writeUTF(account.getAccountType().name());
+                out.writeUTF(account.getCurrency());
+                out.writeLong(account.getBalanceMinorUnits());
+                out.writeBoolean(account.isActive());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private class Ledger implements AutoCloseable {
+        final ShardedLedgerEngine engine;
+        final TransactionJournal journal;
+        final AccountService accounts;
+        final TransactionService transactions;
+        final LedgerPersistence persistence;
+
+        Ledger() throws IOException {
+            this(0);
+        }
+
+        Ledger(int shards) throws IOException {
+            engine = shards > 0 ? new ShardedLedgerEngine(shards) : null;
+            journal = new TransactionJournal(tempDir.resolve("journal"));
+            accounts = new AccountService(engine != null ? new ShardedAccountLocks(engine) : new AccountLocks(), journal);
+            transactions = new TransactionService(accounts, journal);
+            persistence = new LedgerPersistence(new SnapshotStore(tempDir.resolve("snapshots")),
+                journal, accounts, transactions);
+        }
+
+        @Override
+        public void close() throws IOException {
+            persistence.close();
+            journal.close();
+            if (engine != null) {
+                engine.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.banking.transaction.service;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
+import com.banking.transaction.store.InMemoryTransactionStore;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-threaded tests for the striped locking in {@link TransactionService}: random
+ * transfers from many threads must neither create nor destroy money nor lose a recorded
+ * transfer. Throughput is measured by the benchmarks module, not here.
+ */
+class TransactionServiceConcurrencyTest {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    @Test
+    void testConcurrentTransfersConserveMoneyAndLoseNoUpdates() throws InterruptedException {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        List<String> accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(100.0, "USD"));
+            accountIds.add(account.getAccountId());
+        }
+        Money amount = new Money(1.0, "USD");
+        AtomicLong applied = new AtomicLong();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        transactionService.transfer(accountIds.get(from), accountIds.get(to), amount, "load");
+                        applied.incrementAndGet();
+                    } catch (InsufficientFundsException ignored) {
+                        // declined transfers leave balances untouched
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(120, TimeUnit.SECONDS), "transfers did not complete");
+
+        long total = 0;
+        long historyEntries = 0;
+        for (String accountId : accountIds) {
+            long balance = accountService.getAccount(accountId).getBalanceMinorUnits();
+            assertTrue(balance >= 0, "balance went negative for " + accountId);
+            total += balance;
+            historyEntries += transactionService.getTransactionsByAccount(accountId).size();
+        }
+        assertEquals(ACCOUNTS * 10_000L, total, "money was not conserved");
+        assertEquals(applied.get(), transactionService.getAllTransactions().size());
+        assertEquals(2 * applied.get(), historyEntries);
+    }
+
+    @Test
+    void testOpposingTransfersBetweenTwoAccountsDoNotDeadlock() throws InterruptedException {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(1_000.0, "USD"));
+        Account b = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(1_000.0, "USD"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            boolean forward = t % 2 == 0;
+            executor.execute(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    String from = forward ? a.getAccountId() : b.getAccountId();
+                    String to = forward ? b.getAccountId() : a.getAccountId();
+                    try {
+                        transactionService.transfer(from, to, new Money(1.0, "USD"), "ping-pong");
+                    } catch (InsufficientFundsException ignored) {
+                        // declined transfers are expected when one side runs dry
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "transfers deadlocked");
+        BigDecimal total = a.getBalance().getAmount().add(b.getBalance().getAmount());
+        assertEquals(0, new BigDecimal("2000").compareTo(total));
+    }
+
+    @Test
+    void testOptimisticUpdatesOnOneAccountConserveMoney() throws InterruptedException {
+        AccountService accountService = new AccountService(new AccountLocks());
+        TransactionService transactionService = new TransactionService(accountService, null,
+            new InMemoryTransactionStore(), 4);
+        Account hot = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        Account other = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(10.0, "USD"));
+        AtomicLong net = new AtomicLong();
+        AtomicLong recorded = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    long cents = 1 + random.nextInt(300);
+                    try {
+                        if (random.nextBoolean()) {
+                            transactionService.deposit(hot.getAccountId(), Money.ofMinorUnits(cents, "USD"), "d");
+                            net.addAndGet(cents);
+                        } else {
+                            transactionService.withdraw(hot.getAccountId(), Money.ofMinorUnits(cents, "USD"), "w");
+                            net.addAndGet(-cents);
+                        }
+                        recorded.incrementAndGet();
+                    } catch (InsufficientFundsException ignored) {
+                        // declined when the account runs dry
+                    }
+                }
+            });
+        }
+        // Batches that always roll back: optimistic writers must never spend their deposit
+        executor.execute(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                transactionService.executeBatch(Arrays.asList(
+                    BatchOperation.deposit(hot.getAccountId(), new Money(500.0, "USD"), "held"),
+                    BatchOperation.withdraw(other.getAccountId(), new Money(1_000.0, "USD"), "refused")),
+                    BatchMode.ALL_OR_NOTHING);
+            }
+        });
+        executor.execute(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                boolean forward = i % 2 == 0;
+                try {
+                    transactionService.transfer(forward ? other.getAccountId() : hot.getAccountId(),
+                        forward ? hot.getAccountId() : other.getAccountId(), new Money(1.0, "USD"), "t");
+                    recorded.incrementAndGet();
+                } catch (InsufficientFundsException ignored) {
+                    // declined when the source runs dry
+                }
+            }
+        });
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(hot.getBalanceMinorUnits() >= 0);
+        assertEquals(2_000 + net.get(), hot.getBalanceMinorUnits() + other.getBalanceMinorUnits());
+        assertEquals(recorded.get(), transactionService.getTransactionsByAccount(hot.getAccountId()).size());
+        assertTrue(hot.getVersion() > 0);
+    }
+
+    @Test
+    void testDepositsToHotAccountNeverLetWithdrawalsOverdraw() throws InterruptedException {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account merchant = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        accountService.makeHot(merchant.getAccountId());
+        AtomicLong withdrawn = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    transactionService.deposit(merchant.getAccountId(), Money.ofMinorUnits(3, "USD"), "sale");
+                }
+            });
+        }
+        for (int t = 0; t < 2; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    try {
+                        transactionService.withdraw(merchant.getAccountId(), Money.ofMinorUnits(10, "USD"), "payout");
+                        withdrawn.addAndGet(10);
+                    } catch (InsufficientFundsException ignored) {
+                        // declined until enough sales have arrived
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(merchant.readBalance().getBalanceMinorUnits() >= 0);
+        assertEquals(4 * 20_000 * 3 - withdrawn.get(), merchant.getBalanceMinorUnits());
+        merchant.foldCredits();
+        assertEquals(4 * 20_000 * 3 - withdrawn.get(), merchant.readBalance().getBalanceMinorUnits());
+        assertEquals(4 * 20_000 + withdrawn.get() / 10,
+            transactionService.getTransactionsByAccount(merchant.getAccountId()).size());
+    }
+}
@@ -1,14 +1,29 @@
 package com.banking.transaction.service;
 
+import com.banking.account.concurrent.AccountLocks;
 import com.banking.account.domain.Account;
+import com.banking.account.offheap.OffHeapAccountTable;
 import com.banking.account.service.AccountService;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
+import com.banking.core.domain.OperationStatus;
 import com.banking.core.domain.TransactionType;
 import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.util.Page;
+import com.banking.transaction.batch.BatchItemResult;
+import com.banking.transaction.batch.BatchMode;
+import com.banking.transaction.batch.BatchOperation;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionResult;
+import com.banking.transaction.store.InMemoryTransactionStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TransactionServiceTest {
@@ -75,5 +90,227 @@ class TransactionServiceTest {
         var transactions = transactionService.getTransactionsByAccount(account.getAccountId());
         assertEquals(2, transactions.size());
     }
-}
 
+    @Test
+    void testTransferRollsBackWhenDepositRejected() {
+        Account fromAccount = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        Account toAccount = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(50.0, "USD"));
+        accountService.deactivateAccount(toAccount.getAccountId());
+
+        assertThrows(InvalidAccountException.class, () -> transactionService.transfer(
+            fromAccount.getAccountId(),
+            toAccount.getAccountId(),
+            new Money(40.0, "USD"),
+            "Transfer to closed account"
+        ));
+
+        assertEquals(100.0, fromAccount.getBalance().getAmount().doubleValue());
+        assertEquals(50.0, toAccount.getBalance().getAmount().doubleValue());
+        assertTrue(transactionService.getTransactionsByAccount(fromAccount.getAccountId()).isEmpty());
+    }
+
+    @Test
+    void testTryVariantsReportDeclinesWithoutChangingAnything() {
+        Account fromAccount = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        Account toAccount = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(50.0, "USD"));
+        String from = fromAccount.getAccountId();
+        String to = toAccount.getAccountId();
+        Money amount = new Money(40.0, "USD");
+
+        TransactionResult missing = transactionService.tryWithdraw("NON_EXISTENT", amount, "Missing");
+        assertFalse(missing.isApplied());
+        assertEquals(OperationStatus.ACCOUNT_NOT_FOUND, missing.getStatus());
+        assertEquals("NON_EXISTENT", missing.getDeclinedAccountId());
+        assertNull(missing.getTransaction());
+        assertEquals(OperationStatus.ACCOUNT_NOT_FOUND,
+            transactionService.tryTransfer(from, "NON_EXISTENT", amount, "Missing").getStatus());
+
+        TransactionResult shortfall = transactionService.tryWithdraw(from, new Money(150.0, "USD"), "Too much");
+        assertEquals(OperationStatus.INSUFFICIENT_FUNDS, shortfall.getStatus());
+        assertEquals(from, shortfall.getDeclinedAccountId());
+        assertEquals(OperationStatus.INSUFFICIENT_FUNDS,
+            transactionService.tryTransfer(from, to, new Money(150.0, "USD"), "Too much").getStatus());
+
+        accountService.deactivateAccount(to);
+        TransactionResult inactive = transactionService.tryTransfer(from, to, amount, "Closed");
+        assertEquals(OperationStatus.ACCOUNT_INACTIVE, inactive.getStatus());
+        assertEquals(to, inactive.getDeclinedAccountId());
+        assertEquals(OperationStatus.ACCOUNT_INACTIVE, transactionService.tryWithdraw(to, amount, "Closed").getStatus());
+
+        // Account state is reported before the amount is validated, by both APIs alike
+        Money negative = new Money(-1.0, "USD");
+        assertEquals(OperationStatus.ACCOUNT_NOT_FOUND,
+            transactionService.tryWithdraw("NON_EXISTENT", negative, "Missing").getStatus());
+        assertThrows(InvalidAccountException.class, () -> transactionService.withdraw("NON_EXISTENT", negative, "Missing"));
+        assertEquals(OperationStatus.ACCOUNT_INACTIVE, transactionService.tryWithdraw(to, negative, "Closed").getStatus());
+        assertThrows(InvalidAccountException.class, () -> transactionService.withdraw(to, negative, "Closed"));
+        assertEquals(OperationStatus.ACCOUNT_INACTIVE, transactionService.tryTransfer(to, from, negative, "Closed").getStatus());
+        assertThrows(InvalidAccountException.class, () -> transactionService.transfer(to, from, negative, "Closed"));
+
+        assertEquals(100.0, fromAccount.getBalance().getAmount().doubleValue());
+        assertEquals(50.0, toAccount.getBalance().getAmount().doubleValue());
+        assertTrue(transactionService.getTransactionsByAccount(from).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionService.tryWithdraw(from, new Money(-1.0, "USD"), "Negative"));
+
+        TransactionResult applied = transactionService.tryWithdraw(from, amount, "Withdrawal");
+        assertTrue(applied.isApplied());
+        assertEquals(OperationStatus.APPLIED, applied.getStatus());
+        assertEquals(java.util.List.of(applied.getTransaction()), transactionService.getTransactionsByAccount(from));
+        assertEquals(60.0, fromAccount.getBalance().getAmount().doubleValue());
+    }
+
+    @Test
+    void testOperationsRecordTheirLatencyOnce() {
+        Account account = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        transactionService.deposit(account.getAccountId(), new Money(10.0, "USD"), "Deposit");
+        transactionService.withdraw(account.getAccountId(), new Money(10.0, "USD"), "Withdrawal");
+        assertThrows(InsufficientFundsException.class,
+            () -> transactionService.withdraw(account.getAccountId(), new Money(500.0, "USD"), "Declined"));
+
+        var latencies = transactionService.getLatencyMetrics().snapshot();
+        assertEquals(1, latencies.get("deposit").getCount());
+        assertEquals(2, latencies.get("withdraw").getCount());
+        assertEquals(0, latencies.get("transfer").getCount());
+        assertTrue(latencies.get("deposit").getMaxNanos() > 0);
+        assertEquals(1, accountService.getLatencyMetrics().snapshot().get("open").getCount());
+    }
+
+    @Test
+    void testHistoryIsNewestFirstAndCoversBothTransferLegs() {
+        Account fromAccount = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        Account toAccount = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(50.0, "USD"));
+        Transaction deposit = transactionService.deposit(fromAccount.getAccountId(), new Money(10.0, "USD"), "Deposit");
+        Transaction transfer = transactionService.transfer(
+            fromAccount.getAccountId(), toAccount.getAccountId(), new Money(20.0, "USD"), "Transfer");
+        Transaction withdrawal = transactionService.withdraw(fromAccount.getAccountId(), new Money(5.0, "USD"), "Withdrawal");
+
+        var fromHistory = transactionService.getTransactionsByAccount(fromAccount.getAccountId());
+        assertEquals(java.util.List.of(withdrawal, transfer, deposit), fromHistory);
+        assertEquals(java.util.List.of(transfer), transactionService.getTransactionsByAccount(toAccount.getAccountId()));
+        assertEquals(java.util.List.of(withdrawal, transfer),
+            transactionService.getRecentTransactions(fromAccount.getAccountId(), 2));
+    }
+
+    @Test
+    void testOptimisticUpdatesRefuseLikeTheLockedPath() {
+        TransactionService optimistic = new TransactionService(accountService, null, new InMemoryTransactionStore(), 3);
+        Account account = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        optimistic.deposit(account.getAccountId(), new Money(50.0, "USD"), "d");
+        optimistic.withdraw(account.getAccountId(), new Money(30.0, "USD"), "w");
+        assertEquals(12_000, account.getBalanceMinorUnits());
+        assertEquals(2, optimistic.getTransactionsByAccount(account.getAccountId()).size());
+
+        assertThrows(InsufficientFundsException.class,
+            () -> optimistic.withdraw(account.getAccountId(), new Money(500.0, "USD"), "too much"));
+        assertThrows(IllegalArgumentException.class,
+            () -> optimistic.deposit(account.getAccountId(), new Money(-1.0, "USD"), "negative"));
+        assertThrows(IllegalArgumentException.class,
+            () -> optimistic.deposit(account.getAccountId(), new Money(1.0, "EUR"), "currency"));
+        accountService.deactivateAccount(account.getAccountId());
+        assertThrows(InvalidAccountException.class,
+            () -> optimistic.deposit(account.getAccountId(), new Money(1.0, "USD"), "inactive"));
+        assertEquals(12_000, account.getBalanceMinorUnits());
+        assertThrows(IllegalArgumentException.class,
+            () -> new TransactionService(accountService, null, new InMemoryTransactionStore(), -1));
+        AccountService offHeap = new AccountService(new AccountLocks(), null, new OffHeapAccountTable(16));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TransactionService(offHeap, null, new InMemoryTransactionStore(), 3));
+    }
+
+    @Test
+    void testBestEffortBatchAppliesValidOperations() {
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account b = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+        List<BatchItemResult> results = transactionService.executeBatch(Arrays.asList(
+            BatchOperation.deposit(a.getAccountId(), new Money(10.0, "USD"), "in"),
+            BatchOperation.withdraw(b.getAccountId(), new Money(5.0, "USD"), "overdraw"),
+            BatchOperation.transfer(a.getAccountId(), b.getAccountId(), new Money(60.0, "USD"), "move"),
+            BatchOperation.deposit("missing", new Money(1.0, "USD"), "unknown")
+        ), BatchMode.BEST_EFFORT);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isApplied());
+        assertFalse(results.get(1).isApplied());
+        assertTrue(results.get(2).isApplied());
+        assertFalse(results.get(3).isApplied());
+        assertEquals(3, results.get(3).getIndex());
+        assertNotNull(results.get(1).getError());
+        assertEquals(new Money(50.0, "USD"), a.getBalance());
+        assertEquals(new Money(60.0, "USD"), b.getBalance());
+        assertEquals(2, transactionService.getAllTransactions().size());
+    }
+
+    @Test
+    void testAllOrNothingBatchRollsBackOnFailure() {
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account b = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+        List<BatchItemResult> results = transactionService.executeBatch(Arrays.asList(
+            BatchOperation.transfer(a.getAccountId(), b.getAccountId(), new Money(70.0, "USD"), "move"),
+            BatchOperation.deposit(a.getAccountId(), new Money(5.0, "USD"), "in"),
+            BatchOperation.withdraw(a.getAccountId(), new Money(50.0, "USD"), "too much")
+        ), BatchMode.ALL_OR_NOTHING);
+
+        assertTrue(results.stream().noneMatch(BatchItemResult::isApplied));
+        assertTrue(results.get(2).getError().contains("Insufficient funds"));
+        assertEquals(new Money(100.0, "USD"), a.getBalance());
+        assertEquals(new Money(0.0, "USD"), b.getBalance());
+        assertTrue(transactionService.getAllTransactions().isEmpty());
+    }
+
+    @Test
+    void testAllOrNothingBatchAppliesInOrder() {
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        List<BatchItemResult> results = transactionService.executeBatch(Arrays.asList(
+            BatchOperation.deposit(a.getAccountId(), new Money(20.0, "USD"), "in"),
+            BatchOperation.withdraw(a.getAccountId(), new Money(15.0, "USD"), "out")
+        ), BatchMode.ALL_OR_NOTHING);
+
+        assertTrue(results.stream().allMatch(BatchItemResult::isApplied));
+        assertEquals(new Money(5.0, "USD"), a.getBalance());
+        assertEquals(TransactionType.WITHDRAWAL, transactionService.getRecentTransactions(a.getAccountId(), 1).get(0).getType());
+    }
+
+    @Test
+    void testPagedHistoryIsStableWhileTransactionsArrive() {
+        Account account = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        for (int i = 1; i <= 5; i++) {
+            transactionService.deposit(account.getAccountId(), new Money(i, "USD"), "D" + i);
+        }
+
+        Page<Transaction> first = transactionService.getTransactions(account.getAccountId(), null, 2);
+        transactionService.deposit(account.getAccountId(), new Money(6.0, "USD"), "D6");
+        Page<Transaction> second = transactionService.getTransactions(account.getAccountId(), first.getNextCursor(), 2);
+        Page<Transaction> third = transactionService.getTransactions(account.getAccountId(), second.getNextCursor(), 2);
+
+        List<String> descriptions = new ArrayList<>();
+        for (Page<Transaction> page : Arrays.asList(first, second, third)) {
+            page.getItems().forEach(transaction -> descriptions.add(transaction.getDescription()));
+        }
+        assertEquals(Arrays.asList("D5", "D4", "D3", "D2", "D1"), descriptions);
+        assertFalse(third.hasNext());
+        assertTrue(transactionService.getTransactions("unknown", null, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void testForEachTransactionFiltersByAccountAndTime() {
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        Account b = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+        Transaction first = transactionService.deposit(a.getAccountId(), new Money(1.0, "USD"), "A1");
+        transactionService.deposit(b.getAccountId(), new Money(2.0, "USD"), "B1");
+        Transaction last = transactionService.deposit(a.getAccountId(), new Money(3.0, "USD"), "A2");
+
+        List<String> all = new ArrayList<>();
+        transactionService.forEachTransaction(null, null, null, t -> all.add(t.getDescription()));
+        assertEquals(Arrays.asList("A1", "B1", "A2"), all);
+
+        List<String> forA = new ArrayList<>();
+        transactionService.forEachTransaction(a.getAccountId(), null, null, t -> forA.add(t.getDescription()));
+        assertEquals(Arrays.asList("A1", "A2"), forA);
+
+        List<String> ranged = new ArrayList<>();
+        transactionService.forEachTransaction(null, first.getTimestamp(), last.getTimestamp(), t -> ranged.add(t.getDescription()));
+        assertEquals("A1", ranged.get(0));
+        assertFalse(ranged.contains("A2"));
+    }
+}
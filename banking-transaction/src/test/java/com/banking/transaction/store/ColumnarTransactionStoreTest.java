@@ -0,0 +1,111 @@
+package com.banking.transaction.store;
+
+import com.banking.account.domain.Account;
+import com.banking.account.registry.AccountRegistry;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.util.Page;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTransactionStoreTest {
+
+    @Test
+    void testViewsMatchStoredTransactions() {
+        AccountRegistry registry = new AccountRegistry();
+        int acc1 = registry.register("ACC1");
+        int acc2 = registry.register("ACC2");
+        ColumnarTransactionStore store = new ColumnarTransactionStore(registry);
+        Transaction deposit = new Transaction("ACC1", TransactionType.DEPOSIT, new Money(10.25, "USD"), "caf\u00e9 \"deposit\"");
+        Transaction transfer = new Transaction("ACC1", TransactionType.TRANSFER, new Money(3.0, "JPY"), null, "ACC2");
+        store.add(deposit, acc1, TransactionStore.NO_ACCOUNT);
+        store.add(transfer, acc1, acc2);
+
+        assertSameFields(deposit, store.get(deposit.getTransactionId()));
+        assertSameFields(transfer, store.get(transfer.getTransactionId()));
+        assertNull(store.get("missing"));
+        assertEquals(2, store.size());
+        assertEquals(2, store.historySize(acc1));
+        assertEquals(1, store.historySize(acc2));
+        assertEquals(0, store.historySize(registry.register("ACC3")));
+    }
+
+    @Test
+    void testHistoriesAndOrderAcrossChunks() {
+        AccountRegistry registry = new AccountRegistry();
+        ColumnarTransactionStore store = new ColumnarTransactionStore(registry);
+        List<Transaction> added = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            String accountId = "ACC" + (i % 3);
+            Transaction transaction = new Transaction(accountId, TransactionType.DEPOSIT,
+                Money.ofMinorUnits(i + 1, "USD"), "d" + i);
+            store.add(transaction, registry.register(accountId), TransactionStore.NO_ACCOUNT);
+            added.add(transaction);
+        }
+        List<Transaction> all = store.oldestFirst(0, Integer.MAX_VALUE);
+        assertEquals(added, all);
+        assertEquals("d39999", all.get(39_999).getDescription());
+
+        List<Transaction> newest = store.newestFirst(registry.handleOf("ACC1"), Integer.MAX_VALUE, 2);
+        assertEquals(Arrays.asList(added.get(39_997), added.get(39_994)), newest);
+
+        List<Transaction> visited = new ArrayList<>();
+        store.forEach(registry.handleOf("ACC2"), visited::add);
+        assertEquals(13_333, visited.size());
+        assertEquals(added.get(2), visited.get(0));
+    }
+
+    @Test
+    void testTransactionServiceOnColumnarStore() throws InterruptedException {
+        AccountService accountService = new AccountService();
+        TransactionService service = new TransactionService(accountService, null,
+            new ColumnarTransactionStore(accountService.getAccountRegistry()));
+        Account a = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(1_000.0, "USD"));
+        Account b = accountService.createAccount("CUST2", AccountType.CHECKING, new Money(1_000.0, "USD"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            boolean forward = t % 2 == 0;
+            executor.execute(() -> {
+                for (int i = 0; i < 500; i++) {
+                    service.transfer(forward ? a.getAccountId() : b.getAccountId(),
+                        forward ? b.getAccountId() : a.getAccountId(), new Money(1.0, "USD"), "t");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(2_000, service.getAllTransactions().size());
+        assertEquals(2_000, service.getTransactionsByAccount(a.getAccountId()).size());
+        Page<Transaction> page = service.getTransactions(b.getAccountId(), null, 10);
+        assertEquals(10, page.getItems().size());
+        assertTrue(page.hasNext());
+        Transaction newest = page.getItems().get(0);
+        assertEquals(newest.getTimestamp(), service.getTransaction(newest.getTransactionId()).getTimestamp());
+        assertEquals(new Money(2_000.0, "USD"), a.getBalance().add(b.getBalance()));
+    }
+
+    private static void assertSameFields(Transaction expected, Transaction actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getAccountId(), actual.getAccountId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getRelatedAccountId(), actual.getRelatedAccountId());
+    }
+}
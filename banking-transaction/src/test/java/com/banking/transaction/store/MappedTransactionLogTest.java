@@ -0,0 +1,162 @@
+package com.banking.transaction.store;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTransactionLogTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsReadBackAcrossSegments() throws IOException {
+        List<Transaction> added = new ArrayList<>();
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 500; i++) {
+                Transaction transaction = transaction(i);
+                assertEquals(i, log.append(transaction));
+                added.add(transaction);
+            }
+            assertEquals(500, log.size());
+            assertTrue(log.getSegmentCount() > 1);
+            for (int i = 0; i < 500; i++) {
+                assertSameFields(added.get(i), log.read(i));
+            }
+            List<Transaction> visited = new ArrayList<>();
+            log.forEach(250, visited::add);
+            assertEquals(added.subList(250, 500), visited);
+            assertThrows(IndexOutOfBoundsException.class, () -> log.read(500));
+        }
+    }
+
+    @Test
+    void testReopenKeepsRecords() throws IOException {
+        List<Transaction> added = new ArrayList<>();
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 200; i++) {
+                added.add(transaction(i));
+                log.append(added.get(i));
+            }
+        }
+        try (MappedTransactionLog log = MappedTransactionLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(200, log.size());
+            for (int i = 0; i < 200; i++) {
+                assertSameFields(added.get(i), log.read(i));
+            }
+            Transaction next = transaction(200);
+            assertEquals(200, log.append(next));
+            assertSameFields(next, log.read(200));
+        }
+    }
+
+    @Test
+    void testCorruptTailIsCutOnOpen() throws IOException {
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(transaction(i));
+            }
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long position = 0;
+            for (int i = 0; i < 4; i++) {
+                header.clear();
+                channel.read(header, position);
+                position += 8 + header.getInt(0);
+            }
+            // Flip a payload byte of the fifth record, as if its write had been torn
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0x5A}), position + 12);
+        }
+        try (MappedTransactionLog log = MappedTransactionLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(4, log.size());
+            Transaction next = transaction(99);
+            assertEquals(4, log.append(next));
+            assertSameFields(next, log.read(4));
+        }
+        try (MappedTransactionLog log = MappedTransactionLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(5, log.size());
+        }
+    }
+
+    @Test
+    void testCreateDeletesExistingSegments() throws IOException {
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 300; i++) {
+                log.append(transaction(i));
+            }
+        }
+        assertTrue(segments().size() > 1);
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            assertEquals(0, log.size());
+            assertEquals(1, log.getSegmentCount());
+        }
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    void testTruncateDropsLaterRecordsAndSegments() throws IOException {
+        List<Transaction> added = new ArrayList<>();
+        try (MappedTransactionLog log = MappedTransactionLog.create(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 300; i++) {
+                added.add(transaction(i));
+                log.append(added.get(i));
+            }
+            assertTrue(log.getSegmentCount() > 2);
+            log.truncate(70);
+
+            assertEquals(70, log.size());
+            assertEquals(log.getSegmentCount(), segments().size());
+            assertSameFields(added.get(69), log.read(69));
+            Transaction next = transaction(999);
+            assertEquals(70, log.append(next));
+            assertSameFields(next, log.read(70));
+        }
+        try (MappedTransactionLog log = MappedTransactionLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(71, log.size());
+            for (int i = 0; i < 70; i++) {
+                assertSameFields(added.get(i), log.read(i));
+            }
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static Transaction transaction(int i) {
+        return i % 3 == 0
+            ? new Transaction("ACC" + i, TransactionType.TRANSFER, Money.ofMinorUnits(i + 1, "JPY"), null, "ACC" + (i + 1))
+            : new Transaction("ACC" + i, TransactionType.DEPOSIT, Money.ofMinorUnits(i + 1, "USD"), "d\u00e9p\u00f4t " + i);
+    }
+
+    static void assertSameFields(Transaction expected, Transaction actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getAccountId(), actual.getAccountId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getRelatedAccountId(), actual.getRelatedAccountId());
+    }
+}
@@ -0,0 +1,159 @@
+package com.banking.transaction.store;
+
+import com.banking.account.concurrent.AccountLocks;
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.util.Page;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.persistence.LedgerPersistence;
+import com.banking.transaction.persistence.SnapshotStore;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.banking.transaction.store.MappedTransactionLogTest.assertSameFields;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTransactionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReadsOlderThanWindowComeFromLog() throws IOException {
+        AccountService accountService = new AccountService();
+        try (MappedTransactionStore store = new MappedTransactionStore(directory, 4096, 16)) {
+            TransactionService service = new TransactionService(accountService, null, store);
+            Account a = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(1_000.0, "USD"));
+            Account b = accountService.createAccount("CUST2", AccountType.SAVINGS, new Money(1_000.0, "USD"));
+            List<Transaction> added = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                added.add(i % 2 == 0
+                    ? service.deposit(a.getAccountId(), new Money(1.0, "USD"), "d" + i)
+                    : service.transfer(a.getAccountId(), b.getAccountId(), new Money(2.0, "USD"), "t" + i));
+            }
+
+            assertEquals(16, store.getWindowSize());
+            assertTrue(store.getLog().getSegmentCount() > 1);
+            assertEquals(200, store.size());
+            assertSameFields(added.get(0), service.getTransaction(added.get(0).getTransactionId()));
+            assertSameFields(added.get(199), service.getTransaction(added.get(199).getTransactionId()));
+            assertNull(store.get("missing"));
+
+            List<Transaction> all = service.getAllTransactions();
+            assertEquals(added.size(), all.size());
+            for (int i = 0; i < all.size(); i++) {
+                assertSameFields(added.get(i), all.get(i));
+            }
+            assertEquals(200, service.getTransactionsByAccount(a.getAccountId()).size());
+            assertEquals(100, service.getTransactionsByAccount(b.getAccountId()).size());
+
+            Page<Transaction> page = service.getTransactions(b.getAccountId(), null, 10);
+            assertEquals(10, page.getItems().size());
+            assertSameFields(added.get(199), page.getItems().get(0));
+            assertEquals(new Money(900.0, "USD"), a.getBalance());
+        }
+    }
+
+    @Test
+    void testRestartReopensLogAndRebuildsIndexesFromIt() throws IOException {
+        List<Transaction> added = new ArrayList<>();
+        String a;
+        String b;
+        try (Ledger ledger = new Ledger()) {
+            a = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(1_000.0, "USD")).getAccountId();
+            b = ledger.accounts.createAccount("CUST2", AccountType.SAVINGS, new Money(1_000.0, "USD")).getAccountId();
+            for (int i = 0; i < 200; i++) {
+                added.add(i % 2 == 0
+                    ? ledger.transactions.deposit(a, new Money(1.0, "USD"), "d" + i)
+                    : ledger.transactions.transfer(a, b, new Money(2.0, "USD"), "t" + i));
+                if (i == 120) {
+                    ledger.persistence.takeSnapshot();
+                }
+            }
+        }
+
+        try (Ledger restarted = new Ledger()) {
+            assertEquals(0, restarted.store.size());
+            assertEquals(200, restarted.store.getUnconfirmedCount());
+            restarted.persistence.recover();
+
+            assertEquals(0, restarted.store.getUnconfirmedCount());
+            assertEquals(200, restarted.store.size());
+            assertEquals(200, restarted.store.getLog().size());
+            assertSameFields(added.get(0), restarted.transactions.getTransaction(added.get(0).getTransactionId()));
+            assertEquals(200, restarted.transactions.getTransactionsByAccount(a).size());
+            assertEquals(100, restarted.transactions.getTransactionsByAccount(b).size());
+
+            Transaction next = restarted.transactions.deposit(b, new Money(1.0, "USD"), "after restart");
+            assertEquals(201, restarted.store.getLog().size());
+            assertSameFields(next, restarted.store.getLog().read(200));
+        }
+    }
+
+    @Test
+    void testRecordsTheJournalNeverKeptAreDroppedOnRecovery() throws IOException {
+        String a;
+        Transaction unjournaled;
+        try (Ledger ledger = new Ledger()) {
+            Account account = ledger.accounts.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+            a = account.getAccountId();
+            for (int i = 0; i < 10; i++) {
+                ledger.transactions.deposit(a, new Money(1.0, "USD"), "d" + i);
+            }
+            // As if the process died after the store wrote a record but before its journal
+            // entry became durable
+            unjournaled = new Transaction(a, TransactionType.DEPOSIT, new Money(5.0, "USD"), "lost");
+            ledger.store.add(unjournaled, account.getHandle(), TransactionStore.NO_ACCOUNT);
+        }
+
+        try (Ledger restarted = new Ledger()) {
+            assertEquals(11, restarted.store.getUnconfirmedCount());
+            restarted.persistence.recover();
+
+            assertEquals(10, restarted.store.size());
+            assertEquals(1, restarted.store.getUnconfirmedCount());
+            assertNull(restarted.store.get(unjournaled.getTransactionId()));
+            assertEquals(10, restarted.transactions.getTransactionsByAccount(a).size());
+
+            Transaction next = restarted.transactions.deposit(a, new Money(2.0, "USD"), "after restart");
+            assertEquals(0, restarted.store.getUnconfirmedCount());
+            assertEquals(11, restarted.store.getLog().size());
+            assertSameFields(next, restarted.store.getLog().read(10));
+            assertNull(restarted.store.get(unjournaled.getTransactionId()));
+        }
+    }
+
+    private class Ledger implements AutoCloseable {
+        final TransactionJournal journal;
+        final MappedTransactionStore store;
+        final AccountService accounts;
+        final TransactionService transactions;
+        final LedgerPersistence persistence;
+
+        Ledger() throws IOException {
+            journal = new TransactionJournal(directory.resolve("journal"));
+            store = new MappedTransactionStore(directory.resolve("store"), 4096, 16);
+            accounts = new AccountService(new AccountLocks(), journal);
+            transactions = new TransactionService(accounts, journal, store);
+            persistence = new LedgerPersistence(new SnapshotStore(directory.resolve("snapshots")),
+                journal, accounts, transactions);
+        }
+
+        @Override
+        public void close() throws IOException {
+            persistence.close();
+            journal.close();
+            store.close();
+        }
+    }
+}